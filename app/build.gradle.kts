@@ -16,6 +16,21 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Room exporta o schema de cada versão em app/schemas (versionado no git)
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments += mapOf(
+                    "room.schemaLocation" to "$projectDir/schemas",
+                    "room.incremental" to "true"
+                )
+            }
+        }
+    }
+
+    // Os schemas exportados viram assets dos testes instrumentados (MigrationTestHelper)
+    sourceSets {
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
     }
 
     buildTypes {
@@ -36,6 +51,12 @@ android {
         viewBinding = true
     }
 
+    // Testes unitários rodam na JVM: Log.* do android.jar devolve o valor padrão em vez de lançar
+    // (os caminhos de erro dos repositórios logam e precisam ser testáveis)
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
+
 }
 
 dependencies {
@@ -46,6 +67,7 @@ dependencies {
 
     // UI
     implementation(libs.recyclerview)
+    implementation(libs.asynclayoutinflater)
 
     // MVVM (ViewModel + LiveData)
     implementation(libs.lifecycle.viewmodel)
@@ -64,10 +86,13 @@ dependencies {
     // Tests (unit)
     testImplementation(libs.junit)
     testImplementation(libs.mockito.core)
+    testImplementation(libs.okhttp.mockwebserver)
+    testImplementation(libs.arch.core.testing) // LiveData síncrono nos testes de ViewModel
 
     // Tests (android / espresso)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     androidTestImplementation(libs.androidx.test.rules)
     androidTestImplementation(libs.androidx.test.runner)
+    androidTestImplementation(libs.room.testing)
 }
@@ -0,0 +1,226 @@
+package br.com.simplecatalog.data.local;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.SystemClock;
+
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.List;
+
+import br.com.simplecatalog.data.local.entity.ItemEntity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes de migração do Room.
+ *
+ * Usa os schemas exportados em app/schemas (assets do androidTest) para criar o banco
+ * numa versão antiga, aplicar {@link Migrations#ALL} e validar o schema final.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String TEST_DB = "migration-test.db";
+
+    // Tabela "grande" para garantir que nenhuma migração reescreve items linha a linha
+    private static final int LARGE_TABLE_ROWS = 20_000;
+    private static final long MAX_MIGRATION_MILLIS = 1_000;
+
+    // Preview da v3 (o valor congelado em MIGRATION_2_3, não o ItemMapper atual)
+    private static final int PREVIEW_LENGTH_V3 = 140;
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class
+    );
+
+    @Test
+    public void migrateFromV1_preservesCachedItems() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        insertV1Items(db, LARGE_TABLE_ROWS);
+        db.close();
+
+        long start = SystemClock.elapsedRealtime();
+        SupportSQLiteDatabase migrated =
+                helper.runMigrationsAndValidate(TEST_DB, AppDatabase.VERSION, true, Migrations.ALL);
+        long elapsed = SystemClock.elapsedRealtime() - start;
+
+        assertEquals(LARGE_TABLE_ROWS, countItems(migrated));
+        assertTrue("Migração levou " + elapsed + "ms", elapsed < MAX_MIGRATION_MILLIS);
+    }
+
+    @Test
+    public void migrateFromV1_roomReadsMigratedCache() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        insertV1Items(db, 3);
+        db.close();
+
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        AppDatabase appDatabase = Room.databaseBuilder(context, AppDatabase.class, TEST_DB)
+                .addMigrations(Migrations.ALL)
+                .build();
+        helper.closeWhenFinished(appDatabase);
+
+        List<ItemEntity> items = appDatabase.itemDao().getAll();
+        assertEquals(3, items.size());
+        assertEquals("Título 1", items.get(0).getTitle());
+    }
+
+    @Test
+    public void migrate1To2_keepsItemsAndStartsWithoutCursor() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        insertV1Items(db, 10);
+        db.close();
+
+        SupportSQLiteDatabase migrated =
+                helper.runMigrationsAndValidate(TEST_DB, 2, true, Migrations.MIGRATION_1_2);
+
+        assertEquals(10, countItems(migrated));
+        try (Cursor cursor = migrated.query("SELECT COUNT(*) FROM sync_state")) {
+            cursor.moveToFirst();
+            assertEquals(0, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void migrate2To3_truncatesSubtitleToPreview() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 2);
+        String longBody = new String(new char[PREVIEW_LENGTH_V3 * 3]).replace('\0', 'x');
+        db.execSQL("INSERT INTO items (id, title, subtitle) VALUES (1, 'Longo', ?)", new Object[] { longBody });
+        db.execSQL("INSERT INTO items (id, title, subtitle) VALUES (2, 'Curto', 'curto')");
+        db.close();
+
+        SupportSQLiteDatabase migrated =
+                helper.runMigrationsAndValidate(TEST_DB, 3, true, Migrations.MIGRATION_2_3);
+
+        try (Cursor cursor = migrated.query("SELECT subtitle FROM items ORDER BY id")) {
+            cursor.moveToFirst();
+            assertEquals(PREVIEW_LENGTH_V3, cursor.getString(0).length());
+            cursor.moveToNext();
+            assertEquals("curto", cursor.getString(0));
+        }
+    }
+
+    @Test
+    public void migrate3To4_keepsDetailsWithZeroAccessCount() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 3);
+        db.execSQL("INSERT INTO item_details (id, body, last_accessed) VALUES (1, 'corpo', 1000)");
+        db.close();
+
+        SupportSQLiteDatabase migrated =
+                helper.runMigrationsAndValidate(TEST_DB, 4, true, Migrations.MIGRATION_3_4);
+
+        try (Cursor cursor = migrated.query("SELECT body, last_accessed, access_count FROM item_details")) {
+            assertEquals(1, cursor.getCount());
+            cursor.moveToFirst();
+            assertEquals("corpo", cursor.getString(0));
+            assertEquals(1000, cursor.getLong(1));
+            assertEquals(0, cursor.getInt(2));
+        }
+    }
+
+    @Test
+    public void migrate4To5_createsEmptyStateAndOutbox() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 4);
+        db.execSQL("INSERT INTO item_details (id, body, last_accessed, access_count) VALUES (1, 'corpo', 1000, 3)");
+        db.close();
+
+        SupportSQLiteDatabase migrated =
+                helper.runMigrationsAndValidate(TEST_DB, 5, true, Migrations.MIGRATION_4_5);
+
+        try (Cursor cursor = migrated.query("SELECT COUNT(*) FROM item_state")) {
+            cursor.moveToFirst();
+            assertEquals(0, cursor.getInt(0));
+        }
+        try (Cursor cursor = migrated.query("SELECT COUNT(*) FROM outbox")) {
+            cursor.moveToFirst();
+            assertEquals(0, cursor.getInt(0));
+        }
+        try (Cursor cursor = migrated.query("SELECT access_count FROM item_details WHERE id = 1")) {
+            cursor.moveToFirst();
+            assertEquals(3, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void migrate5To6_addsCategoryAndForcesFullSync() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 5);
+        insertV1Items(db, 5);
+        db.execSQL("INSERT INTO sync_state (resource, cursor) VALUES ('items', '2024-01-01T00:00:00Z')");
+        db.close();
+
+        SupportSQLiteDatabase migrated =
+                helper.runMigrationsAndValidate(TEST_DB, 6, true, Migrations.MIGRATION_5_6);
+
+        assertEquals(5, countItems(migrated));
+        try (Cursor cursor = migrated.query("SELECT COUNT(*) FROM items WHERE category_id = 0")) {
+            cursor.moveToFirst();
+            assertEquals(5, cursor.getInt(0));
+        }
+        try (Cursor cursor = migrated.query("SELECT COUNT(*) FROM sync_state")) {
+            cursor.moveToFirst();
+            assertEquals(0, cursor.getInt(0)); // sem cursor: próximo sync é completo
+        }
+    }
+
+    @Test
+    public void migrate6To7_fillsBodyBytesOfStoredDetails() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 6);
+        db.execSQL("INSERT INTO item_details (id, body, last_accessed, access_count) VALUES (1, 'corpo', 1000, 3)");
+        db.execSQL("INSERT INTO item_details (id, body, last_accessed, access_count) VALUES (2, 'ação', 1000, 0)");
+        db.execSQL("INSERT INTO item_details (id, body, last_accessed, access_count) VALUES (3, NULL, 1000, 0)");
+        db.close();
+
+        SupportSQLiteDatabase migrated =
+                helper.runMigrationsAndValidate(TEST_DB, 7, true, Migrations.MIGRATION_6_7);
+
+        try (Cursor cursor = migrated.query("SELECT body_bytes, access_count FROM item_details ORDER BY id")) {
+            cursor.moveToFirst();
+            assertEquals(5, cursor.getLong(0));
+            assertEquals(3, cursor.getInt(1));
+            cursor.moveToNext();
+            assertEquals(6, cursor.getLong(0)); // bytes em UTF-8, não caracteres
+            cursor.moveToNext();
+            assertEquals(0, cursor.getLong(0));
+        }
+    }
+
+    // Insere linhas usando o schema da versão 1 (colunas id, title, subtitle)
+    private static void insertV1Items(SupportSQLiteDatabase db, int count) {
+        db.beginTransaction();
+        try {
+            SupportSQLiteStatement statement =
+                    db.compileStatement("INSERT INTO items (id, title, subtitle) VALUES (?, ?, ?)");
+            for (int i = 1; i <= count; i++) {
+                statement.bindLong(1, i);
+                statement.bindString(2, "Título " + i);
+                statement.bindString(3, "Subtítulo " + i);
+                statement.executeInsert();
+                statement.clearBindings();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static int countItems(SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM items")) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.simplecatalog.loadtest;
+
+import android.database.Cursor;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.util.Locale;
+
+/**
+ * Medições de um cenário do teste de carga: duração, pico de heap e tamanho do banco.
+ *
+ * - Pico de heap: uma thread amostra (totalMemory - freeMemory) a cada poucos ms
+ *   durante o cenário; o valor reportado é o pico acima da linha de base (após GC)
+ * - Tamanho do banco: page_count * page_size (funciona também com Room em memória)
+ *
+ * O resultado vai para o Logcat (tag LoadTest) e para o status da instrumentação,
+ * então aparece na saída de "adb shell am instrument -w -r ...".
+ */
+final class LoadTestReport {
+
+    private static final String TAG = "LoadTest";
+    private static final long SAMPLE_INTERVAL_MILLIS = 5;
+
+    private final String scenario;
+    private final long baselineHeap;
+    private final long startMillis;
+    private final Thread sampler;
+    private volatile boolean sampling = true;
+    private volatile long peakHeap;
+
+    private long durationMillis;
+    private long dbBytes;
+    private long rows;
+    private String extra = "";
+
+    private LoadTestReport(String scenario) {
+        this.scenario = scenario;
+        this.baselineHeap = usedHeapAfterGc();
+        this.peakHeap = baselineHeap;
+        this.sampler = new Thread(this::sample, "load-test-heap-sampler");
+        this.sampler.setDaemon(true);
+        this.sampler.start();
+        this.startMillis = SystemClock.elapsedRealtime();
+    }
+
+    static LoadTestReport start(String scenario) {
+        return new LoadTestReport(scenario);
+    }
+
+    /**
+     * Encerra a medição do cenário (antes de qualquer assert, para não medir o teste).
+     */
+    LoadTestReport finish(SupportSQLiteDatabase db) throws InterruptedException {
+        durationMillis = SystemClock.elapsedRealtime() - startMillis;
+        sampling = false;
+        sampler.join();
+        rows = longQuery(db, "SELECT COUNT(*) FROM items");
+        dbBytes = longQuery(db, "PRAGMA page_count") * longQuery(db, "PRAGMA page_size");
+        return this;
+    }
+
+    LoadTestReport note(String extra) {
+        this.extra = extra;
+        return this;
+    }
+
+    long getRows() { return rows; }
+    long getDurationMillis() { return durationMillis; }
+
+    /**
+     * Publica no Logcat e no status da instrumentação.
+     */
+    LoadTestReport publish() {
+        String line = String.format(Locale.US,
+                "%s: %d ms, pico heap +%.1f MB, banco %.1f MB, %d linhas%s",
+                scenario, durationMillis, mb(peakHeap - baselineHeap), mb(dbBytes), rows,
+                extra.isEmpty() ? "" : ", " + extra);
+        Log.i(TAG, line);
+
+        Bundle status = new Bundle();
+        status.putString("stream", line + "\n");
+        status.putLong(scenario + ".durationMillis", durationMillis);
+        status.putLong(scenario + ".peakHeapBytes", peakHeap - baselineHeap);
+        status.putLong(scenario + ".dbBytes", dbBytes);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        return this;
+    }
+
+    private void sample() {
+        while (sampling) {
+            long used = usedHeap();
+            if (used > peakHeap) {
+                peakHeap = used;
+            }
+            SystemClock.sleep(SAMPLE_INTERVAL_MILLIS);
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime.getRuntime().gc();
+        return usedHeap();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long longQuery(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.simplecatalog.loadtest;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import br.com.simplecatalog.data.local.AppDatabase;
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.resilience.CircuitBreaker;
+import br.com.simplecatalog.data.remote.resilience.CountingResilienceMetrics;
+import br.com.simplecatalog.data.remote.resilience.HedgePolicy;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.data.remote.resilience.RetryPolicy;
+import br.com.simplecatalog.domain.model.Item;
+import br.com.simplecatalog.repository.ItemRepositoryImpl;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Teste de carga do pipeline de sync (API → Gson → Mapper → Room), sem rede real.
+ *
+ * - Servidor local (SyntheticCatalogServer) com catálogo sintético gerado em streaming
+ * - ItemRepositoryImpl de verdade sobre um Room em memória
+ * - Cada cenário publica duração, pico de heap e tamanho do banco (tag LoadTest no Logcat)
+ *
+ * Tamanho do catálogo (padrão pequeno para CI; até 1M para checar escala antes de release):
+ *   ./gradlew connectedAndroidTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.class=br.com.simplecatalog.loadtest.SyncLoadTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.catalogSize=1000000
+ */
+@RunWith(AndroidJUnit4.class)
+public class SyncLoadTest {
+
+    private static final int DEFAULT_CATALOG_SIZE = 20_000;
+    private static final int MAX_CATALOG_SIZE = 1_000_000;
+
+    // Cenários de rede ruim usam um catálogo menor (o objetivo é o comportamento, não a escala)
+    private static final int DEGRADED_CATALOG_SIZE = 5_000;
+
+    private SyntheticCatalogServer server;
+    private AppDatabase db;
+
+    @After
+    public void tearDown() throws IOException {
+        if (server != null) {
+            server.shutdown();
+        }
+        if (db != null) {
+            db.close();
+        }
+    }
+
+    @Test
+    public void fullSync_largeCatalog() throws Exception {
+        int size = catalogSize();
+        SyntheticCatalogServer catalog = SyntheticCatalogServer.catalogOf(size).build();
+        ItemRepositoryImpl repository = start(catalog, ResilientCallExecutor.direct());
+
+        LoadTestReport report = LoadTestReport.start("fullSync[" + size + "]");
+        List<Item> items = repository.getItems();
+        report.finish(database()).publish();
+
+        assertEquals(size, report.getRows());
+        assertEquals(size, items.size());
+    }
+
+    @Test
+    public void deltaSync_onLargeCache() throws Exception {
+        int size = catalogSize();
+        int changes = Math.max(10, size / 100); // 1% do catálogo muda entre dois syncs
+        SyntheticCatalogServer catalog = SyntheticCatalogServer.catalogOf(size)
+                .changesPerDelta(changes)
+                .build();
+        ItemRepositoryImpl repository = start(catalog, ResilientCallExecutor.direct());
+        repository.getItems(); // snapshot inicial, fora da medição
+
+        LoadTestReport report = LoadTestReport.start("deltaSync[" + size + ", " + changes + " mudanças]");
+        repository.refresh();
+        report.finish(database()).publish();
+
+        assertEquals(size - catalog.tombstonesPerDelta(), report.getRows());
+    }
+
+    @Test
+    public void slowThrottledNetwork_completesSync() throws Exception {
+        int size = Math.min(catalogSize(), DEGRADED_CATALOG_SIZE);
+        long latencyMillis = 400;
+        SyntheticCatalogServer catalog = SyntheticCatalogServer.catalogOf(size)
+                .latency(latencyMillis)
+                .bandwidth(256 * 1024) // ~3G
+                .build();
+        ItemRepositoryImpl repository = start(catalog, ResilientCallExecutor.direct());
+
+        LoadTestReport report = LoadTestReport.start("slowNetwork[" + size + "]");
+        repository.getItems();
+        report.finish(database()).note("latência " + latencyMillis + " ms, 256 KB/s").publish();
+
+        assertEquals(size, report.getRows());
+        assertTrue(report.getDurationMillis() >= latencyMillis);
+    }
+
+    @Test
+    public void flakyNetwork_retriesUntilSynced() throws Exception {
+        int size = Math.min(catalogSize(), DEGRADED_CATALOG_SIZE);
+        SyntheticCatalogServer catalog = SyntheticCatalogServer.catalogOf(size)
+                .faultRate(0.3) // 503, conexão recusada ou cortada no meio do corpo
+                .build();
+        CountingResilienceMetrics metrics = new CountingResilienceMetrics();
+        ResilientCallExecutor callExecutor = new ResilientCallExecutor(
+                new RetryPolicy(8, 20, 200),
+                HedgePolicy.DISABLED,
+                new CircuitBreaker(100, 1_000),
+                metrics
+        );
+        ItemRepositoryImpl repository = start(catalog, callExecutor);
+
+        LoadTestReport report = LoadTestReport.start("flakyNetwork[" + size + "]");
+        repository.getItems();
+        report.finish(database())
+                .note("falhas injetadas " + catalog.getFaults() + ", " + metrics)
+                .publish();
+
+        assertEquals(size, report.getRows());
+    }
+
+    // --- Montagem do cenário ---
+
+    private ItemRepositoryImpl start(SyntheticCatalogServer catalog,
+                                     ResilientCallExecutor callExecutor) throws IOException {
+        server = catalog;
+        server.start();
+
+        // sem HttpLoggingInterceptor: logar corpos de MB distorceria as medições
+        OkHttpClient client = new OkHttpClient.Builder()
+                .readTimeout(2, TimeUnit.MINUTES)
+                .build();
+        ApiService apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        return new ItemRepositoryImpl(
+                apiService, callExecutor, db.itemDao(), db.itemDetailDao(), db.syncStateDao(), db::runInTransaction,
+                new ItemMapper());
+    }
+
+    private SupportSQLiteDatabase database() {
+        return db.getOpenHelper().getReadableDatabase();
+    }
+
+    private static int catalogSize() {
+        String value = InstrumentationRegistry.getArguments().getString("catalogSize");
+        int size = value != null ? Integer.parseInt(value) : DEFAULT_CATALOG_SIZE;
+        return Math.max(1, Math.min(size, MAX_CATALOG_SIZE));
+    }
+}
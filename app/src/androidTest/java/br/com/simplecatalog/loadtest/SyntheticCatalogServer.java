@@ -0,0 +1,420 @@
+package br.com.simplecatalog.loadtest;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.HttpUrl;
+import okio.BufferedSink;
+import okio.Okio;
+
+/**
+ * API falsa de catálogo para os testes de carga: servidor HTTP/1.1 mínimo em 127.0.0.1,
+ * com catálogo sintético e rede ruim sob medida.
+ *
+ * Endpoints (os mesmos do ApiEndpoints):
+ * - GET posts/changes          → snapshot completo de {@code size} itens, cursor "c1"
+ * - GET posts/changes?since=cN → delta: {@code changesPerDelta} upserts + tombstones, cursor "c(N+1)"
+ * - GET posts                  → lista completa (sync legado)
+ * - GET posts/{id}             → um item
+ *
+ * Corpo em streaming: o JSON de cada resposta é gerado enquanto é enviado
+ * (Transfer-Encoding: chunked, um pedaço por segmento do okio), sem montar a resposta
+ * inteira e sem guardar nada entre requisições. Com 1M de itens o snapshot passa de 150 MB;
+ * montado num Buffer (como exige o MockWebServer) ele estourava o heap do processo de teste,
+ * que é o mesmo do app, e ainda entrava no pico de heap medido pelo LoadTestReport.
+ * Gerar o JSON custa bem menos que o parse + gravação do lado do app.
+ *
+ * Condições de rede (por resposta):
+ * - latência antes dos headers, banda limitada no corpo
+ * - falhas: uma fração das respostas vira 503, desconexão antes da resposta
+ *   ou desconexão no meio do corpo (sorteio com seed fixa: execução reproduzível)
+ *
+ * Uma conexão por requisição (Connection: close): simples e suficiente para o teste.
+ */
+final class SyntheticCatalogServer {
+
+    // Tamanho aproximado de um item no JSON além do campo body (id, título, aspas, vírgulas)
+    private static final int ITEM_OVERHEAD_BYTES = 48;
+
+    private final int size;
+    private final int bodyLength;
+    private final int changesPerDelta;
+    private final long latencyMillis;
+    private final long bytesPerSecond;
+    private final double faultRate;
+    private final Random random;
+
+    private final AtomicInteger faults = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private HttpUrl baseUrl;
+
+    // Como responder (ou não) a uma requisição
+    private enum Fault { NONE, UNAVAILABLE, DISCONNECT_AT_START, DISCONNECT_DURING_BODY }
+
+    // Escreve o corpo JSON direto no socket
+    private interface Body {
+        void writeTo(BufferedSink sink) throws IOException;
+    }
+
+    private SyntheticCatalogServer(Builder builder) {
+        this.size = builder.size;
+        this.bodyLength = builder.bodyLength;
+        this.changesPerDelta = builder.changesPerDelta;
+        this.latencyMillis = builder.latencyMillis;
+        this.bytesPerSecond = builder.bytesPerSecond;
+        this.faultRate = builder.faultRate;
+        this.random = new Random(builder.seed);
+    }
+
+    static Builder catalogOf(int size) {
+        return new Builder(size);
+    }
+
+    void start() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        baseUrl = new HttpUrl.Builder()
+                .scheme("http")
+                .host(serverSocket.getInetAddress().getHostAddress())
+                .port(serverSocket.getLocalPort())
+                .build();
+        connections.execute(this::acceptLoop);
+    }
+
+    HttpUrl url(String path) {
+        return baseUrl.resolve(path);
+    }
+
+    void shutdown() throws IOException {
+        if (serverSocket == null) {
+            return;
+        }
+        serverSocket.close();
+        for (Socket socket : openSockets) {
+            socket.close(); // respostas longas em andamento (cliente desistiu)
+        }
+        connections.shutdownNow();
+        try {
+            connections.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    int getFaults() { return faults.get(); }
+    int getRequests() { return requests.get(); }
+
+    // Itens removidos a cada delta (ids ímpares do bloco alterado)
+    int tombstonesPerDelta() {
+        return Math.min(changesPerDelta, size) / 2;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                return; // shutdown()
+            }
+            openSockets.add(socket);
+            connections.execute(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket ignored = socket) {
+            String requestLine = readRequestHead(socket.getInputStream());
+            String[] parts = requestLine != null ? requestLine.split(" ") : new String[0];
+            if (parts.length >= 2) {
+                respond(parts[1], socket);
+            }
+        } catch (IOException e) {
+            // cliente desistiu (timeout, cancelamento) ou corte proposital no meio do corpo
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private void respond(String target, Socket socket) throws IOException {
+        requests.incrementAndGet();
+        OutputStream out = socket.getOutputStream();
+
+        Fault fault = nextFault();
+        if (fault == Fault.DISCONNECT_AT_START) {
+            return; // fecha sem responder
+        }
+        if (fault == Fault.UNAVAILABLE) {
+            writeHead(out, "503 Service Unavailable", false);
+            return;
+        }
+
+        HttpUrl url = baseUrl.resolve(target);
+        String path = url != null ? url.encodedPath() : "";
+        Body body;
+        long items;
+        if (path.equals("/posts/changes")) {
+            String since = url.queryParameter("since");
+            if (since == null) {
+                body = this::writeSnapshot;
+                items = size;
+            } else {
+                int version = Integer.parseInt(since.substring(1)) + 1;
+                body = sink -> writeDelta(sink, version);
+                items = Math.min(changesPerDelta, size);
+            }
+        } else if (path.equals("/posts")) {
+            body = sink -> writeItems(sink, 1, size, 1, false);
+            items = size;
+        } else if (path.startsWith("/posts/")) {
+            long id = Long.parseLong(path.substring("/posts/".length()));
+            body = sink -> writeItem(sink, id, 1, false);
+            items = 1;
+        } else {
+            writeHead(out, "404 Not Found", false);
+            return;
+        }
+
+        // corte em algum ponto da primeira metade do corpo (tamanho estimado, o corpo não existe ainda)
+        long cutAfter = Long.MAX_VALUE;
+        if (fault == Fault.DISCONNECT_DURING_BODY) {
+            long half = Math.max(1, items * (bodyLength + ITEM_OVERHEAD_BYTES) / 2);
+            cutAfter = 1 + (long) (random.nextDouble() * half);
+        }
+
+        sleep(latencyMillis);
+        writeHead(out, "200 OK", true);
+        OutputStream throttled = bytesPerSecond > 0 ? new ThrottledOutputStream(out, bytesPerSecond) : out;
+        try (BufferedSink sink = Okio.buffer(Okio.sink(new ChunkedOutputStream(throttled, cutAfter)))) {
+            body.writeTo(sink);
+        }
+    }
+
+    private Fault nextFault() {
+        if (faultRate <= 0 || random.nextDouble() >= faultRate) {
+            return Fault.NONE;
+        }
+        faults.incrementAndGet();
+        switch (random.nextInt(3)) {
+            case 0:
+                return Fault.UNAVAILABLE;
+            case 1:
+                return Fault.DISCONNECT_AT_START;
+            default:
+                return Fault.DISCONNECT_DURING_BODY;
+        }
+    }
+
+    // Lê a requisição até a linha em branco; devolve a primeira linha ("GET /posts HTTP/1.1")
+    private static String readRequestHead(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            head.append((char) b);
+            int length = head.length();
+            if (length >= 4 && head.charAt(length - 1) == '\n' && head.charAt(length - 3) == '\n') {
+                int end = head.indexOf("\r\n");
+                return head.substring(0, end);
+            }
+        }
+        return null;
+    }
+
+    private static void writeHead(OutputStream out, String status, boolean chunked) throws IOException {
+        String head = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: application/json; charset=utf-8\r\n"
+                + (chunked ? "Transfer-Encoding: chunked\r\n" : "Content-Length: 0\r\n")
+                + "Connection: close\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    // {"items":[...],"cursor":"c1","full":true}
+    private void writeSnapshot(BufferedSink sink) throws IOException {
+        sink.writeUtf8("{\"items\":");
+        writeItems(sink, 1, size, 1, false);
+        sink.writeUtf8(",\"cursor\":\"c1\",\"full\":true}");
+    }
+
+    // Delta da versão N: altera um bloco de ids que anda a cada versão; ids ímpares viram tombstone
+    private void writeDelta(BufferedSink sink, int version) throws IOException {
+        int changes = Math.min(changesPerDelta, size);
+        long first = ((long) (version - 2) * changes) % Math.max(1, size - changes + 1) + 1;
+
+        sink.writeUtf8("{\"items\":[");
+        for (int i = 0; i < changes; i++) {
+            if (i > 0) {
+                sink.writeByte(',');
+            }
+            boolean tombstone = i % 2 == 1;
+            writeItem(sink, first + i, version, tombstone);
+        }
+        sink.writeUtf8("],\"cursor\":\"c").writeUtf8(String.valueOf(version)).writeUtf8("\"}");
+    }
+
+    private void writeItems(BufferedSink sink, long firstId, int count, int version, boolean tombstone)
+            throws IOException {
+        sink.writeByte('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sink.writeByte(',');
+            }
+            writeItem(sink, firstId + i, version, tombstone);
+        }
+        sink.writeByte(']');
+    }
+
+    private void writeItem(BufferedSink sink, long id, int version, boolean tombstone) throws IOException {
+        sink.writeUtf8("{\"id\":").writeDecimalLong(id);
+        if (tombstone) {
+            sink.writeUtf8(",\"deleted\":true}");
+            return;
+        }
+        sink.writeUtf8(",\"title\":\"Item ").writeDecimalLong(id)
+                .writeUtf8(" v").writeDecimalLong(version)
+                .writeUtf8("\",\"body\":\"");
+        for (int i = 0; i < bodyLength; i++) {
+            sink.writeByte('a' + (int) ((id + i) % 26));
+        }
+        sink.writeUtf8("\"}");
+    }
+
+    private static void sleep(long millis) throws IOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("servidor encerrado", e);
+        }
+    }
+
+    /**
+     * Transfer-Encoding: chunked. Cada write (um segmento do okio, ~8 KB) vira um pedaço;
+     * close() manda o pedaço final. Passando de {@code cutAfter} bytes, escreve só uma parte
+     * e falha: a conexão fecha com o corpo incompleto.
+     */
+    private static final class ChunkedOutputStream extends FilterOutputStream {
+        private final long cutAfter;
+        private long written;
+        private boolean cut;
+
+        ChunkedOutputStream(OutputStream out, long cutAfter) {
+            super(out);
+            this.cutAfter = cutAfter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (cut) {
+                throw new IOException("corpo já cortado");
+            }
+            if (len == 0) {
+                return;
+            }
+            if (written + len > cutAfter) {
+                cut = true;
+                int partial = (int) (cutAfter - written);
+                out.write((Integer.toHexString(len) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(b, off, partial);
+                out.flush();
+                throw new IOException("corte proposital no meio do corpo");
+            }
+            out.write((Integer.toHexString(len) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(b, off, len);
+            out.write('\r');
+            out.write('\n');
+            written += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (cut) {
+                return; // sem pedaço final: o cliente tem que ver o corpo incompleto
+            }
+            out.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush(); // o socket é fechado por quem o abriu
+        }
+    }
+
+    // 10 fatias por segundo: banda constante sem rajadas grandes
+    private static final class ThrottledOutputStream extends FilterOutputStream {
+        private final long slice;
+        private long sentInSlice;
+
+        ThrottledOutputStream(OutputStream out, long bytesPerSecond) {
+            super(out);
+            this.slice = Math.max(1, bytesPerSecond / 10);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = (int) Math.min(len, slice - sentInSlice);
+                out.write(b, off, n);
+                off += n;
+                len -= n;
+                sentInSlice += n;
+                if (sentInSlice == slice) {
+                    out.flush();
+                    sleep(100);
+                    sentInSlice = 0;
+                }
+            }
+        }
+    }
+
+    static final class Builder {
+        private final int size;
+        private int bodyLength = 120;
+        private int changesPerDelta = 100;
+        private long latencyMillis;
+        private long bytesPerSecond;
+        private double faultRate;
+        private long seed = 42;
+
+        private Builder(int size) {
+            this.size = size;
+        }
+
+        // Tamanho do campo body de cada item (o app guarda só o preview de 140)
+        Builder bodyLength(int chars) { this.bodyLength = chars; return this; }
+        Builder changesPerDelta(int changes) { this.changesPerDelta = changes; return this; }
+        Builder latency(long millis) { this.latencyMillis = millis; return this; }
+        Builder bandwidth(long bytesPerSecond) { this.bytesPerSecond = bytesPerSecond; return this; }
+        Builder faultRate(double rate) { this.faultRate = rate; return this; }
+        Builder seed(long seed) { this.seed = seed; return this; }
+
+        SyntheticCatalogServer build() {
+            return new SyntheticCatalogServer(this);
+        }
+    }
+}
@@ -4,7 +4,15 @@ import androidx.room.Database;
 import androidx.room.RoomDatabase;
 
 import br.com.simplecatalog.data.local.dao.ItemDao;
+import br.com.simplecatalog.data.local.dao.ItemDetailDao;
+import br.com.simplecatalog.data.local.dao.ItemStateDao;
+import br.com.simplecatalog.data.local.dao.OutboxDao;
+import br.com.simplecatalog.data.local.dao.SyncStateDao;
+import br.com.simplecatalog.data.local.entity.ItemDetailEntity;
 import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.data.local.entity.ItemStateEntity;
+import br.com.simplecatalog.data.local.entity.OutboxEntity;
+import br.com.simplecatalog.data.local.entity.SyncStateEntity;
 
 /**
  * Classe principal do Room Database.
@@ -16,15 +24,49 @@ import br.com.simplecatalog.data.local.entity.ItemEntity;
  *
  * Observação:
  * - A instância do banco é criada no AppContainer para ser Singleton no app.
+ * - O schema de cada versão é exportado em app/schemas e toda mudança de versão
+ *   precisa de uma Migration explícita em {@link Migrations} (o cache nunca é apagado no upgrade).
  */
 @Database(
-        entities = { ItemEntity.class },
-        version = 1,
-        exportSchema = false
+        entities = {
+                ItemEntity.class,
+                SyncStateEntity.class,
+                ItemDetailEntity.class,
+                ItemStateEntity.class,
+                OutboxEntity.class
+        },
+        version = AppDatabase.VERSION,
+        exportSchema = true
 )
 public abstract class AppDatabase extends RoomDatabase {
 
+    // Nome do arquivo do banco no dispositivo
+    public static final String NAME = "simplecatalog.db";
+
+    /**
+     * Arquivo do banco de um catálogo: cada catálogo tem o próprio banco (dados isolados,
+     * apagar um catálogo = apagar um arquivo). O catálogo padrão mantém o nome antigo
+     * para instalações existentes não perderem o cache.
+     */
+    public static String fileName(String catalogId, boolean isDefault) {
+        return isDefault ? NAME : "simplecatalog-" + catalogId + ".db";
+    }
+
+    // Versão atual do schema (incrementar junto com uma nova Migration)
+    public static final int VERSION = 7;
+
     // Expondo o DAO da tabela items
     public abstract ItemDao itemDao();
-}
 
+    // Expondo o DAO da tabela sync_state (cursor do delta sync)
+    public abstract SyncStateDao syncStateDao();
+
+    // Expondo o DAO da tabela item_details (cache do detalhe)
+    public abstract ItemDetailDao itemDetailDao();
+
+    // Expondo o DAO da tabela item_state (edições do usuário)
+    public abstract ItemStateDao itemStateDao();
+
+    // Expondo o DAO da tabela outbox (edições esperando envio)
+    public abstract OutboxDao outboxDao();
+}
@@ -0,0 +1,139 @@
+package br.com.simplecatalog.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Migrações incrementais do schema do Room (versão N → N+1).
+ *
+ * Por que não usar fallbackToDestructiveMigration:
+ * - Apagar o banco a cada release força o app a baixar o catálogo inteiro de novo
+ * - Com migrações explícitas o cache local sobrevive ao upgrade
+ *
+ * Regras para novas migrações:
+ * - Uma constante MIGRATION_N_M por passo, sempre registrada em {@link #ALL}
+ * - Preferir ALTER TABLE ADD COLUMN / CREATE TABLE / CREATE INDEX, que não reescrevem a tabela items
+ *   (custo constante mesmo com muitas linhas); recriar tabela só quando o SQLite não suportar a alteração
+ * - Cada migração ganha um caso em MigrationTest (androidTest) validando schema e dados preservados
+ * - Nada de constantes do app dentro do SQL: uma migração antiga tem que fazer sempre a mesma coisa
+ */
+public final class Migrations {
+    private Migrations() {} // impede instanciação
+
+    /**
+     * 1 → 2: cria a tabela sync_state (cursor do delta sync).
+     * Não toca em items: o cache existente continua válido e o próximo sync,
+     * sem cursor salvo, é completo.
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sync_state` ("
+                    + "`resource` TEXT NOT NULL, "
+                    + "`cursor` TEXT, "
+                    + "PRIMARY KEY(`resource`))");
+        }
+    };
+
+    /**
+     * 2 → 3: cria item_details (cache do corpo completo) e reduz items.subtitle a um preview.
+     * O UPDATE reescreve só as linhas com subtitle maior que o preview; o corpo completo
+     * volta sob demanda pelo endpoint de detalhe.
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        // Tamanho do preview na v3, congelado: se ItemMapper.PREVIEW_LENGTH mudar depois,
+        // um banco v2 continua migrando igual em qualquer versão do app
+        private static final int PREVIEW_LENGTH_V3 = 140;
+
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `item_details` ("
+                    + "`id` INTEGER NOT NULL, "
+                    + "`body` TEXT, "
+                    + "`last_accessed` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_item_details_last_accessed` "
+                    + "ON `item_details` (`last_accessed`)");
+            db.execSQL("UPDATE items SET subtitle = substr(subtitle, 1, " + PREVIEW_LENGTH_V3 + ") "
+                    + "WHERE length(subtitle) > " + PREVIEW_LENGTH_V3);
+        }
+    };
+
+    /**
+     * 3 → 4: item_details ganha access_count (quantas vezes o detalhe foi aberto), usado para
+     * decidir o que fica no disco e o que volta ao hot set no startup. ADD COLUMN com DEFAULT
+     * não reescreve a tabela; os detalhes já salvos começam com 0 (primeiros a sair se faltar espaço).
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `item_details` ADD COLUMN `access_count` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_item_details_access_count_last_accessed` "
+                    + "ON `item_details` (`access_count`, `last_accessed`)");
+        }
+    };
+
+    /**
+     * 4 → 5: cria item_state (edições do usuário) e outbox (edições esperando envio).
+     * Tabelas novas e vazias: nada do cache existente é tocado.
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `item_state` ("
+                    + "`item_id` INTEGER NOT NULL, "
+                    + "`favorite` INTEGER NOT NULL, "
+                    + "`quantity` INTEGER NOT NULL, "
+                    + "`note` TEXT, "
+                    + "`updated_at` INTEGER NOT NULL, "
+                    + "`version` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`item_id`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `outbox` ("
+                    + "`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`item_id` INTEGER NOT NULL, "
+                    + "`field` TEXT NOT NULL, "
+                    + "`value` TEXT, "
+                    + "`base_version` INTEGER NOT NULL, "
+                    + "`updated_at` INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_outbox_item_id_field` "
+                    + "ON `outbox` (`item_id`, `field`)");
+        }
+    };
+
+    /**
+     * 5 → 6: items ganha category_id (seções da lista). ADD COLUMN com DEFAULT não reescreve a tabela;
+     * as linhas já salvas ficam com 0 e o cursor do delta sync é apagado, então o próximo sync
+     * é completo e traz a categoria de todos os itens (substitui o cache na mesma transação).
+     */
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `items` ADD COLUMN `category_id` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("DELETE FROM `sync_state` WHERE `resource` = 'items'");
+        }
+    };
+
+    /**
+     * 6 → 7: item_details ganha body_bytes (tamanho do corpo), para o orçamento do disco não
+     * precisar somar length(body) de todas as linhas a cada gravação. O UPDATE preenche as linhas
+     * existentes uma vez só; a tabela é pequena (limitada pelo próprio orçamento do cache).
+     */
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `item_details` ADD COLUMN `body_bytes` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `item_details` SET `body_bytes` = COALESCE(length(CAST(`body` AS BLOB)), 0)");
+        }
+    };
+
+    // Todas as migrações, em ordem (usado pelo AppContainer e pelos testes de migração)
+    public static final Migration[] ALL = new Migration[] {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7
+    };
+}
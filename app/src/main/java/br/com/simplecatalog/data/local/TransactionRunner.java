@@ -0,0 +1,13 @@
+package br.com.simplecatalog.data.local;
+
+/**
+ * Abstração mínima de transação do banco local.
+ *
+ * O Repository usa para aplicar várias escritas (itens + cursor de sync) de forma atômica
+ * sem depender diretamente do AppDatabase. Em produção é RoomDatabase::runInTransaction;
+ * em testes unitários pode ser simplesmente Runnable::run.
+ */
+public interface TransactionRunner {
+
+    void runInTransaction(Runnable body);
+}
@@ -34,6 +34,20 @@ public interface ItemDao {
     @Query("SELECT * FROM items")
     List<ItemEntity> getAll();
 
+    /**
+     * Retorna um item pelo id (ou null se não estiver no cache).
+     */
+    @Query("SELECT * FROM items WHERE id = :id")
+    ItemEntity getById(long id);
+
+    /**
+     * Paginação por chave (keyset): próximos {@code limit} itens com id maior que {@code afterId}.
+     * Usa o índice da chave primária, então o custo não cresce com a posição da página
+     * (diferente de LIMIT/OFFSET, que percorre todas as linhas anteriores).
+     */
+    @Query("SELECT * FROM items WHERE id > :afterId ORDER BY id LIMIT :limit")
+    List<ItemEntity> getPageAfter(long afterId, int limit);
+
     /**
      * Insere uma lista de itens no banco.
      * OnConflictStrategy.REPLACE faz upsert simples (se já existir o id, substitui).
@@ -42,11 +56,25 @@ public interface ItemDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertAll(List<ItemEntity> items);
 
+    /**
+     * Insere um lote de itens a partir de um array (caminho em lote do sync).
+     * Permite reaproveitar as mesmas Entities entre lotes: o Room só lê os campos durante o insert.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertBatch(ItemEntity[] items);
+
     /**
      * Limpa a tabela inteira.
      * Útil para estratégia simples de atualizar cache (clear + insertAll).
      */
     @Query("DELETE FROM items")
     void clear();
+
+    /**
+     * Remove itens pelo id (tombstones do delta sync).
+     * O chamador deve limitar o tamanho da lista (limite de parâmetros do SQLite).
+     */
+    @Query("DELETE FROM items WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
 }
 
@@ -0,0 +1,100 @@
+package br.com.simplecatalog.data.local.dao;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+import br.com.simplecatalog.data.local.entity.ItemDetailEntity;
+
+/**
+ * DAO da tabela "item_details" (cache em disco do detalhe dos itens, tier "warm").
+ */
+@Dao
+public interface ItemDetailDao {
+
+    @Query("SELECT * FROM item_details WHERE id = :id")
+    ItemDetailEntity getById(long id);
+
+    /**
+     * Tamanho (body_bytes) do detalhe guardado, sem ler o corpo. Null se não estiver no disco.
+     */
+    @Query("SELECT body_bytes FROM item_details WHERE id = :id")
+    Long getBodyBytes(long id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(ItemDetailEntity detail);
+
+    /**
+     * Registra uma abertura vinda do disco: marca como usado agora e soma um acesso.
+     */
+    @Query("UPDATE item_details SET last_accessed = :now, access_count = access_count + 1 WHERE id = :id")
+    void recordAccess(long id, long now);
+
+    /**
+     * Garante ao menos {@code count} acessos (item que entrou no hot set e é lido só da memória).
+     */
+    @Query("UPDATE item_details SET access_count = MAX(access_count, :count) WHERE id = :id")
+    void raiseAccessCount(long id, int count);
+
+    /**
+     * Envelhecimento: divide todos os contadores por 2 (popularidade antiga vai perdendo peso).
+     */
+    @Query("UPDATE item_details SET access_count = access_count / 2")
+    void ageAccessCounts();
+
+    /**
+     * Os {@code limit} detalhes mais acessados (carga do hot set quando o catálogo abre).
+     */
+    @Query("SELECT * FROM item_details ORDER BY access_count DESC, last_accessed DESC LIMIT :limit")
+    List<ItemDetailEntity> getMostAccessed(int limit);
+
+    /**
+     * Próxima vítima do disco: o menos acessado (no empate, o mais antigo). Null se vazio.
+     */
+    @Query("SELECT id FROM item_details ORDER BY access_count ASC, last_accessed ASC LIMIT 1")
+    Long getColdestId();
+
+    /**
+     * Tamanho do tier em disco: soma de body_bytes (UTF-8). Percorre a tabela inteira:
+     * o repositório chama só para (re)carregar o total que ele mantém em memória.
+     */
+    @Query("SELECT COALESCE(SUM(body_bytes), 0) FROM item_details")
+    long totalBodyBytes();
+
+    /**
+     * Quantos detalhes estão no disco (com o total em bytes, dá o tamanho médio de um corpo).
+     */
+    @Query("SELECT COUNT(*) FROM item_details")
+    int count();
+
+    /**
+     * Os {@code rows} detalhes menos acessados (ordem de despejo), com o tamanho de cada um:
+     * quem apaga sabe exatamente quantos bytes saíram.
+     */
+    @Query("SELECT id, body_bytes FROM item_details ORDER BY access_count ASC, last_accessed ASC LIMIT :rows")
+    List<StoredSize> getColdest(int rows);
+
+    /**
+     * Remove o detalhe dos itens que o sync alterou ou apagou (até 999 ids por chamada).
+     */
+    @Query("DELETE FROM item_details WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
+    /**
+     * Sync completo: qualquer item pode ter mudado, nenhum detalhe guardado vale mais.
+     */
+    @Query("DELETE FROM item_details")
+    void clear();
+
+    // Id + tamanho de um detalhe guardado (resultado de getColdest)
+    class StoredSize {
+        public long id;
+
+        @ColumnInfo(name = "body_bytes")
+        public long bodyBytes;
+    }
+}
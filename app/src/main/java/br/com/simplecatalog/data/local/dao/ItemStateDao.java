@@ -0,0 +1,35 @@
+package br.com.simplecatalog.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+import br.com.simplecatalog.data.local.entity.ItemStateEntity;
+
+/**
+ * DAO da tabela "item_state" (edições do usuário: favorito, quantidade, nota).
+ */
+@Dao
+public interface ItemStateDao {
+
+    /**
+     * Todas as edições (tabela pequena: só itens que o usuário mexeu).
+     */
+    @Query("SELECT * FROM item_state")
+    List<ItemStateEntity> getAll();
+
+    @Query("SELECT * FROM item_state WHERE item_id = :itemId")
+    ItemStateEntity getById(long itemId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(ItemStateEntity state);
+
+    /**
+     * Guarda a versão confirmada pelo servidor (base das próximas mutações do item).
+     */
+    @Query("UPDATE item_state SET version = MAX(version, :version) WHERE item_id = :itemId")
+    void setVersion(long itemId, long version);
+}
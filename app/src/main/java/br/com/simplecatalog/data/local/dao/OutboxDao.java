@@ -0,0 +1,52 @@
+package br.com.simplecatalog.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+import br.com.simplecatalog.data.local.entity.OutboxEntity;
+
+/**
+ * DAO da tabela "outbox" (mutações esperando envio ao servidor).
+ */
+@Dao
+public interface OutboxDao {
+
+    /**
+     * Enfileira a mutação. REPLACE + índice único (item_id, field): uma nova edição do
+     * mesmo campo substitui a pendente (e ganha um seq novo).
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void enqueue(OutboxEntity mutation);
+
+    /**
+     * Próximo lote a enviar, na ordem das edições.
+     */
+    @Query("SELECT * FROM outbox ORDER BY seq LIMIT :limit")
+    List<OutboxEntity> getBatch(int limit);
+
+    /**
+     * Remove a mutação confirmada. Por seq (não por item/campo): se o usuário editou de novo
+     * enquanto o lote estava na rede, a edição nova (outro seq) continua na fila.
+     */
+    @Query("DELETE FROM outbox WHERE seq = :seq")
+    int delete(long seq);
+
+    /**
+     * Conflito resolvido a favor do cliente: reenvia sobre a versão atual do servidor.
+     */
+    @Query("UPDATE outbox SET base_version = :baseVersion WHERE seq = :seq")
+    void rebase(long seq, long baseVersion);
+
+    /**
+     * Itens com alguma mutação ainda não confirmada (estado "sincronizando" na UI).
+     */
+    @Query("SELECT DISTINCT item_id FROM outbox")
+    List<Long> getPendingItemIds();
+
+    @Query("SELECT COUNT(*) FROM outbox WHERE item_id = :itemId")
+    int countForItem(long itemId);
+}
@@ -0,0 +1,33 @@
+package br.com.simplecatalog.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import br.com.simplecatalog.data.local.entity.SyncStateEntity;
+
+/**
+ * DAO da tabela "sync_state": guarda o cursor do delta sync de cada recurso.
+ */
+@Dao
+public interface SyncStateDao {
+
+    /**
+     * Retorna o cursor salvo para o recurso, ou null se nunca sincronizou.
+     */
+    @Query("SELECT cursor FROM sync_state WHERE resource = :resource")
+    String getCursor(String resource);
+
+    /**
+     * Salva (ou substitui) o cursor do recurso.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void save(SyncStateEntity state);
+
+    /**
+     * Esquece o cursor: a próxima sincronização volta a ser completa.
+     */
+    @Query("DELETE FROM sync_state WHERE resource = :resource")
+    void clear(String resource);
+}
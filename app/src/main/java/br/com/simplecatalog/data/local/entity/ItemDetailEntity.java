@@ -0,0 +1,80 @@
+package br.com.simplecatalog.data.local.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Entity do Room: tabela "item_details" com o corpo completo dos itens já abertos.
+ *
+ * A tabela items guarda só um preview curto de cada item; o corpo inteiro é buscado
+ * sob demanda (tela de detalhe) e fica aqui como cache limitado (tier "warm" do
+ * ItemDetailRepositoryImpl): quando passa do orçamento em bytes, saem primeiro os menos
+ * acessados (access_count) e, no empate, os mais antigos (last_accessed).
+ *
+ * body_bytes guarda o tamanho do corpo gravado junto com a linha: o orçamento é contado
+ * somando esse inteiro, sem ler (nem converter) os corpos de novo.
+ */
+@Entity(
+        tableName = "item_details",
+        indices = {
+                @Index("last_accessed"),
+                @Index({"access_count", "last_accessed"}) // ordem de despejo e de carga do hot set
+        }
+)
+public class ItemDetailEntity {
+
+    // Mesmo id do item na tabela items
+    @PrimaryKey
+    private long id;
+
+    // Corpo completo (JSON: body)
+    @ColumnInfo(name = "body")
+    private String body;
+
+    // Tamanho do corpo em bytes (UTF-8), calculado uma vez na gravação
+    @ColumnInfo(name = "body_bytes", defaultValue = "0")
+    private long bodyBytes;
+
+    // Último acesso (ms), usado para descartar os menos usados quando o cache enche
+    @ColumnInfo(name = "last_accessed")
+    private long lastAccessed;
+
+    // Quantas vezes o detalhe foi aberto (envelhece pela metade junto com o FrequencySketch)
+    @ColumnInfo(name = "access_count", defaultValue = "0")
+    private int accessCount;
+
+    // Usado pelo Room (lê body_bytes do banco)
+    public ItemDetailEntity(long id, String body, long bodyBytes, long lastAccessed, int accessCount) {
+        this.id = id;
+        this.body = body;
+        this.bodyBytes = bodyBytes;
+        this.lastAccessed = lastAccessed;
+        this.accessCount = accessCount;
+    }
+
+    // Detalhe novo: body_bytes calculado a partir do corpo
+    @Ignore
+    public ItemDetailEntity(long id, String body, long lastAccessed, int accessCount) {
+        this(id, body, body != null ? body.getBytes(StandardCharsets.UTF_8).length : 0, lastAccessed, accessCount);
+    }
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+
+    public long getBodyBytes() { return bodyBytes; }
+    public void setBodyBytes(long bodyBytes) { this.bodyBytes = bodyBytes; }
+
+    public long getLastAccessed() { return lastAccessed; }
+    public void setLastAccessed(long lastAccessed) { this.lastAccessed = lastAccessed; }
+
+    public int getAccessCount() { return accessCount; }
+    public void setAccessCount(int accessCount) { this.accessCount = accessCount; }
+}
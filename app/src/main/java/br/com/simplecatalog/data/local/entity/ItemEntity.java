@@ -31,10 +31,15 @@ public class ItemEntity {
     @ColumnInfo(name = "subtitle")
     private String subtitle;
 
-    public ItemEntity(long id, String title, String subtitle) {
+    // Categoria do item (seção da lista); 0 = sem categoria
+    @ColumnInfo(name = "category_id", defaultValue = "0")
+    private long categoryId;
+
+    public ItemEntity(long id, String title, String subtitle, long categoryId) {
         this.id = id;
         this.title = title;
         this.subtitle = subtitle;
+        this.categoryId = categoryId;
     }
 
     // Getters e setters são permitidos aqui porque a Entity pode precisar ser
@@ -48,5 +53,8 @@ public class ItemEntity {
 
     public String getSubtitle() { return subtitle; }
     public void setSubtitle(String subtitle) { this.subtitle = subtitle; }
+
+    public long getCategoryId() { return categoryId; }
+    public void setCategoryId(long categoryId) { this.categoryId = categoryId; }
 }
 
@@ -0,0 +1,65 @@
+package br.com.simplecatalog.data.local.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Entity do Room: tabela "item_state" com o que o usuário editou em cada item
+ * (favorito, quantidade, nota).
+ *
+ * Fica separada de items de propósito: o sync do catálogo apaga/reescreve items,
+ * e as edições do usuário não podem sumir junto. Só existe linha para item editado.
+ */
+@Entity(tableName = "item_state")
+public class ItemStateEntity {
+
+    // Mesmo id do item na tabela items
+    @PrimaryKey
+    @ColumnInfo(name = "item_id")
+    private long itemId;
+
+    @ColumnInfo(name = "favorite")
+    private boolean favorite;
+
+    @ColumnInfo(name = "quantity")
+    private int quantity;
+
+    @ColumnInfo(name = "note")
+    private String note;
+
+    // Última edição local (ms), usada no "last writer wins" quando o servidor acusa conflito
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    // Última versão confirmada pelo servidor (base das próximas mutações; 0 = nunca confirmada)
+    @ColumnInfo(name = "version")
+    private long version;
+
+    public ItemStateEntity(long itemId, boolean favorite, int quantity, String note, long updatedAt, long version) {
+        this.itemId = itemId;
+        this.favorite = favorite;
+        this.quantity = quantity;
+        this.note = note;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    public long getItemId() { return itemId; }
+    public void setItemId(long itemId) { this.itemId = itemId; }
+
+    public boolean isFavorite() { return favorite; }
+    public void setFavorite(boolean favorite) { this.favorite = favorite; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
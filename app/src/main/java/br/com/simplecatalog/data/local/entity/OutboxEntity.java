@@ -0,0 +1,76 @@
+package br.com.simplecatalog.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Entity do Room: tabela "outbox" com as mutações ainda não confirmadas pelo servidor.
+ *
+ * - Gravada na mesma transação que a item_state: edição salva = edição que vai ser enviada,
+ *   mesmo se o app morrer antes do envio
+ * - Uma linha por (item, campo): editar de novo o mesmo campo substitui a linha anterior
+ *   (10 toques no "+" viram uma mutação só com a quantidade final)
+ * - seq cresce a cada gravação: é a ordem de envio e o id da mutação para o servidor
+ *   ignorar repetições (retry depois de timeout)
+ */
+@Entity(
+        tableName = "outbox",
+        indices = { @Index(value = {"item_id", "field"}, unique = true) }
+)
+public class OutboxEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "seq")
+    private long seq;
+
+    @ColumnInfo(name = "item_id")
+    private long itemId;
+
+    // Campo alterado ("favorite", "quantity", "note")
+    @NonNull
+    @ColumnInfo(name = "field")
+    private String field;
+
+    // Novo valor serializado como texto ("true", "3", "texto da nota"; null = nota apagada)
+    @ColumnInfo(name = "value")
+    private String value;
+
+    // Versão do servidor em que a edição se baseou (detecção de conflito)
+    @ColumnInfo(name = "base_version")
+    private long baseVersion;
+
+    // Momento da edição (ms), enviado para o "last writer wins"
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    public OutboxEntity(long seq, long itemId, @NonNull String field, String value, long baseVersion, long updatedAt) {
+        this.seq = seq;
+        this.itemId = itemId;
+        this.field = field;
+        this.value = value;
+        this.baseVersion = baseVersion;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    public long getItemId() { return itemId; }
+    public void setItemId(long itemId) { this.itemId = itemId; }
+
+    @NonNull
+    public String getField() { return field; }
+    public void setField(@NonNull String field) { this.field = field; }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public long getBaseVersion() { return baseVersion; }
+    public void setBaseVersion(long baseVersion) { this.baseVersion = baseVersion; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,38 @@
+package br.com.simplecatalog.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Entity do Room: tabela "sync_state" com o cursor do delta sync por recurso remoto.
+ *
+ * O cursor é gravado na mesma transação que aplica o delta na tabela items,
+ * então cache e cursor nunca ficam dessincronizados (ex: app morto no meio do sync).
+ */
+@Entity(tableName = "sync_state")
+public class SyncStateEntity {
+
+    // Recurso sincronizado (ex: "items")
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "resource")
+    private String resource;
+
+    // Último cursor recebido do servidor (timestamp ou token opaco)
+    @ColumnInfo(name = "cursor")
+    private String cursor;
+
+    public SyncStateEntity(@NonNull String resource, String cursor) {
+        this.resource = resource;
+        this.cursor = cursor;
+    }
+
+    @NonNull
+    public String getResource() { return resource; }
+    public void setResource(@NonNull String resource) { this.resource = resource; }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+}
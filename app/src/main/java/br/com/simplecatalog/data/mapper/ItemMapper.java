@@ -1,11 +1,22 @@
 package br.com.simplecatalog.data.mapper;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import br.com.simplecatalog.data.local.entity.ItemDetailEntity;
 import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.data.local.entity.ItemStateEntity;
+import br.com.simplecatalog.data.local.entity.OutboxEntity;
 import br.com.simplecatalog.data.remote.dto.ItemDto;
+import br.com.simplecatalog.data.remote.dto.MutationDto;
 import br.com.simplecatalog.domain.model.Item;
+import br.com.simplecatalog.domain.model.ItemDetail;
+import br.com.simplecatalog.domain.model.ItemMutation;
+import br.com.simplecatalog.domain.model.ItemState;
+import br.com.simplecatalog.perf.PerfTracer;
+import br.com.simplecatalog.perf.Stage;
 
 /**
  * ItemMapper faz a tradução de dados entre:
@@ -18,39 +29,155 @@ import br.com.simplecatalog.domain.model.Item;
  */
 public class ItemMapper {
 
+    // Tamanho máximo do preview salvo na tabela items (o corpo completo fica no detalhe)
+    public static final int PREVIEW_LENGTH = 140;
+
     /**
-     * Converte lista de DTOs da API para lista de Entities do banco local (Room)
+     * Reduz o corpo do item a um preview curto para a lista.
      */
-    public List<ItemEntity> dtosToEntities(List<ItemDto> dtos) {
-        List<ItemEntity> entities = new ArrayList<>();
+    public static String toPreview(String body) {
+        if (body == null || body.length() <= PREVIEW_LENGTH) {
+            return body;
+        }
+        return body.substring(0, PREVIEW_LENGTH);
+    }
+
+    /**
+     * Delta sync: converte apenas os itens criados/alterados (ignora tombstones)
+     */
+    public List<ItemEntity> deltaUpsertsToEntities(List<ItemDto> dtos) {
+        long token = PerfTracer.begin(Stage.MAP);
+        try {
+            List<ItemEntity> entities = new ArrayList<>(dtos.size());
+            for (ItemDto dto : dtos) {
+                if (!dto.isDeleted()) {
+                    entities.add(new ItemEntity(dto.getId(), dto.getTitle(), toPreview(dto.getSubtitle()), dto.getCategoryId()));
+                }
+            }
+            return entities;
+        } finally {
+            PerfTracer.end(Stage.MAP, token);
+        }
+    }
+
+    /**
+     * Delta sync: extrai os ids dos tombstones (itens removidos no servidor)
+     */
+    public List<Long> deltaTombstoneIds(List<ItemDto> dtos) {
+        List<Long> ids = new ArrayList<>();
         for (ItemDto dto : dtos) {
-            entities.add(
-                    new ItemEntity(
-                            dto.getId(),        // ← JSON: id
-                            dto.getTitle(),     // ← JSON: title
-                            dto.getSubtitle()   // ← JSON: body (espelhado como subtitle no DTO)
-                    )
-            );
+            if (dto.isDeleted()) {
+                ids.add(dto.getId());
+            }
         }
-        return entities;
+        return ids;
     }
 
     /**
      * Converte lista de Entities do Room para lista de Models do domínio
      * (o que a UI ou UseCase realmente usam)
+     *
+     * Devolve uma view preguiçosa (LazyItemList): cada Item só é criado quando é lido
+     * pela primeira vez e depois reaproveitado. Nada é copiado aqui, por isso não há etapa MAP.
+     * (As Entities por linha continuam existindo: quem cria é o Room, na query.)
      */
     public List<Item> entitiesToDomain(List<ItemEntity> entities) {
-        List<Item> domainItems = new ArrayList<>();
-        for (ItemEntity entity : entities) {
-            domainItems.add(
-                    new Item(
-                            entity.getId(),        // ← banco: id
-                            entity.getTitle(),     // ← banco: title
-                            entity.getSubtitle()   // ← banco: subtitle
-                    )
-            );
+        return new LazyItemList(entities);
+    }
+
+    // --- Caminho em lote (arrays + Entities reaproveitadas) ---
+
+    /**
+     * Cria um buffer de Entities para escrita em lotes.
+     * As mesmas instâncias são preenchidas de novo a cada lote com {@link #copyInto}.
+     */
+    public ItemEntity[] newEntityBuffer(int size) {
+        ItemEntity[] buffer = new ItemEntity[size];
+        for (int i = 0; i < size; i++) {
+            buffer[i] = new ItemEntity(0, null, null, 0);
         }
-        return domainItems;
+        return buffer;
     }
-}
 
+    /**
+     * Copia o DTO para uma Entity já existente (sem alocar uma nova).
+     * Seguro porque o Room lê os campos durante o insert e não guarda a referência.
+     */
+    public void copyInto(ItemDto dto, ItemEntity target) {
+        target.setId(dto.getId());
+        target.setTitle(dto.getTitle());
+        target.setSubtitle(toPreview(dto.getSubtitle()));
+        target.setCategoryId(dto.getCategoryId());
+    }
+
+    /**
+     * Converte o DTO do endpoint de detalhe para a Entity do cache de detalhe
+     * (accessCount = frequência já conhecida do item, para não entrar no disco como "frio")
+     */
+    public ItemDetailEntity dtoToDetailEntity(ItemDto dto, long now, int accessCount) {
+        return new ItemDetailEntity(dto.getId(), dto.getSubtitle(), now, accessCount);
+    }
+
+    /**
+     * Monta o detalhe de domínio a partir do título (lista) e do corpo completo (cache de detalhe)
+     */
+    public ItemDetail toDetail(long id, String title, String body) {
+        return new ItemDetail(id, title, body);
+    }
+
+    // --- Edições do usuário (item_state / outbox / API de mutações) ---
+
+    /**
+     * Entity da item_state → estado de domínio (pending = ainda tem mutação na outbox)
+     */
+    public ItemState toState(ItemStateEntity entity, boolean pending) {
+        return new ItemState(entity.getItemId(), entity.isFavorite(), entity.getQuantity(), entity.getNote(), pending);
+    }
+
+    /**
+     * Estado de domínio → Entity da item_state (updatedAt/version vêm do Repository)
+     */
+    public ItemStateEntity toStateEntity(ItemState state, long updatedAt, long version) {
+        return new ItemStateEntity(state.getItemId(), state.isFavorite(), state.getQuantity(), state.getNote(),
+                updatedAt, version);
+    }
+
+    /**
+     * Mutação de domínio → linha da outbox (seq 0 = o Room gera o próximo)
+     */
+    public OutboxEntity toOutbox(ItemMutation mutation, long baseVersion, long now) {
+        return new OutboxEntity(0, mutation.getItemId(), mutation.getField().getWireName(), mutation.getValue(),
+                baseVersion, now);
+    }
+
+    /**
+     * Linha da outbox → mutação do lote (o seq vira o id da mutação)
+     */
+    public MutationDto toMutationDto(OutboxEntity row) {
+        return new MutationDto(row.getSeq(), row.getItemId(), row.getField(), row.getValue(),
+                row.getBaseVersion(), row.getUpdatedAt());
+    }
+
+    /**
+     * Linhas da outbox de um item → corpo do PATCH ({ "favorite": true, "quantity": 3, "note": "..." }).
+     * Nota apagada vai como "" (o Gson omite campos null).
+     */
+    public Map<String, Object> toPatchFields(List<OutboxEntity> rows) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (OutboxEntity row : rows) {
+            ItemMutation mutation = ItemMutation.of(row.getItemId(), row.getField(), row.getValue());
+            switch (mutation.getField()) {
+                case FAVORITE:
+                    fields.put(row.getField(), Boolean.parseBoolean(mutation.getValue()));
+                    break;
+                case QUANTITY:
+                    fields.put(row.getField(), Integer.parseInt(mutation.getValue()));
+                    break;
+                default:
+                    fields.put(row.getField(), mutation.getValue() != null ? mutation.getValue() : "");
+                    break;
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.simplecatalog.data.mapper;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.domain.model.Item;
+
+/**
+ * View somente-leitura de {@code List<Item>} apoiada na lista de Entities do Room.
+ *
+ * - Criar a view é O(1): nenhuma conversão acontece antes de alguém pedir o item
+ * - Cada Item é criado uma única vez, no primeiro get(i), e reaproveitado depois
+ *   (rebinds do RecyclerView e novas iterações não alocam)
+ * - Linhas que nunca aparecem na tela nunca viram Item
+ *
+ * Não é "zero alocação": o Room já criou uma ItemEntity por linha na query, e a primeira
+ * leitura de cada linha cria um Item (40 bytes no HotSpot com compressed oops) + a posição no array de cache.
+ * O ganho é não pagar isso para linhas nunca lidas nem de novo em cada releitura.
+ *
+ * Thread-safety: Item é imutável (campos final), então duas threads criando o mesmo
+ * índice ao mesmo tempo no pior caso geram um objeto repetido, nunca um Item inconsistente.
+ */
+final class LazyItemList extends AbstractList<Item> implements RandomAccess {
+
+    private final List<ItemEntity> entities;
+    private Item[] items; // criado no primeiro acesso
+
+    LazyItemList(List<ItemEntity> entities) {
+        this.entities = entities;
+    }
+
+    @Override
+    public Item get(int index) {
+        Item[] cache = items;
+        if (cache == null) {
+            cache = new Item[entities.size()];
+            items = cache;
+        }
+        Item item = cache[index];
+        if (item == null) {
+            ItemEntity entity = entities.get(index);
+            item = new Item(entity.getId(), entity.getTitle(), entity.getSubtitle(), entity.getCategoryId());
+            cache[index] = item;
+        }
+        return item;
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+}
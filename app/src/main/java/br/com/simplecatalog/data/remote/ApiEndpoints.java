@@ -7,9 +7,24 @@ package br.com.simplecatalog.data.remote;
 public final class ApiEndpoints {
     private ApiEndpoints() {} // impede instanciação
 
-    // Base URL da API usada no RetrofitClient (JSONPlaceholder para estudo)
+    // Base URL da API do catálogo padrão (JSONPlaceholder para estudo); outros catálogos trazem a própria
     public static final String BASE_URL = "https://jsonplaceholder.typicode.com/";
 
     // Paths dos endpoints
     public static final String ITEMS = "posts";
+
+    // Delta sync: só o que mudou desde o cursor (inclui tombstones de itens removidos)
+    public static final String ITEMS_CHANGES = "posts/changes";
+
+    // Detalhe de um item (corpo completo)
+    public static final String ITEM_DETAIL = "posts/{id}";
+
+    // Edições do usuário em lote (favorito, quantidade, nota de vários itens num POST só)
+    public static final String ITEMS_BATCH = "posts/batch";
+
+    // Path params
+    public static final String PATH_ID = "id";
+
+    // Query params
+    public static final String QUERY_SINCE = "since";
 }
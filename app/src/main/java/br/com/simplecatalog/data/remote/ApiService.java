@@ -1,10 +1,19 @@
 package br.com.simplecatalog.data.remote;
 
 import java.util.List;
+import java.util.Map;
 
 import br.com.simplecatalog.data.remote.dto.ItemDto;
+import br.com.simplecatalog.data.remote.dto.ItemsDeltaDto;
+import br.com.simplecatalog.data.remote.dto.MutationBatchDto;
+import br.com.simplecatalog.data.remote.dto.MutationBatchResultDto;
 import retrofit2.Call;
+import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
 
 /**
  * ApiService define o "contrato" de endpoints HTTP usados pelo app (camada Remote).
@@ -31,5 +40,44 @@ public interface ApiService {
      */
     @GET(ApiEndpoints.ITEMS)
     Call<List<ItemDto>> getItems();
+
+    /**
+     * Delta sync: busca apenas os itens alterados desde o cursor informado.
+     *
+     * GET {BASE_URL}/posts/changes?since={cursor}
+     *
+     * - since == null → Retrofit omite o parâmetro e o servidor devolve o catálogo completo
+     * - Itens removidos voltam como tombstones (deleted = true)
+     * - A resposta traz o próximo cursor a ser salvo localmente
+     */
+    @GET(ApiEndpoints.ITEMS_CHANGES)
+    Call<ItemsDeltaDto> getItemsChangedSince(@Query(ApiEndpoints.QUERY_SINCE) String since);
+
+    /**
+     * Busca um item completo (com o corpo inteiro), para a tela de detalhe.
+     *
+     * GET https://jsonplaceholder.typicode.com/posts/{id}
+     */
+    @GET(ApiEndpoints.ITEM_DETAIL)
+    Call<ItemDto> getItem(@Path(ApiEndpoints.PATH_ID) long id);
+
+    /**
+     * Envia várias edições do usuário (de vários itens) numa requisição só.
+     *
+     * POST {BASE_URL}/posts/batch
+     *
+     * A resposta traz um resultado por mutação (applied / conflict / rejected).
+     */
+    @POST(ApiEndpoints.ITEMS_BATCH)
+    Call<MutationBatchResultDto> applyMutations(@Body MutationBatchDto batch);
+
+    /**
+     * Fallback para servidores sem o endpoint de lote: todas as edições pendentes
+     * de um item num PATCH só (ex: { "favorite": true, "quantity": 3 }).
+     *
+     * PATCH https://jsonplaceholder.typicode.com/posts/{id}
+     */
+    @PATCH(ApiEndpoints.ITEM_DETAIL)
+    Call<Void> patchItem(@Path(ApiEndpoints.PATH_ID) long id, @Body Map<String, Object> fields);
 }
 
@@ -0,0 +1,67 @@
+package br.com.simplecatalog.data.remote;
+
+import android.os.SystemClock;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import okhttp3.Dns;
+
+/**
+ * Cache de DNS em memória com TTL, na frente do resolvedor do sistema.
+ *
+ * O resolvedor do Android tem cache próprio, mas curto e fora do nosso controle;
+ * aqui garantimos que conexões novas para o mesmo host (ex: depois que o pool
+ * fechou uma ociosa) não pagam outro lookup dentro do TTL.
+ */
+public class CachingDns implements Dns {
+
+    private static final class Entry {
+        final List<InetAddress> addresses;
+        final long expiresAt;
+
+        Entry(List<InetAddress> addresses, long expiresAt) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Dns delegate;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public CachingDns(long ttlMillis) {
+        this(Dns.SYSTEM, ttlMillis, SystemClock::elapsedRealtime);
+    }
+
+    // Construtor com resolvedor e relógio injetáveis (testes)
+    public CachingDns(Dns delegate, long ttlMillis, LongSupplier clock) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        long now = clock.getAsLong();
+        Entry entry = cache.get(hostname);
+        if (entry != null && now < entry.expiresAt) {
+            return entry.addresses;
+        }
+        List<InetAddress> addresses = delegate.lookup(hostname);
+        cache.put(hostname, new Entry(addresses, now + ttlMillis));
+        return addresses;
+    }
+
+    /**
+     * Descarta o cache (ex: troca de rede Wi-Fi ↔ dados móveis).
+     */
+    public void clear() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.simplecatalog.data.remote;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+
+/**
+ * EventListener do OkHttp que mede o reuso de conexões.
+ *
+ * - acquired: cada chamada que obteve uma conexão (nova ou do pool)
+ * - connects: conexões TCP novas (cada uma paga DNS + TCP + TLS)
+ * - dnsLookups: lookups que chegaram ao resolvedor (cache do CachingDns incluso)
+ *
+ * Uma única instância é compartilhada por todas as chamadas (contadores atômicos).
+ */
+public class ConnectionMetrics extends EventListener {
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+    private final AtomicLong dnsLookups = new AtomicLong();
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsLookups.incrementAndGet();
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connects.incrementAndGet();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        tlsHandshakes.incrementAndGet();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        acquired.incrementAndGet();
+    }
+
+    public long getAcquired() { return acquired.get(); }
+    public long getConnects() { return connects.get(); }
+    public long getTlsHandshakes() { return tlsHandshakes.get(); }
+    public long getDnsLookups() { return dnsLookups.get(); }
+
+    /**
+     * Fração das chamadas que reaproveitaram uma conexão do pool (0..1).
+     */
+    public double reuseRate() {
+        long total = acquired.get();
+        if (total == 0) {
+            return 0;
+        }
+        return Math.max(0, total - connects.get()) / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionMetrics{acquired=" + getAcquired()
+                + ", connects=" + getConnects()
+                + ", tls=" + getTlsHandshakes()
+                + ", dns=" + getDnsLookups()
+                + ", reuseRate=" + reuseRate() + '}';
+    }
+}
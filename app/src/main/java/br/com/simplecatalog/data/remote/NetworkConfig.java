@@ -0,0 +1,44 @@
+package br.com.simplecatalog.data.remote;
+
+/**
+ * Parâmetros ajustáveis da pilha de rede (OkHttp) compartilhada pelo app.
+ *
+ * Valores padrão pensados para um app que fala com poucos hosts:
+ * - Poucas conexões ociosas, mas mantidas vivas por mais tempo (reuso entre telas)
+ * - HTTP/2 multiplexa várias requisições numa conexão, então o limite por host pode ser maior
+ * - Cache de DNS em memória evita um lookup por conexão nova
+ */
+public final class NetworkConfig {
+
+    public final int maxIdleConnections;
+    public final long keepAliveMinutes;
+    public final int maxRequests;
+    public final int maxRequestsPerHost;
+    public final long dnsTtlMillis;
+    public final long timeoutSeconds;
+
+    public NetworkConfig(int maxIdleConnections,
+                         long keepAliveMinutes,
+                         int maxRequests,
+                         int maxRequestsPerHost,
+                         long dnsTtlMillis,
+                         long timeoutSeconds) {
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveMinutes = keepAliveMinutes;
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.dnsTtlMillis = dnsTtlMillis;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    public static NetworkConfig defaults() {
+        return new NetworkConfig(
+                5,        // conexões ociosas no pool
+                5,        // keep-alive (minutos)
+                64,       // requisições simultâneas no total
+                8,        // requisições simultâneas por host
+                5 * 60_000L, // TTL do cache de DNS (5 min)
+                15        // timeouts de connect/read/write (segundos)
+        );
+    }
+}
@@ -1,8 +1,23 @@
 package br.com.simplecatalog.data.remote;
 
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import br.com.simplecatalog.perf.TimingConverterFactory;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
@@ -19,34 +34,171 @@ import retrofit2.converter.gson.GsonConverterFactory;
  * - Evita repetir configuração de rede em vários lugares
  * - Facilita observabilidade (logs) e ajustes (timeouts, headers etc.)
  * - Mantém a boundary Remote bem isolada da UI e do domínio
+ *
+ * Pilha compartilhada:
+ * - Uma única instância por processo ({@link #getInstance()}): um só pool de conexões,
+ *   um só Dispatcher e um só cache de DNS para todos os serviços (use {@link #create(Class)})
+ * - HTTP/2 (padrão do OkHttp via ALPN) multiplexa as chamadas na mesma conexão
+ * - {@link #prewarm()} abre a conexão com a API no startup, antes do primeiro fetch
+ * - {@link #watchNetwork(Context)} limpa o cache de DNS quando a rede padrão muda
  */
 public class RetrofitClient {
 
+    private static final String TAG = "RetrofitClient";
+
+    // Holder: a instância é criada na primeira chamada, com publicação segura garantida pela JVM
+    private static final class Holder {
+        static final RetrofitClient INSTANCE = new RetrofitClient(NetworkConfig.defaults());
+    }
+
     // ApiService pronto para uso pelo Repository
     public final ApiService apiService;
 
-    public RetrofitClient() {
+    // OkHttpClient compartilhado (pool, dispatcher e DNS)
+    public final OkHttpClient okHttpClient;
+
+    // Métricas de reuso de conexão
+    public final ConnectionMetrics connectionMetrics;
+
+    // Cache de DNS do okHttpClient (limpo na troca de rede)
+    private final CachingDns dns;
+
+    // watchNetwork registra o callback uma vez só por instância
+    private final AtomicBoolean watchingNetwork = new AtomicBoolean();
+
+    private final Retrofit retrofit;
+
+    // ApiService por base URL (um por catálogo), todos sobre o mesmo okHttpClient
+    private final ConcurrentHashMap<String, ApiService> servicesByBaseUrl = new ConcurrentHashMap<>();
+
+    public static RetrofitClient getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public RetrofitClient(NetworkConfig config) {
         // 1) Interceptor de logs HTTP (útil em debug e entrevistas)
         HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
         logging.setLevel(HttpLoggingInterceptor.Level.BODY);
 
-        // 2) OkHttp client configurado (timeouts + interceptors)
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
+        // 2) Dispatcher e pool de conexões ajustáveis
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.maxRequests);
+        dispatcher.setMaxRequestsPerHost(config.maxRequestsPerHost);
+
+        ConnectionPool connectionPool = new ConnectionPool(
+                config.maxIdleConnections,
+                config.keepAliveMinutes,
+                TimeUnit.MINUTES
+        );
+
+        this.connectionMetrics = new ConnectionMetrics();
+        this.dns = new CachingDns(config.dnsTtlMillis);
+
+        // 3) OkHttp client configurado (timeouts + interceptors + pool + DNS)
+        this.okHttpClient = new OkHttpClient.Builder()
                 .addInterceptor(logging)
-                .connectTimeout(15, TimeUnit.SECONDS)
-                .readTimeout(15, TimeUnit.SECONDS)
-                .writeTimeout(15, TimeUnit.SECONDS)
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .dns(dns)
+                .eventListener(connectionMetrics)
+                .connectTimeout(config.timeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(config.timeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(config.timeoutSeconds, TimeUnit.SECONDS)
                 .build();
 
-        // 3) Retrofit usando Base URL centralizada + conversor Gson
-        Retrofit retrofit = new Retrofit.Builder()
+        // 4) Retrofit usando Base URL centralizada + conversor Gson (parse medido no PerfTracer)
+        this.retrofit = new Retrofit.Builder()
                 .baseUrl(ApiEndpoints.BASE_URL)
-                .addConverterFactory(GsonConverterFactory.create())
+                .addConverterFactory(new TimingConverterFactory(GsonConverterFactory.create()))
                 .client(okHttpClient)
                 .build();
 
-        // 4) Retrofit cria a implementação da interface ApiService em runtime
+        // 5) Retrofit cria a implementação da interface ApiService em runtime
         this.apiService = retrofit.create(ApiService.class);
+        servicesByBaseUrl.put(ApiEndpoints.BASE_URL, apiService);
+    }
+
+    /**
+     * ApiService de outra base URL (ex: outro catálogo), reaproveitando o mesmo
+     * OkHttpClient: pool de conexões, DNS e dispatcher continuam únicos no processo.
+     * Criado uma vez por base URL.
+     */
+    public ApiService apiServiceFor(String baseUrl) {
+        return servicesByBaseUrl.computeIfAbsent(baseUrl, url -> retrofit.newBuilder()
+                .baseUrl(url)
+                .build()
+                .create(ApiService.class));
+    }
+
+    /**
+     * Cria outro serviço Retrofit sobre a mesma pilha (mesmo pool/DNS/dispatcher).
+     */
+    public <T> T create(Class<T> service) {
+        return retrofit.create(service);
+    }
+
+    /**
+     * Abre a conexão com a API em background (DNS + TCP + TLS) para que o primeiro
+     * fetch do catálogo encontre a conexão pronta no pool.
+     * Um HEAD na base URL é suficiente; o resultado é ignorado.
+     */
+    public void prewarm() {
+        prewarm(ApiEndpoints.BASE_URL);
     }
-}
 
+    /**
+     * Igual a {@link #prewarm()}, para a base URL de outro catálogo.
+     */
+    public void prewarm(String baseUrl) {
+        Request request = new Request.Builder()
+                .url(baseUrl)
+                .head()
+                .build();
+
+        okHttpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                // sem rede no startup: o primeiro fetch abre a conexão normalmente
+                Log.d(TAG, "Pre-warm falhou: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Limpa o cache de DNS sempre que a rede padrão troca (ex: Wi-Fi ↔ dados móveis).
+     * Os endereços resolvidos numa rede podem não valer na outra (DNS interno, IPv6 só
+     * no Wi-Fi etc.); sem isso, conexões novas usariam o endereço velho até o TTL vencer.
+     *
+     * O primeiro onAvailable (a rede atual, entregue no registro) não limpa nada.
+     * Precisa de ACCESS_NETWORK_STATE; chamadas repetidas são ignoradas.
+     */
+    public void watchNetwork(Context context) {
+        if (!watchingNetwork.compareAndSet(false, true)) {
+            return;
+        }
+        ConnectivityManager connectivity = (ConnectivityManager) context.getApplicationContext()
+                .getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivity == null) {
+            return;
+        }
+        connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            private Network current;
+
+            @Override
+            public void onAvailable(Network network) {
+                synchronized (this) {
+                    if (current != null && !current.equals(network)) {
+                        dns.clear();
+                        Log.d(TAG, "Rede padrão trocou: cache de DNS limpo");
+                    }
+                    current = network;
+                }
+            }
+        });
+    }
+}
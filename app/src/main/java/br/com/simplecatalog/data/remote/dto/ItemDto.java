@@ -27,6 +27,12 @@ public class ItemDto {
     @SerializedName("body")
     private String subtitle; // usamos "body" do JSON como subtítulo no domínio
 
+    @SerializedName("userId")
+    private long categoryId; // usamos "userId" do JSON como categoria (seções da lista); ausente = 0
+
+    @SerializedName("deleted")
+    private boolean deleted; // tombstone no delta sync: item removido no servidor (ausente = false)
+
     // Construtor vazio é necessário para o Gson criar o objeto via reflexão
     public ItemDto() {}
 
@@ -34,6 +40,8 @@ public class ItemDto {
     public long getId() { return id; }
     public String getTitle() { return title; }
     public String getSubtitle() { return subtitle; }
+    public long getCategoryId() { return categoryId; }
+    public boolean isDeleted() { return deleted; }
 
     // Não tem setters porque o preenchimento vem 100% do JSON (Gson) na conversão
 }
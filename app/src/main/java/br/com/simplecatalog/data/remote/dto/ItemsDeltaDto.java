@@ -0,0 +1,39 @@
+package br.com.simplecatalog.data.remote.dto;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * DTO da resposta de delta sync (GET posts/changes?since=...).
+ *
+ * Exemplo de JSON:
+ * {
+ *   "items":  [ { "id": 2, "title": "...", "body": "..." }, { "id": 3, "deleted": true } ],
+ *   "cursor": "2024-05-01T10:00:00Z",
+ *   "full":   false
+ * }
+ *
+ * - items: itens criados/alterados e tombstones (deleted = true) desde o cursor enviado
+ * - cursor: token opaco (timestamp ou token do servidor) para a próxima sincronização
+ * - full: true quando o servidor não conseguiu calcular o delta (ex: cursor expirado)
+ *   e devolveu o catálogo completo, que deve substituir o cache local
+ */
+public class ItemsDeltaDto {
+
+    @SerializedName("items")
+    private List<ItemDto> items;
+
+    @SerializedName("cursor")
+    private String cursor;
+
+    @SerializedName("full")
+    private boolean fullSnapshot;
+
+    // Construtor vazio é necessário para o Gson criar o objeto via reflexão
+    public ItemsDeltaDto() {}
+
+    public List<ItemDto> getItems() { return items; }
+    public String getCursor() { return cursor; }
+    public boolean isFullSnapshot() { return fullSnapshot; }
+}
@@ -0,0 +1,26 @@
+package br.com.simplecatalog.data.remote.dto;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * DTO do corpo do POST posts/batch: várias mutações (de vários itens) numa requisição só.
+ *
+ * Exemplo de JSON:
+ * { "mutations": [ { "mutationId": 41, ... }, { "mutationId": 42, ... } ] }
+ */
+public class MutationBatchDto {
+
+    @SerializedName("mutations")
+    private List<MutationDto> mutations;
+
+    // Construtor vazio é necessário para o Gson criar o objeto via reflexão
+    public MutationBatchDto() {}
+
+    public MutationBatchDto(List<MutationDto> mutations) {
+        this.mutations = mutations;
+    }
+
+    public List<MutationDto> getMutations() { return mutations; }
+}
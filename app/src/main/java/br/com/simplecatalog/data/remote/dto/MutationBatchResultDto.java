@@ -0,0 +1,20 @@
+package br.com.simplecatalog.data.remote.dto;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * DTO da resposta do POST posts/batch: um resultado por mutação enviada.
+ * Mutação sem resultado na resposta continua na outbox e vai no próximo envio.
+ */
+public class MutationBatchResultDto {
+
+    @SerializedName("results")
+    private List<MutationResultDto> results;
+
+    // Construtor vazio é necessário para o Gson criar o objeto via reflexão
+    public MutationBatchResultDto() {}
+
+    public List<MutationResultDto> getResults() { return results; }
+}
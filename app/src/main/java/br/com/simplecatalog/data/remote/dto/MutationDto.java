@@ -0,0 +1,53 @@
+package br.com.simplecatalog.data.remote.dto;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * DTO de uma mutação enviada no lote (POST posts/batch).
+ *
+ * Exemplo de JSON:
+ * { "mutationId": 42, "itemId": 7, "field": "quantity", "value": "3", "baseVersion": 5, "updatedAt": 1714557600000 }
+ *
+ * - mutationId: seq da outbox; o servidor ignora ids repetidos (reenvio após timeout)
+ * - value: sempre texto ("true", "3", nota); null apaga a nota
+ * - baseVersion: versão do item que o app conhecia (se o servidor já estiver em outra, é conflito)
+ */
+public class MutationDto {
+
+    @SerializedName("mutationId")
+    private long mutationId;
+
+    @SerializedName("itemId")
+    private long itemId;
+
+    @SerializedName("field")
+    private String field;
+
+    @SerializedName("value")
+    private String value;
+
+    @SerializedName("baseVersion")
+    private long baseVersion;
+
+    @SerializedName("updatedAt")
+    private long updatedAt;
+
+    // Construtor vazio é necessário para o Gson criar o objeto via reflexão
+    public MutationDto() {}
+
+    public MutationDto(long mutationId, long itemId, String field, String value, long baseVersion, long updatedAt) {
+        this.mutationId = mutationId;
+        this.itemId = itemId;
+        this.field = field;
+        this.value = value;
+        this.baseVersion = baseVersion;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getMutationId() { return mutationId; }
+    public long getItemId() { return itemId; }
+    public String getField() { return field; }
+    public String getValue() { return value; }
+    public long getBaseVersion() { return baseVersion; }
+    public long getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,45 @@
+package br.com.simplecatalog.data.remote.dto;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Resultado de uma mutação do lote.
+ *
+ * Exemplo de JSON:
+ * { "mutationId": 42, "status": "conflict", "version": 6, "serverValue": "1", "serverUpdatedAt": 1714557700000 }
+ *
+ * - status "applied": gravada; version é a nova versão do item
+ * - status "conflict": o item mudou no servidor depois da baseVersion; serverValue/serverUpdatedAt
+ *   são o valor atual do campo e quando ele foi escrito (o Repository decide quem ganha)
+ * - status "rejected": inválida (ex: quantidade negativa); serverValue é o valor que vale
+ */
+public class MutationResultDto {
+
+    public static final String STATUS_APPLIED = "applied";
+    public static final String STATUS_CONFLICT = "conflict";
+    public static final String STATUS_REJECTED = "rejected";
+
+    @SerializedName("mutationId")
+    private long mutationId;
+
+    @SerializedName("status")
+    private String status;
+
+    @SerializedName("version")
+    private long version;
+
+    @SerializedName("serverValue")
+    private String serverValue;
+
+    @SerializedName("serverUpdatedAt")
+    private long serverUpdatedAt;
+
+    // Construtor vazio é necessário para o Gson criar o objeto via reflexão
+    public MutationResultDto() {}
+
+    public long getMutationId() { return mutationId; }
+    public String getStatus() { return status; }
+    public long getVersion() { return version; }
+    public String getServerValue() { return serverValue; }
+    public long getServerUpdatedAt() { return serverUpdatedAt; }
+}
@@ -0,0 +1,86 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+import android.os.SystemClock;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker simples (CLOSED → OPEN → HALF_OPEN).
+ *
+ * - CLOSED: chamadas passam; falhas consecutivas são contadas
+ * - OPEN: após {@code failureThreshold} falhas seguidas, chamadas são recusadas
+ *   por {@code openMillis} (o Repository vai direto para o cache)
+ * - HALF_OPEN: passado o tempo, uma única chamada de teste é liberada;
+ *   sucesso fecha o circuito, falha reabre
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, SystemClock::elapsedRealtime);
+    }
+
+    // Construtor com relógio injetável (testes)
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Retorna true se a chamada pode seguir para a rede.
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /**
+     * A chamada liberada por {@link #allowRequest()} terminou sem dizer nada sobre o servidor
+     * (cancelada, interrompida ou erro local como parse). Não conta como sucesso nem falha;
+     * só devolve a vaga da chamada de teste do HALF_OPEN, senão o circuito ficaria recusando
+     * tudo para sempre esperando um resultado que não vem.
+     */
+    public synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+import java.io.IOException;
+
+/**
+ * Lançada quando o circuit breaker está aberto e a chamada nem chega à rede.
+ * Estende IOException para o Repository tratar como falha de rede (fallback para o cache).
+ */
+public class CircuitOpenException extends IOException {
+
+    public CircuitOpenException() {
+        super("Circuit breaker aberto: backend indisponível");
+    }
+}
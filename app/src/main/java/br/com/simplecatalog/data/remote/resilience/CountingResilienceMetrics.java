@@ -0,0 +1,29 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Métricas em memória: contador por resultado (thread-safe, sem alocação por evento).
+ */
+public class CountingResilienceMetrics implements ResilienceMetrics {
+
+    private final AtomicLongArray counts = new AtomicLongArray(Outcome.values().length);
+
+    @Override
+    public void record(Outcome outcome, long latencyMillis) {
+        counts.incrementAndGet(outcome.ordinal());
+    }
+
+    public long count(Outcome outcome) {
+        return counts.get(outcome.ordinal());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ResilienceMetrics{");
+        for (Outcome outcome : Outcome.values()) {
+            sb.append(outcome.name()).append('=').append(count(outcome)).append(' ');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+/**
+ * Política de "hedged requests" (requisição duplicada na cauda de latência).
+ *
+ * Se a primeira chamada passar do percentil configurado das latências recentes,
+ * uma segunda chamada idêntica é disparada e vence quem responder primeiro.
+ * Só deve ser usada em chamadas idempotentes (GET).
+ */
+public final class HedgePolicy {
+
+    // Hedging desligado
+    public static final HedgePolicy DISABLED = new HedgePolicy(false, 0, 0, Integer.MAX_VALUE);
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMillis;
+    private final int minSamples;
+
+    public HedgePolicy(boolean enabled, double percentile, long minDelayMillis, int minSamples) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Hedge após o percentil informado (ex: 0.95), com piso de espera e mínimo de amostras.
+     */
+    public static HedgePolicy atPercentile(double percentile, long minDelayMillis, int minSamples) {
+        return new HedgePolicy(true, percentile, minDelayMillis, minSamples);
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public double getPercentile() { return percentile; }
+    public long getMinDelayMillis() { return minDelayMillis; }
+    public int getMinSamples() { return minSamples; }
+}
@@ -0,0 +1,43 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Janela circular com as últimas latências de sucesso, usada para calcular
+ * o percentil que dispara o hedge.
+ */
+final class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long latencyMillis) {
+        samples[next] = latencyMillis;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Percentil (0..1) das amostras atuais, ou -1 se ainda não houver amostras.
+     */
+    synchronized long percentile(double percentile) {
+        if (size == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))];
+    }
+}
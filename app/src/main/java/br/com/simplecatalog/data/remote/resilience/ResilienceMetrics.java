@@ -0,0 +1,24 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+/**
+ * Observador dos resultados da camada de resiliência (um evento por resultado).
+ */
+public interface ResilienceMetrics {
+
+    enum Outcome {
+        SUCCESS,            // sucesso na primeira tentativa
+        SUCCESS_AFTER_RETRY, // sucesso depois de pelo menos um retry
+        RETRY,              // nova tentativa agendada (erro de rede ou HTTP retentável)
+        HEDGE_SENT,         // segunda requisição disparada pela cauda de latência
+        SHORT_CIRCUITED,    // circuito aberto: chamada recusada sem ir à rede
+        FAILURE             // todas as tentativas falharam (ou erro não retentável)
+    }
+
+    // Implementação vazia (sem métricas)
+    ResilienceMetrics NONE = (outcome, latencyMillis) -> { };
+
+    /**
+     * @param latencyMillis duração total da operação (0 para eventos intermediários)
+     */
+    void record(Outcome outcome, long latencyMillis);
+}
@@ -0,0 +1,288 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import br.com.simplecatalog.domain.CancellationToken;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Camada de resiliência em volta das chamadas do ApiService.
+ *
+ * Responsabilidades:
+ * - Retry com backoff exponencial + jitter ({@link RetryPolicy}) para erros de rede e HTTP 408/429/5xx
+ * - Hedged request ({@link HedgePolicy}): se a chamada passar do percentil de latência, dispara uma
+ *   segunda e usa a primeira resposta de sucesso
+ * - Circuit breaker ({@link CircuitBreaker}): com o backend fora do ar, falha rápido com
+ *   {@link CircuitOpenException} (o Repository cai para o cache sem martelar o servidor)
+ * - Um evento de {@link ResilienceMetrics} por resultado
+ *
+ * Uso (no Repository, fora da UI thread):
+ *   Response<List<ItemDto>> response = callExecutor.execute(apiService.getItems());
+ *
+ * Respostas não-2xx que não valem retry (ex: 404) são devolvidas normalmente para o chamador decidir.
+ *
+ * Cancelamento: com um {@link CancellationToken}, cancelar interrompe a tentativa em andamento
+ * (Call.cancel() em cada tentativa/hedge), acorda o backoff e não faz novas tentativas.
+ */
+public class ResilientCallExecutor {
+
+    // Tamanho da janela de latências usada no cálculo do percentil de hedge
+    private static final int LATENCY_WINDOW = 64;
+
+    private final RetryPolicy retryPolicy;
+    private final HedgePolicy hedgePolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final ResilienceMetrics metrics;
+    private final LatencyTracker latencies = new LatencyTracker(LATENCY_WINDOW);
+    private final Random random = new Random();
+
+    // Threads para a corrida primária x hedge (só criadas se o hedge estiver ligado)
+    private final ExecutorService hedgeExecutor;
+
+    public ResilientCallExecutor(RetryPolicy retryPolicy,
+                                 HedgePolicy hedgePolicy,
+                                 CircuitBreaker circuitBreaker,
+                                 ResilienceMetrics metrics) {
+        this.retryPolicy = retryPolicy;
+        this.hedgePolicy = hedgePolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+        this.hedgeExecutor = hedgePolicy.isEnabled()
+                ? Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "hedged-call");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Executor "transparente": uma tentativa, sem hedge e com circuito que nunca abre.
+     * Útil em testes e em chamadas que não devem ser repetidas.
+     */
+    public static ResilientCallExecutor direct() {
+        return new ResilientCallExecutor(
+                RetryPolicy.NONE,
+                HedgePolicy.DISABLED,
+                new CircuitBreaker(Integer.MAX_VALUE, 0, () -> 0L),
+                ResilienceMetrics.NONE
+        );
+    }
+
+    /**
+     * Executa a chamada de forma síncrona aplicando retry, hedge e circuit breaker.
+     *
+     * @throws CircuitOpenException se o circuito estiver aberto
+     * @throws IOException se todas as tentativas falharem por erro de rede
+     */
+    public <T> Response<T> execute(Call<T> call) throws IOException {
+        return execute(call, CancellationToken.NONE);
+    }
+
+    /**
+     * Igual a {@link #execute(Call)}, cancelável pelo token.
+     *
+     * @throws java.util.concurrent.CancellationException se o token for cancelado
+     */
+    public <T> Response<T> execute(Call<T> call, CancellationToken token) throws IOException {
+        token.throwIfCancelled();
+        long start = System.nanoTime();
+        if (!circuitBreaker.allowRequest()) {
+            metrics.record(ResilienceMetrics.Outcome.SHORT_CIRCUITED, 0);
+            throw new CircuitOpenException();
+        }
+
+        IOException lastError = null;
+        for (int attempt = 1; ; attempt++) {
+            Call<T> attemptCall = attempt == 1 ? call : call.clone();
+            boolean lastAttempt = attempt >= retryPolicy.getMaxAttempts();
+            // toda tentativa liberada pelo breaker termina em onSuccess, onFailure ou releaseProbe
+            boolean reported = false;
+            try (CancellationToken.Registration ignored = token.onCancel(attemptCall::cancel)) {
+                long attemptStart = System.nanoTime();
+                Response<T> response = executeMaybeHedged(attemptCall, token);
+                int code = response.code();
+
+                if (response.isSuccessful()) {
+                    circuitBreaker.onSuccess();
+                    reported = true;
+                    latencies.record(elapsedMillis(attemptStart));
+                    metrics.record(attempt == 1
+                            ? ResilienceMetrics.Outcome.SUCCESS
+                            : ResilienceMetrics.Outcome.SUCCESS_AFTER_RETRY, elapsedMillis(start));
+                    return response;
+                }
+                if (!RetryPolicy.isRetryable(code)) {
+                    // erro do cliente: o backend está saudável, só não tem o recurso
+                    circuitBreaker.onSuccess();
+                    reported = true;
+                    metrics.record(ResilienceMetrics.Outcome.FAILURE, elapsedMillis(start));
+                    return response;
+                }
+                circuitBreaker.onFailure();
+                reported = true;
+                if (lastAttempt) {
+                    metrics.record(ResilienceMetrics.Outcome.FAILURE, elapsedMillis(start));
+                    return response;
+                }
+                closeQuietly(response.errorBody());
+            } catch (IOException e) {
+                if (attemptCall.isCanceled() || Thread.currentThread().isInterrupted()) {
+                    token.throwIfCancelled();
+                    throw e; // cancelamento/interrupção não é falha do backend (o finally devolve a vaga)
+                }
+                circuitBreaker.onFailure();
+                reported = true;
+                lastError = e;
+                if (lastAttempt) {
+                    metrics.record(ResilienceMetrics.Outcome.FAILURE, elapsedMillis(start));
+                    throw lastError;
+                }
+            } finally {
+                if (!reported) {
+                    // cancelada, interrompida ou RuntimeException (ex: Gson): sem veredito sobre o servidor
+                    circuitBreaker.releaseProbe();
+                }
+            }
+
+            if (!circuitBreaker.allowRequest()) {
+                metrics.record(ResilienceMetrics.Outcome.SHORT_CIRCUITED, elapsedMillis(start));
+                throw new CircuitOpenException();
+            }
+            metrics.record(ResilienceMetrics.Outcome.RETRY, 0);
+            boolean slept = false;
+            try {
+                sleep(retryPolicy.backoffMillis(attempt, random), token);
+                slept = true;
+            } finally {
+                if (!slept) {
+                    circuitBreaker.releaseProbe(); // cancelado no backoff: a próxima tentativa não sai
+                }
+            }
+        }
+    }
+
+    /**
+     * Executa direto ou, se houver histórico suficiente, em corrida com uma chamada de hedge.
+     */
+    private <T> Response<T> executeMaybeHedged(Call<T> call, CancellationToken token) throws IOException {
+        if (hedgeExecutor == null || latencies.size() < hedgePolicy.getMinSamples()) {
+            return call.execute();
+        }
+        long hedgeDelay = Math.max(hedgePolicy.getMinDelayMillis(),
+                latencies.percentile(hedgePolicy.getPercentile()));
+        return executeHedged(call, hedgeDelay, token);
+    }
+
+    private <T> Response<T> executeHedged(Call<T> primary, long hedgeDelayMillis, CancellationToken token)
+            throws IOException {
+        CompletionService<Response<T>> race = new ExecutorCompletionService<>(hedgeExecutor);
+        List<Call<T>> calls = new ArrayList<>(2);
+        calls.add(primary);
+        race.submit(primary::execute);
+        int inFlight = 1;
+
+        Response<T> lastResponse = null;
+        IOException lastError = null;
+        CancellationToken.Registration hedgeRegistration = CancellationToken.Registration.EMPTY;
+        try {
+            Future<Response<T>> done = race.poll(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+            if (done == null && !token.isCancelled()) {
+                // primária passou do percentil: dispara a cópia
+                Call<T> hedge = primary.clone();
+                hedgeRegistration = token.onCancel(hedge::cancel);
+                calls.add(hedge);
+                race.submit(hedge::execute);
+                inFlight++;
+                metrics.record(ResilienceMetrics.Outcome.HEDGE_SENT, 0);
+            }
+            while (inFlight > 0) {
+                if (done == null) {
+                    done = race.take();
+                }
+                inFlight--;
+                try {
+                    Response<T> response = done.get();
+                    if (response.isSuccessful() || inFlight == 0) {
+                        cancelAll(calls); // cancela a perdedora (no vencedor é no-op: o corpo já foi lido)
+                        return response;
+                    }
+                    lastResponse = response; // não-2xx: espera a outra chamada
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (!(cause instanceof IOException)) {
+                        // corpo que não converte (ex: Gson) não é falha de rede: sobe igual ao
+                        // caminho sem hedge (sem retry, sem contar no breaker)
+                        cancelAll(calls);
+                        throw propagate(cause);
+                    }
+                    lastError = (IOException) cause;
+                }
+                done = null;
+            }
+            if (lastResponse != null) {
+                return lastResponse;
+            }
+            throw lastError;
+        } catch (InterruptedException e) {
+            cancelAll(calls);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Hedged call interrompida");
+        } finally {
+            hedgeRegistration.close();
+        }
+    }
+
+    // Call.execute() só declara IOException: o resto é unchecked
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof RuntimeException
+                ? (RuntimeException) cause
+                : new IllegalStateException(cause);
+    }
+
+    private static <T> void cancelAll(List<Call<T>> calls) {
+        for (Call<T> call : calls) {
+            call.cancel();
+        }
+    }
+
+    private static void sleep(long millis, CancellationToken token) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            if (token.sleep(millis)) {
+                token.throwIfCancelled(); // cancelado durante o backoff: não tenta de novo
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Backoff interrompido");
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static void closeQuietly(ResponseBody body) {
+        if (body != null) {
+            body.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+import java.util.Random;
+
+/**
+ * Política de retry com backoff exponencial e "full jitter".
+ *
+ * Espera antes da tentativa N (N >= 1): valor aleatório entre 0 e min(maxDelay, baseDelay * 2^(N-1)).
+ * O jitter espalha as novas tentativas de vários aparelhos no tempo e evita
+ * que todos batam no backend ao mesmo tempo quando ele volta de uma queda.
+ */
+public final class RetryPolicy {
+
+    // Sem retry: uma única tentativa
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts deve ser >= 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    // Padrão do app: 3 tentativas, 300ms de base, no máximo 3s de espera
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(3, 300, 3_000);
+    }
+
+    public int getMaxAttempts() { return maxAttempts; }
+
+    /**
+     * Tempo de espera antes da tentativa de número {@code retry} (1 = primeiro retry).
+     */
+    public long backoffMillis(int retry, Random random) {
+        if (baseDelayMillis <= 0) {
+            return 0;
+        }
+        int shift = Math.min(retry - 1, 30); // evita overflow do deslocamento
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << shift);
+        return (long) (random.nextDouble() * ceiling);
+    }
+
+    /**
+     * Códigos HTTP que valem nova tentativa: timeout, rate limit e erros do servidor.
+     * 4xx restantes são erro do cliente e repetir não muda o resultado.
+     */
+    public static boolean isRetryable(int httpCode) {
+        return httpCode == 408 || httpCode == 429 || httpCode >= 500;
+    }
+}
@@ -1,15 +1,25 @@
 package br.com.simplecatalog.di;
 
 import android.content.Context;
-import androidx.room.Room;
+import android.content.pm.ApplicationInfo;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import br.com.simplecatalog.data.local.AppDatabase;
 import br.com.simplecatalog.data.local.dao.ItemDao;
 import br.com.simplecatalog.data.mapper.ItemMapper;
 import br.com.simplecatalog.data.remote.RetrofitClient;
+import br.com.simplecatalog.data.remote.resilience.CountingResilienceMetrics;
+import br.com.simplecatalog.domain.usecase.GetItemDetailUseCase;
+import br.com.simplecatalog.domain.usecase.GetItemsPageUseCase;
 import br.com.simplecatalog.domain.usecase.GetItemsUseCase;
+import br.com.simplecatalog.domain.usecase.SelectCatalogUseCase;
+import br.com.simplecatalog.perf.PerfTracer;
+import br.com.simplecatalog.repository.ItemDetailRepository;
 import br.com.simplecatalog.repository.ItemRepository;
-import br.com.simplecatalog.repository.ItemRepositoryImpl;
 
 public class AppContainer {
     /* O que é AppContainer na prática?
@@ -25,52 +35,50 @@ public class AppContainer {
     * …pra você não ficar criando isso em Activity.
     * */
 
-    private static AppContainer instance;
+    private static volatile AppContainer instance;
     /* Isso guarda uma única instância do AppContainer para o app inteiro .
+    * volatile: quem lê sem lock (fast path do getInstance) enxerga o container já construído,
+    * nunca um objeto publicado pela metade.
     * */
 
     // Singletons do app
     public final ItemDao itemDao;
     public final ItemRepository itemRepository;
     public final GetItemsUseCase getItemsUseCase;
+    public final GetItemsPageUseCase getItemsPageUseCase;
+    public final ItemDetailRepository itemDetailRepository;
+    public final GetItemDetailUseCase getItemDetailUseCase;
     public final ItemMapper itemMapper;
     public final RetrofitClient retrofitClient;
+    public final CountingResilienceMetrics resilienceMetrics;
+    public final CatalogManager catalogManager;
+    public final SelectCatalogUseCase selectCatalogUseCase;
     /* O que são essas variáveis:
     * final = depois que o container cria, não muda mais.
     * São “serviços” do app: banco, rede, repo, use case.
     * Isso permite que qualquer parte do app use esses mesmos objetos.
     * */
 
+    // Thread de background compartilhada para tarefas pequenas (prefetch de detalhe, dump de perf)
+    private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
+
+    // Arquivo do dump de performance (filesDir/perf-dump.txt)
+    private final File perfDumpFile;
+
     private AppContainer(Context context) {
     /* Por que private?
     * Pra obrigar o app a criar o container apenas via getInstance(), garantindo o “singleton”.
     * */
 
-        // criando o Room Database (banco local)
-        AppDatabase db = Room.databaseBuilder(
-                context.getApplicationContext(),
-                AppDatabase.class,
-                "simplecatalog.db"
-        ).fallbackToDestructiveMigration().build();
-        /* O que cada argumento significa:
-        * context.getApplicationContext()
-        * → usa o contexto do app, não da Activity (mais seguro pra singleton)
-        * AppDatabase.class
-        * → sua classe @Database(...) (Room precisa dela)
-        * "simplecatalog.db"
-        * → nome do arquivo do banco no dispositivo
-        * */
-
-        this.itemDao = db.itemDao();
-        /* O que é DAO?
-        * DAO é a interface que faz as consultas no banco.
-        * Você não faz SQL no app  — você centraliza no DAO.
-        * itemDao() é um método que existirá em AppDatabase e devolve o ItemDao.
-        * Resumo: Aqui você criou o banco e pegou o “acesso às tabelas” através do DAO.
-        * */
+        // instrumentação de performance: ligada só em builds debuggable (custo ~zero desligada)
+        boolean debuggable = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        PerfTracer.setEnabled(debuggable);
+        this.perfDumpFile = new File(context.getFilesDir(), "perf-dump.txt");
 
         // criando o cliente de rede (Retrofit)
-        this.retrofitClient = new RetrofitClient();
+        this.retrofitClient = RetrofitClient.getInstance();
+        retrofitClient.prewarm(); // abre DNS/TCP/TLS antes do primeiro fetch do catálogo
+        retrofitClient.watchNetwork(context); // troca de rede descarta o DNS resolvido na anterior
         /*
         * O que é RetrofitClient aqui?
         * Uma classe que vai construir:
@@ -78,6 +86,8 @@ public class AppContainer {
         * Retrofit (baseUrl + converter Gson)
         * ApiService (os endpoints)
         * Ou seja, essa linha cria tudo que é “mundo HTTP”.
+        * getInstance() devolve a pilha única do processo (um pool de conexões só),
+        * que outros serviços podem reaproveitar via retrofitClient.create(...).
         * No seu esqueleto eu referenciei retrofitClient.apiService
         * depois — então dentro de RetrofitClient você terá algo
         * como public final ApiService apiService;
@@ -95,43 +105,66 @@ public class AppContainer {
         * Isso deixa seu projeto “limpo” e bem explicável em entrevista.
         * */
 
-        // criando o Repository REAL (API + Room)
-        this.itemRepository = new ItemRepositoryImpl(
-                retrofitClient.apiService,
-                itemDao,
-                itemMapper
+        // métricas de resiliência (retry/hedge/circuit breaker) somando todos os catálogos
+        this.resilienceMetrics = new CountingResilienceMetrics();
+
+        // catálogos: cada um com banco, API e caches próprios
+        this.catalogManager = new CatalogManager(
+                context,
+                CatalogRegistry.defaults(),
+                retrofitClient,
+                itemMapper,
+                resilienceMetrics,
+                backgroundExecutor,
+                CatalogManager.Budgets.defaults()
         );
-        /* Essa é a parte mais importante.
-        * O Repository é o “cérebro do dado”:
-        * Ele decide quando:
-        * buscar da API
-        * salvar no Room
-        * ler do Room
-        * devolver pro app como List<Item> (domínio)
-        * Por isso ele precisa:
-        * retrofitClient.apiService → pra buscar remoto
-        * itemDao → pra cache local
-        * itemMapper → pra converter formatos
-        * Em entrevista, isso é “Single source of truth” na prática.
+        /* O CatalogManager monta um CatalogComponent por catálogo (Room + Repository + UseCases,
+        * veja os detalhes de cada peça lá) e mantém os usados recentemente "quentes" em memória.
+        * Trocar de catálogo = pedir outro componente; se ele estiver quente, é imediato.
         * */
 
-        // criando o UseCase
-        this.getItemsUseCase = new GetItemsUseCase(itemRepository);
-        /* O UseCase encapsula a “ação”:
-        * “carregar itens”
-        * Ele recebe o repository porque:
-        * UseCase não sabe se o dado vem da internet ou do banco
-        * UseCase só pede: “me dá itens”
-        * Quem resolve isso é o repository
-        * Isso é o que te dá testabilidade: você testa o UseCase mockando o repository.
-        * */
+        this.selectCatalogUseCase = new SelectCatalogUseCase(catalogManager);
+
+        // catálogo padrão: sempre quente, exposto nos campos abaixo como antes
+        CatalogComponent defaultCatalog = catalogManager.open(CatalogRegistry.DEFAULT_ID);
+        this.itemDao = defaultCatalog.itemDao;
+        this.itemRepository = defaultCatalog.itemRepository;
+        this.getItemsUseCase = defaultCatalog.getItemsUseCase;
+        this.getItemsPageUseCase = defaultCatalog.getItemsPageUseCase;
+        this.itemDetailRepository = defaultCatalog.itemDetailRepository;
+        this.getItemDetailUseCase = defaultCatalog.getItemDetailUseCase;
+    }
+
+    /**
+     * Exporta o resumo do PerfTracer para filesDir/perf-dump.txt, em background.
+     * Ler com: adb shell run-as br.com.simplecatalog cat files/perf-dump.txt
+     */
+    public void exportPerfDump() {
+        if (!PerfTracer.isEnabled()) {
+            return;
+        }
+        backgroundExecutor.execute(() -> {
+            try {
+                PerfTracer.dumpToFile(perfDumpFile);
+            } catch (IOException e) {
+                Log.w("AppContainer", "Falha ao exportar perf dump", e);
+            }
+        });
     }
 
     public static AppContainer getInstance(Context context) {
-        if (instance == null) {
-            instance = new AppContainer(context);
+        AppContainer local = instance; // uma leitura volatile só no caminho comum
+        if (local == null) {
+            synchronized (AppContainer.class) {
+                local = instance;
+                if (local == null) {
+                    // só uma thread chega aqui: um Room e uma pilha OkHttp por processo
+                    local = new AppContainer(context.getApplicationContext());
+                    instance = local;
+                }
+            }
         }
-        return instance;
+        return local;
     }
 }
 
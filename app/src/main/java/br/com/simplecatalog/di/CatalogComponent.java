@@ -0,0 +1,234 @@
+package br.com.simplecatalog.di;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.room.Room;
+
+import java.util.concurrent.Executor;
+
+import br.com.simplecatalog.data.local.AppDatabase;
+import br.com.simplecatalog.data.local.Migrations;
+import br.com.simplecatalog.data.local.dao.ItemDao;
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.resilience.CircuitBreaker;
+import br.com.simplecatalog.data.remote.resilience.HedgePolicy;
+import br.com.simplecatalog.data.remote.resilience.ResilienceMetrics;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.data.remote.resilience.RetryPolicy;
+import br.com.simplecatalog.domain.model.Catalog;
+import br.com.simplecatalog.domain.usecase.GetItemDetailUseCase;
+import br.com.simplecatalog.domain.usecase.GetItemStateUseCase;
+import br.com.simplecatalog.domain.usecase.GetItemsPageUseCase;
+import br.com.simplecatalog.domain.usecase.GetItemsUseCase;
+import br.com.simplecatalog.domain.usecase.MutateItemUseCase;
+import br.com.simplecatalog.repository.ItemDetailRepository;
+import br.com.simplecatalog.repository.ItemDetailRepositoryImpl;
+import br.com.simplecatalog.repository.ItemRepository;
+import br.com.simplecatalog.repository.ItemRepositoryImpl;
+import br.com.simplecatalog.repository.ItemStateRepository;
+import br.com.simplecatalog.repository.ItemStateRepositoryImpl;
+
+public class CatalogComponent {
+    /* O que é CatalogComponent?
+    * É o “pedaço do AppContainer” que existe uma vez por catálogo:
+    * banco (Room, um arquivo por catálogo)
+    * rede (ApiService da base URL do catálogo, sobre o OkHttp compartilhado)
+    * repositórios (lista + detalhe) e UseCases
+    * Enquanto o catálogo está “quente” (no CatalogManager), tudo isso fica em memória
+    * e trocar para ele é imediato. Ao esfriar (e sem ninguém usando), close() fecha o banco
+    * e os caches são liberados.
+    * */
+
+    private static final String TAG = "CatalogComponent";
+
+    public final Catalog catalog;
+    public final ItemDao itemDao;
+    public final ItemRepository itemRepository;
+    public final GetItemsUseCase getItemsUseCase;
+    public final GetItemsPageUseCase getItemsPageUseCase;
+    public final ItemDetailRepository itemDetailRepository;
+    public final GetItemDetailUseCase getItemDetailUseCase;
+    public final ItemStateRepository itemStateRepository;
+    public final GetItemStateUseCase getItemStateUseCase;
+    public final MutateItemUseCase mutateItemUseCase;
+
+    private final AppDatabase db;
+    private final ItemStateRepositoryImpl itemStateRepositoryImpl;
+
+    /**
+     * Componente com repositórios já prontos e sem banco (componentes falsos dos testes do
+     * CatalogManager, que sobrescrevem close()).
+     */
+    CatalogComponent(Catalog catalog,
+                     ItemRepository itemRepository,
+                     ItemDetailRepository itemDetailRepository,
+                     ItemStateRepository itemStateRepository) {
+        this.catalog = catalog;
+        this.db = null;
+        this.itemDao = null;
+        this.itemRepository = itemRepository;
+        this.getItemsUseCase = new GetItemsUseCase(itemRepository);
+        this.getItemsPageUseCase = new GetItemsPageUseCase(itemRepository);
+        this.itemDetailRepository = itemDetailRepository;
+        this.getItemDetailUseCase = new GetItemDetailUseCase(itemDetailRepository);
+        this.itemStateRepositoryImpl = null;
+        this.itemStateRepository = itemStateRepository;
+        this.getItemStateUseCase = new GetItemStateUseCase(itemStateRepository);
+        this.mutateItemUseCase = new MutateItemUseCase(itemStateRepository);
+    }
+
+    CatalogComponent(Context context,
+                     Catalog catalog,
+                     boolean isDefault,
+                     ApiService apiService,
+                     ItemMapper itemMapper,
+                     ResilienceMetrics resilienceMetrics,
+                     Executor backgroundExecutor) {
+        this.catalog = catalog;
+
+        // criando o Room Database (banco local) deste catálogo
+        this.db = Room.databaseBuilder(
+                        context.getApplicationContext(),
+                        AppDatabase.class,
+                        AppDatabase.fileName(catalog.getId(), isDefault)
+                )
+                .addMigrations(Migrations.ALL)
+                .fallbackToDestructiveMigrationOnDowngrade()
+                .build();
+        /* O que cada argumento significa:
+        * context.getApplicationContext()
+        * → usa o contexto do app, não da Activity (mais seguro pra singleton)
+        * AppDatabase.class
+        * → sua classe @Database(...) (Room precisa dela)
+        * AppDatabase.fileName(...)
+        * → um arquivo por catálogo ("simplecatalog-<id>.db"; o padrão continua "simplecatalog.db")
+        * addMigrations(Migrations.ALL)
+        * → upgrades de versão preservam o cache (sem re-download do catálogo)
+        * fallbackToDestructiveMigrationOnDowngrade()
+        * → só recria o banco em downgrade (ex: instalar build antiga em debug)
+        * */
+
+        this.itemDao = db.itemDao();
+        /* O que é DAO?
+        * DAO é a interface que faz as consultas no banco.
+        * Você não faz SQL no app  — você centraliza no DAO.
+        * itemDao() é um método que existirá em AppDatabase e devolve o ItemDao.
+        * Resumo: Aqui você criou o banco e pegou o “acesso às tabelas” através do DAO.
+        * */
+
+        // camada de resiliência das chamadas HTTP (retry + hedge + circuit breaker)
+        ResilientCallExecutor callExecutor = new ResilientCallExecutor(
+                RetryPolicy.defaults(),
+                HedgePolicy.atPercentile(0.95, 500, 8),
+                new CircuitBreaker(5, 30_000),
+                resilienceMetrics
+        );
+        /* Regras:
+        * RetryPolicy.defaults() → até 3 tentativas com backoff exponencial + jitter
+        * HedgePolicy → após o p95 das últimas latências (mín. 500ms), dispara uma 2ª chamada
+        * CircuitBreaker(5, 30s) → 5 falhas seguidas abrem o circuito por 30s (vai direto pro cache)
+        * Um executor por catálogo: a API de um catálogo fora do ar não abre o circuito dos outros.
+        * */
+
+        // criando o Repository REAL (API + Room)
+        this.itemRepository = new ItemRepositoryImpl(
+                apiService,
+                callExecutor,
+                itemDao,
+                db.itemDetailDao(),
+                db.syncStateDao(),
+                db::runInTransaction,
+                itemMapper
+        );
+        /* Essa é a parte mais importante.
+        * O Repository é o “cérebro do dado”:
+        * Ele decide quando:
+        * buscar da API
+        * salvar no Room
+        * ler do Room
+        * devolver pro app como List<Item> (domínio)
+        * Por isso ele precisa:
+        * apiService → pra buscar remoto (base URL do catálogo)
+        * callExecutor → executa as chamadas com retry/hedge/circuit breaker
+        * itemDao → pra cache local
+        * db.syncStateDao() → cursor do delta sync (só baixa o que mudou)
+        * db::runInTransaction → aplica delta + cursor de forma atômica
+        * itemMapper → pra converter formatos
+        * Em entrevista, isso é “Single source of truth” na prática.
+        * */
+
+        // criando o UseCase
+        this.getItemsUseCase = new GetItemsUseCase(itemRepository);
+        /* O UseCase encapsula a “ação”:
+        * “carregar itens”
+        * Ele recebe o repository porque:
+        * UseCase não sabe se o dado vem da internet ou do banco
+        * UseCase só pede: “me dá itens”
+        * Quem resolve isso é o repository
+        * Isso é o que te dá testabilidade: você testa o UseCase mockando o repository.
+        * */
+
+        // UseCase de paginação (lista carregada aos poucos + prefetch no ViewModel)
+        this.getItemsPageUseCase = new GetItemsPageUseCase(itemRepository);
+
+        // Detalhe do item: corpo completo buscado sob demanda, com cache próprio
+        ItemDetailRepositoryImpl detailRepository = new ItemDetailRepositoryImpl(
+                apiService,
+                callExecutor,
+                itemDao,
+                db.itemDetailDao(),
+                itemMapper,
+                backgroundExecutor,
+                catalog.getHotEntries(),    // hot set: mais acessados, fixos em memória
+                catalog.getMemoryEntries(), // recentes em memória (LRU)
+                catalog.getDiskBytes()      // tier warm em disco (item_details, menos acessados saem)
+        );
+        itemRepository.addListener(detailRepository); // sync que muda itens tira o detalhe velho da memória
+        backgroundExecutor.execute(detailRepository::warmUp); // populares prontos antes do primeiro toque
+        this.itemDetailRepository = detailRepository;
+        this.getItemDetailUseCase = new GetItemDetailUseCase(itemDetailRepository);
+
+        // Edições do usuário (favorito, quantidade, nota): otimistas + outbox + envio em lote
+        ResilientCallExecutor writeExecutor = new ResilientCallExecutor(
+                RetryPolicy.NONE,
+                HedgePolicy.DISABLED,
+                new CircuitBreaker(5, 30_000),
+                resilienceMetrics
+        );
+        this.itemStateRepositoryImpl = new ItemStateRepositoryImpl(
+                apiService,
+                writeExecutor,
+                db.itemStateDao(),
+                db.outboxDao(),
+                db::runInTransaction,
+                itemMapper
+        );
+        /* Por que outro executor para escrita?
+        * Hedge duplicaria o POST e o retry imediato seguraria a thread da outbox.
+        * Quem repete escrita é a própria outbox: persistida, com backoff e juntando
+        * as edições que chegarem enquanto isso no mesmo lote.
+        * */
+        this.itemStateRepository = itemStateRepositoryImpl;
+        this.getItemStateUseCase = new GetItemStateUseCase(itemStateRepository);
+        this.mutateItemUseCase = new MutateItemUseCase(itemStateRepository);
+    }
+
+    /**
+     * Libera o catálogo: para os envios da outbox e fecha o banco (e com ele os caches em
+     * memória ficam sem referência). Edições ainda não enviadas continuam na outbox e
+     * saem quando o catálogo abrir de novo.
+     * Chamado pelo CatalogManager (no backgroundExecutor) quando o catálogo esfriou e
+     * ninguém mais usa.
+     *
+     * O banco só fecha depois que a thread da outbox parou; se ela não parar a tempo, o banco
+     * fica aberto (o GC fecha) em vez de ser fechado no meio de uma transação.
+     */
+    void close() {
+        if (itemStateRepositoryImpl.close()) {
+            db.close();
+        } else {
+            Log.w(TAG, "Outbox do catálogo " + catalog.getId() + " não parou a tempo; banco não fechado");
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package br.com.simplecatalog.di;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import br.com.simplecatalog.data.local.AppDatabase;
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.RetrofitClient;
+import br.com.simplecatalog.data.remote.resilience.ResilienceMetrics;
+import br.com.simplecatalog.domain.model.Catalog;
+import br.com.simplecatalog.repository.CatalogRepository;
+import br.com.simplecatalog.repository.ItemDetailRepository;
+import br.com.simplecatalog.repository.ItemRepository;
+import br.com.simplecatalog.repository.ItemStateRepository;
+
+/**
+ * Gerencia os catálogos abertos (um CatalogComponent por catálogo).
+ *
+ * Catálogos "quentes":
+ * - Ficam em memória num LRU (banco aberto, snapshot da lista e detalhes em cache),
+ *   então voltar para um catálogo recente é imediato, sem recarregar nada
+ * - Limites globais: no máximo {@code maxWarmCatalogs} quentes e a soma dos detalhes
+ *   em memória deles (hot set + LRU) dentro de {@code memoryEntries} global;
+ *   passou do limite, o menos usado esfria
+ * - O catálogo padrão nunca esfria (é o que o AppContainer expõe nos campos públicos)
+ *
+ * Esfriar não é fechar:
+ * - Telas e ViewModels marcam o uso com {@link #retain}/{@link #release}; um catálogo que
+ *   esfria ainda em uso fica "aposentado" (fora do LRU, banco aberto) até o último release
+ * - Abrir de novo um catálogo aposentado reaproveita o mesmo componente (nunca dois Room
+ *   no mesmo arquivo)
+ * - close() roda no backgroundExecutor: depois das tarefas que o catálogo já enfileirou lá
+ *   (warmUp e envelhecimento do detalhe, prefetch) e sem segurar a UI thread
+ *
+ * Disco:
+ * - Cada catálogo limita a própria tabela item_details ({@code Catalog#getDiskBytes()})
+ * - Além disso, a soma dos arquivos de banco de todos os catálogos respeita {@code diskBytes}:
+ *   passando do limite, bancos de catálogos frios são apagados (o mais antigo primeiro)
+ *   e baixados de novo se o usuário voltar a eles
+ * - A conta do disco roda fora do lock; só abrir o catálogo que está sendo apagado espera
+ */
+public class CatalogManager implements CatalogRepository {
+
+    private static final String TAG = "CatalogManager";
+
+    /**
+     * Limites globais de cache somando todos os catálogos.
+     */
+    public static final class Budgets {
+        public final int maxWarmCatalogs;
+        public final int memoryEntries;
+        public final long diskBytes;
+
+        public Budgets(int maxWarmCatalogs, int memoryEntries, long diskBytes) {
+            this.maxWarmCatalogs = maxWarmCatalogs;
+            this.memoryEntries = memoryEntries;
+            this.diskBytes = diskBytes;
+        }
+
+        // 3 catálogos quentes, 150 detalhes em memória no total, 50 MB de bancos
+        public static Budgets defaults() {
+            return new Budgets(3, 150, 50L * 1024 * 1024);
+        }
+    }
+
+    /**
+     * O que o CatalogManager usa do Android: montar o componente e achar/apagar os arquivos
+     * de banco. Separado para testar o ciclo de vida na JVM com componentes falsos.
+     */
+    interface Environment {
+        CatalogComponent create(Catalog catalog, boolean isDefault);
+
+        File databaseFile(String name);
+
+        void deleteDatabase(String name);
+    }
+
+    private final CatalogRegistry registry;
+    private final Environment environment;
+    private final Executor backgroundExecutor;
+    private final Budgets budgets;
+
+    // Catálogos quentes em ordem de acesso (o primeiro é o menos usado); protegido por this
+    private final LinkedHashMap<String, CatalogComponent> warm = new LinkedHashMap<>(8, 0.75f, true);
+
+    // Fora do LRU mas ainda em uso: fecham no último release (protegido por this)
+    private final Map<String, CatalogComponent> retired = new HashMap<>();
+
+    // Usos marcados com retain() por catálogo (protegido por this)
+    private final Map<String, Integer> users = new HashMap<>();
+
+    // Catálogos com o banco sendo apagado por trimDisk(): open() deles espera (protegido por this)
+    private final Set<String> deleting = new HashSet<>();
+
+    public CatalogManager(Context context,
+                          CatalogRegistry registry,
+                          RetrofitClient retrofitClient,
+                          ItemMapper itemMapper,
+                          ResilienceMetrics resilienceMetrics,
+                          Executor backgroundExecutor,
+                          Budgets budgets) {
+        this(registry,
+                new AndroidEnvironment(context.getApplicationContext(), retrofitClient, itemMapper,
+                        resilienceMetrics, backgroundExecutor),
+                backgroundExecutor,
+                budgets);
+    }
+
+    CatalogManager(CatalogRegistry registry, Environment environment, Executor backgroundExecutor, Budgets budgets) {
+        this.registry = registry;
+        this.environment = environment;
+        this.backgroundExecutor = backgroundExecutor;
+        this.budgets = budgets;
+    }
+
+    @Override
+    public List<Catalog> getCatalogs() {
+        return registry.getCatalogs();
+    }
+
+    @Override
+    public ItemRepository itemRepository(String catalogId) {
+        return open(catalogId).itemRepository;
+    }
+
+    @Override
+    public ItemDetailRepository itemDetailRepository(String catalogId) {
+        return open(catalogId).itemDetailRepository;
+    }
+
+    @Override
+    public ItemStateRepository itemStateRepository(String catalogId) {
+        return open(catalogId).itemStateRepository;
+    }
+
+    @Override
+    public synchronized void retain(String catalogId) {
+        open(catalogId);
+        users.merge(catalogId, 1, Integer::sum);
+    }
+
+    @Override
+    public synchronized void release(String catalogId) {
+        Integer count = users.get(catalogId);
+        if (count == null) {
+            return; // release sem retain: nada a soltar
+        }
+        if (count > 1) {
+            users.put(catalogId, count - 1);
+            return;
+        }
+        users.remove(catalogId);
+        CatalogComponent component = retired.remove(catalogId);
+        if (component != null) {
+            closeLater(component); // já tinha esfriado: era o último uso
+        }
+    }
+
+    /**
+     * Devolve o catálogo já quente ou monta o grafo dele (barato: o Room só abre o
+     * arquivo na primeira query). Marca o catálogo como o mais recente do LRU.
+     * Quem for guardar o componente além da chamada atual usa {@link #retain}.
+     */
+    public synchronized CatalogComponent open(String catalogId) {
+        awaitDeletion(catalogId);
+        CatalogComponent component = warm.get(catalogId);
+        if (component != null) {
+            return component;
+        }
+
+        component = retired.remove(catalogId); // esfriou mas ainda estava em uso: volta como está
+        if (component == null) {
+            Catalog catalog = registry.find(catalogId);
+            component = environment.create(catalog, catalog == registry.getDefault());
+        }
+        warm.put(catalogId, component);
+
+        evictWarm(catalogId);
+        backgroundExecutor.execute(this::trimDisk); // I/O de arquivo fora da UI thread
+        return component;
+    }
+
+    // Esfria os menos usados até caber nos limites (nunca o padrão nem o que acabou de abrir)
+    private void evictWarm(String keep) {
+        Iterator<Map.Entry<String, CatalogComponent>> iterator = warm.entrySet().iterator();
+        while ((warm.size() > budgets.maxWarmCatalogs || warmMemoryEntries() > budgets.memoryEntries)
+                && iterator.hasNext()) {
+            Map.Entry<String, CatalogComponent> entry = iterator.next();
+            if (entry.getKey().equals(keep) || entry.getValue().catalog == registry.getDefault()) {
+                continue;
+            }
+            iterator.remove();
+            if (users.containsKey(entry.getKey())) {
+                retired.put(entry.getKey(), entry.getValue()); // fecha no último release
+            } else {
+                closeLater(entry.getValue());
+            }
+        }
+    }
+
+    private int warmMemoryEntries() {
+        int total = 0;
+        for (CatalogComponent component : warm.values()) {
+            total += component.catalog.getHotEntries() + component.catalog.getMemoryEntries();
+        }
+        return total;
+    }
+
+    private void closeLater(CatalogComponent component) {
+        backgroundExecutor.execute(component::close);
+    }
+
+    /**
+     * Apaga bancos de catálogos frios até a soma dos arquivos caber em diskBytes.
+     * Medir e escolher roda sem o lock (open() na UI thread não espera o disco); só o
+     * catálogo sendo apagado fica marcado, e abrir ele espera o arquivo sumir.
+     */
+    void trimDisk() {
+        List<Catalog> catalogs = registry.getCatalogs();
+        long total = 0;
+        for (Catalog catalog : catalogs) {
+            total += databaseBytes(catalog);
+        }
+
+        while (total > budgets.diskBytes) {
+            Catalog victim = null;
+            long oldest = Long.MAX_VALUE;
+            for (Catalog catalog : catalogs) {
+                File file = databaseFile(catalog);
+                if (isOpen(catalog.getId()) || !file.exists()) {
+                    continue;
+                }
+                if (file.lastModified() < oldest) {
+                    oldest = file.lastModified();
+                    victim = catalog;
+                }
+            }
+            if (victim == null) {
+                return; // só sobraram catálogos abertos: cada um já limita o próprio cache
+            }
+            if (!startDeleting(victim.getId())) {
+                continue; // foi aberto enquanto medíamos: escolhe outro
+            }
+            try {
+                total -= databaseBytes(victim);
+                environment.deleteDatabase(databaseName(victim));
+            } finally {
+                finishDeleting(victim.getId());
+            }
+        }
+    }
+
+    private synchronized boolean isOpen(String catalogId) {
+        return warm.containsKey(catalogId) || retired.containsKey(catalogId);
+    }
+
+    private synchronized boolean startDeleting(String catalogId) {
+        if (isOpen(catalogId)) {
+            return false;
+        }
+        deleting.add(catalogId);
+        return true;
+    }
+
+    private synchronized void finishDeleting(String catalogId) {
+        deleting.remove(catalogId);
+        notifyAll();
+    }
+
+    // Deve ser chamado com o lock; a deleção de um arquivo de banco leva milissegundos
+    private void awaitDeletion(String catalogId) {
+        boolean interrupted = false;
+        while (deleting.contains(catalogId)) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Banco + arquivos do WAL
+    private long databaseBytes(Catalog catalog) {
+        File file = databaseFile(catalog);
+        return file.length()
+                + new File(file.getPath() + "-wal").length()
+                + new File(file.getPath() + "-shm").length();
+    }
+
+    private File databaseFile(Catalog catalog) {
+        return environment.databaseFile(databaseName(catalog));
+    }
+
+    private String databaseName(Catalog catalog) {
+        return AppDatabase.fileName(catalog.getId(), catalog == registry.getDefault());
+    }
+
+    /**
+     * Environment de verdade: Room/Retrofit do catálogo e os arquivos em getDatabasePath().
+     */
+    private static final class AndroidEnvironment implements Environment {
+
+        private final Context context;
+        private final RetrofitClient retrofitClient;
+        private final ItemMapper itemMapper;
+        private final ResilienceMetrics resilienceMetrics;
+        private final Executor backgroundExecutor;
+
+        AndroidEnvironment(Context context,
+                           RetrofitClient retrofitClient,
+                           ItemMapper itemMapper,
+                           ResilienceMetrics resilienceMetrics,
+                           Executor backgroundExecutor) {
+            this.context = context;
+            this.retrofitClient = retrofitClient;
+            this.itemMapper = itemMapper;
+            this.resilienceMetrics = resilienceMetrics;
+            this.backgroundExecutor = backgroundExecutor;
+        }
+
+        @Override
+        public CatalogComponent create(Catalog catalog, boolean isDefault) {
+            if (!isDefault) {
+                retrofitClient.prewarm(catalog.getBaseUrl()); // conexão pronta para o primeiro fetch
+            }
+            return new CatalogComponent(
+                    context,
+                    catalog,
+                    isDefault,
+                    retrofitClient.apiServiceFor(catalog.getBaseUrl()),
+                    itemMapper,
+                    resilienceMetrics,
+                    backgroundExecutor
+            );
+        }
+
+        @Override
+        public File databaseFile(String name) {
+            return context.getDatabasePath(name);
+        }
+
+        @Override
+        public void deleteDatabase(String name) {
+            context.deleteDatabase(name);
+            Log.d(TAG, "Banco " + name + " apagado (limite de disco)");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.simplecatalog.di;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import br.com.simplecatalog.data.remote.ApiEndpoints;
+import br.com.simplecatalog.domain.model.Catalog;
+
+/**
+ * Lista dos catálogos que o app conhece (região/marca → base URL + limites de cache).
+ *
+ * - O primeiro catálogo é o padrão: abre no startup e usa o banco "simplecatalog.db"
+ * - Novos catálogos entram aqui (ou vêm de uma configuração remota) sem mudar o resto do app
+ */
+public final class CatalogRegistry {
+
+    // Catálogo padrão (a API que o app sempre usou)
+    public static final String DEFAULT_ID = "default";
+
+    private final List<Catalog> catalogs;
+
+    public CatalogRegistry(List<Catalog> catalogs) {
+        if (catalogs.isEmpty()) {
+            throw new IllegalArgumentException("É preciso ao menos um catálogo");
+        }
+        this.catalogs = Collections.unmodifiableList(new ArrayList<>(catalogs));
+    }
+
+    /**
+     * Configuração de fábrica: só o catálogo padrão.
+     */
+    public static CatalogRegistry defaults() {
+        return new CatalogRegistry(Collections.singletonList(
+                // 20 fixos + 30 recentes = os mesmos 50 detalhes em memória de antes; 1 MB de corpos em disco
+                new Catalog(DEFAULT_ID, "Catálogo", ApiEndpoints.BASE_URL, 20, 30, 1024 * 1024)
+        ));
+    }
+
+    public List<Catalog> getCatalogs() {
+        return catalogs;
+    }
+
+    public Catalog getDefault() {
+        return catalogs.get(0);
+    }
+
+    public Catalog find(String catalogId) {
+        for (Catalog catalog : catalogs) {
+            if (catalog.getId().equals(catalogId)) {
+                return catalog;
+            }
+        }
+        throw new IllegalArgumentException("Catálogo desconhecido: " + catalogId);
+    }
+}
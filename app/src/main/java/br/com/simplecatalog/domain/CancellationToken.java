@@ -0,0 +1,106 @@
+package br.com.simplecatalog.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancelamento cooperativo de uma operação (ViewModel → UseCase → Repository → rede/banco).
+ *
+ * - Quem iniciou a operação chama {@link #cancel()} (ex: ViewModel.onCleared())
+ * - Quem executa checa {@link #throwIfCancelled()} entre etapas e registra ações imediatas
+ *   com {@link #onCancel} (ex: Call::cancel do OkHttp, que interrompe o socket na hora)
+ * - Cancelamento chega como {@link CancellationException} (unchecked); dentro de uma transação
+ *   do Room isso desfaz as escritas, então o cache fica como estava antes
+ */
+public final class CancellationToken {
+
+    // Token que nunca cancela (chamadas sem dono, ex: testes e APIs antigas)
+    public static final CancellationToken NONE = new CancellationToken(false);
+
+    private final boolean cancellable;
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final List<Runnable> callbacks = new ArrayList<>(); // protegido por this
+
+    public CancellationToken() {
+        this(true);
+    }
+
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    /**
+     * Cancela a operação e roda as ações registradas (uma vez só; chamadas repetidas são ignoradas).
+     */
+    public void cancel() {
+        if (!cancellable) {
+            return;
+        }
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (isCancelled()) {
+                return;
+            }
+            cancelled.countDown();
+            toRun = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        for (Runnable callback : toRun) {
+            callback.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Operação cancelada");
+        }
+    }
+
+    /**
+     * Registra uma ação para o momento do cancelamento (roda na hora se já estiver cancelado).
+     * Feche o Registration quando a etapa terminar, para não segurar a referência.
+     */
+    public Registration onCancel(Runnable callback) {
+        synchronized (this) {
+            if (!isCancelled()) {
+                if (!cancellable) {
+                    return Registration.EMPTY;
+                }
+                callbacks.add(callback);
+                return () -> {
+                    synchronized (CancellationToken.this) {
+                        callbacks.remove(callback);
+                    }
+                };
+            }
+        }
+        callback.run();
+        return Registration.EMPTY;
+    }
+
+    /**
+     * Espera {@code millis} ou até o cancelamento, o que vier primeiro.
+     *
+     * @return true se foi cancelado durante a espera
+     */
+    public boolean sleep(long millis) throws InterruptedException {
+        return cancelled.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registro de uma ação de cancelamento; close() desfaz o registro.
+     */
+    public interface Registration extends AutoCloseable {
+        Registration EMPTY = () -> { };
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.simplecatalog.domain.model;
+
+/* Catalog representa um catálogo (região/marca) servido pelo app.
+* Cada catálogo tem a própria API (baseUrl), o próprio banco local e os próprios
+* limites de cache; o resto do app (Repository, UseCase, UI) é o mesmo para todos.
+* Imutável, como Item.
+* */
+
+public class Catalog {
+
+    private final String id;            // identificador estável (vira parte do nome do arquivo do banco)
+    private final String name;          // nome exibido na UI
+    private final String baseUrl;       // base da API deste catálogo (termina com "/")
+    private final int hotEntries;       // detalhes mais acessados, fixos em memória (hot set)
+    private final int memoryEntries;    // detalhes recentes em memória (LRU) enquanto o catálogo está "quente"
+    private final long diskBytes;       // orçamento da tabela item_details deste catálogo (soma dos corpos)
+
+    public Catalog(String id, String name, String baseUrl, int hotEntries, int memoryEntries, long diskBytes) {
+        this.id = id;
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.hotEntries = hotEntries;
+        this.memoryEntries = memoryEntries;
+        this.diskBytes = diskBytes;
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public String getBaseUrl() { return baseUrl; }
+    public int getHotEntries() { return hotEntries; }
+    public int getMemoryEntries() { return memoryEntries; }
+    public long getDiskBytes() { return diskBytes; }
+}
@@ -11,12 +11,14 @@ public class Item {
     private final long id;
     private final String title;
     private final String subtitle;
+    private final long categoryId; // seção da lista (0 = sem categoria)
 
     // Construtor, cria o objeto e preenche os dados
-    public Item(long id, String title, String subtitle) {
+    public Item(long id, String title, String subtitle, long categoryId) {
         this.id = id;
         this.title = title;
         this.subtitle = subtitle;
+        this.categoryId = categoryId;
     }
 
     /* Esses são métodos getters.
@@ -25,5 +27,6 @@ public class Item {
     public long getId() { return id; }
     public String getTitle() { return title; }
     public String getSubtitle() { return subtitle; }
+    public long getCategoryId() { return categoryId; }
 }
 
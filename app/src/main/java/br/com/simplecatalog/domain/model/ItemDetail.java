@@ -0,0 +1,23 @@
+package br.com.simplecatalog.domain.model;
+
+/* ItemDetail é o modelo de domínio da tela de detalhe.
+* Diferente de Item (que traz só o preview usado na lista), aqui o corpo é completo.
+* Imutável, como Item.
+* */
+
+public class ItemDetail {
+
+    private final long id;
+    private final String title;
+    private final String body;
+
+    public ItemDetail(long id, String title, String body) {
+        this.id = id;
+        this.title = title;
+        this.body = body;
+    }
+
+    public long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getBody() { return body; }
+}
@@ -0,0 +1,94 @@
+package br.com.simplecatalog.domain.model;
+
+/* ItemMutation é uma edição do usuário em um campo de um item
+* ("favoritou o 7", "quantidade do 7 = 3", "nota do 7 = ...").
+* É o que a UI pede ao Repository e o que vai para a outbox e para o servidor:
+* o valor é guardado como texto para o mesmo objeto servir nas três camadas.
+* Imutável; criado pelas fábricas favorite/quantity/note (que validam o valor).
+* */
+
+public final class ItemMutation {
+
+    // Campos editáveis (wireName = nome usado na outbox e na API)
+    public enum Field {
+        FAVORITE("favorite"),
+        QUANTITY("quantity"),
+        NOTE("note");
+
+        private final String wireName;
+
+        Field(String wireName) {
+            this.wireName = wireName;
+        }
+
+        public String getWireName() { return wireName; }
+
+        public static Field fromWireName(String wireName) {
+            for (Field field : values()) {
+                if (field.wireName.equals(wireName)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Campo desconhecido: " + wireName);
+        }
+    }
+
+    private final long itemId;
+    private final Field field;
+    private final String value;
+
+    private ItemMutation(long itemId, Field field, String value) {
+        this.itemId = itemId;
+        this.field = field;
+        this.value = value;
+    }
+
+    public static ItemMutation favorite(long itemId, boolean favorite) {
+        return new ItemMutation(itemId, Field.FAVORITE, String.valueOf(favorite));
+    }
+
+    public static ItemMutation quantity(long itemId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantidade não pode ser negativa: " + quantity);
+        }
+        return new ItemMutation(itemId, Field.QUANTITY, String.valueOf(quantity));
+    }
+
+    // Nota vazia (ou só espaços) = sem nota
+    public static ItemMutation note(long itemId, String note) {
+        String trimmed = note != null ? note.trim() : null;
+        return new ItemMutation(itemId, Field.NOTE, trimmed == null || trimmed.isEmpty() ? null : trimmed);
+    }
+
+    /**
+     * Recria a mutação a partir do formato de texto (outbox ou valor devolvido pelo servidor).
+     */
+    public static ItemMutation of(long itemId, String wireField, String value) {
+        switch (Field.fromWireName(wireField)) {
+            case FAVORITE:
+                return favorite(itemId, Boolean.parseBoolean(value));
+            case QUANTITY:
+                return quantity(itemId, value != null ? Integer.parseInt(value) : 0);
+            default:
+                return note(itemId, value);
+        }
+    }
+
+    public long getItemId() { return itemId; }
+    public Field getField() { return field; }
+    public String getValue() { return value; }
+
+    /**
+     * Aplica a edição e devolve o novo estado (o original não muda).
+     */
+    public ItemState applyTo(ItemState state) {
+        switch (field) {
+            case FAVORITE:
+                return state.withFavorite(Boolean.parseBoolean(value));
+            case QUANTITY:
+                return state.withQuantity(Integer.parseInt(value));
+            default:
+                return state.withNote(value);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.simplecatalog.domain.model;
+
+/* ItemState é o que o usuário fez com um item: favorito, quantidade e nota.
+* Fica separado de Item porque vem de outra fonte (edições locais + servidor),
+* não do catálogo. pending = ainda tem edição esperando confirmação do servidor.
+* Imutável, como Item: cada edição gera um novo ItemState.
+* */
+
+public class ItemState {
+
+    private final long itemId;
+    private final boolean favorite;
+    private final int quantity;
+    private final String note;
+    private final boolean pending;
+
+    public ItemState(long itemId, boolean favorite, int quantity, String note, boolean pending) {
+        this.itemId = itemId;
+        this.favorite = favorite;
+        this.quantity = quantity;
+        this.note = note;
+        this.pending = pending;
+    }
+
+    // Estado de um item que o usuário nunca editou
+    public static ItemState empty(long itemId) {
+        return new ItemState(itemId, false, 0, null, false);
+    }
+
+    public long getItemId() { return itemId; }
+    public boolean isFavorite() { return favorite; }
+    public int getQuantity() { return quantity; }
+    public String getNote() { return note; }
+    public boolean isPending() { return pending; }
+
+    // true se há algo do usuário para mostrar (favorito, quantidade ou nota)
+    public boolean hasUserData() {
+        return favorite || quantity > 0 || note != null;
+    }
+
+    public ItemState withFavorite(boolean favorite) {
+        return new ItemState(itemId, favorite, quantity, note, pending);
+    }
+
+    public ItemState withQuantity(int quantity) {
+        return new ItemState(itemId, favorite, quantity, note, pending);
+    }
+
+    public ItemState withNote(String note) {
+        return new ItemState(itemId, favorite, quantity, note, pending);
+    }
+
+    public ItemState withPending(boolean pending) {
+        return new ItemState(itemId, favorite, quantity, note, pending);
+    }
+}
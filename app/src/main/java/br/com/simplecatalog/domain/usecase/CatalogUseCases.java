@@ -0,0 +1,28 @@
+package br.com.simplecatalog.domain.usecase;
+
+/* Os UseCases da lista já ligados a um catálogo.
+* É o que o SelectCatalogUseCase devolve: trocar de catálogo = trocar este objeto.
+* */
+
+public class CatalogUseCases {
+
+    private final String catalogId;
+    private final GetItemsPageUseCase getItemsPageUseCase;
+    private final GetItemDetailUseCase getItemDetailUseCase;
+    private final GetItemStateUseCase getItemStateUseCase;
+
+    public CatalogUseCases(String catalogId,
+                           GetItemsPageUseCase getItemsPageUseCase,
+                           GetItemDetailUseCase getItemDetailUseCase,
+                           GetItemStateUseCase getItemStateUseCase) {
+        this.catalogId = catalogId;
+        this.getItemsPageUseCase = getItemsPageUseCase;
+        this.getItemDetailUseCase = getItemDetailUseCase;
+        this.getItemStateUseCase = getItemStateUseCase;
+    }
+
+    public String getCatalogId() { return catalogId; }
+    public GetItemsPageUseCase getItemsPage() { return getItemsPageUseCase; }
+    public GetItemDetailUseCase getItemDetail() { return getItemDetailUseCase; }
+    public GetItemStateUseCase getItemState() { return getItemStateUseCase; }
+}
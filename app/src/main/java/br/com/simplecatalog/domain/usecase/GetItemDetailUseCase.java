@@ -0,0 +1,27 @@
+package br.com.simplecatalog.domain.usecase;
+
+import br.com.simplecatalog.domain.model.ItemDetail;
+import br.com.simplecatalog.repository.ItemDetailRepository;
+
+/* UseCase "abrir o detalhe de um item".
+* - execute(id): busca o detalhe completo (cache ou API), chamado em background
+* - prefetch(id): antecipa a busca quando o usuário encosta na linha,
+*   para a tela de detalhe abrir sem esperar a rede
+* */
+
+public class GetItemDetailUseCase {
+
+    private final ItemDetailRepository repository;
+
+    public GetItemDetailUseCase(ItemDetailRepository repository) {
+        this.repository = repository;
+    }
+
+    public ItemDetail execute(long id) {
+        return repository.getItemDetail(id);
+    }
+
+    public void prefetch(long id) {
+        repository.prefetch(id);
+    }
+}
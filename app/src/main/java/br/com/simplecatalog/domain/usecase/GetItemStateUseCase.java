@@ -0,0 +1,36 @@
+package br.com.simplecatalog.domain.usecase;
+
+import java.util.Map;
+
+import br.com.simplecatalog.domain.model.ItemState;
+import br.com.simplecatalog.repository.ItemStateRepository;
+
+/* UseCase "o que o usuário fez com os itens" (favorito, quantidade, nota).
+* - execute(id) / getAll(): leitura, chamar em background (a primeira lê o banco)
+* - addListener/removeListener: para a tela saber quando o servidor confirmou ou corrigiu um estado
+* */
+
+public class GetItemStateUseCase {
+
+    private final ItemStateRepository repository;
+
+    public GetItemStateUseCase(ItemStateRepository repository) {
+        this.repository = repository;
+    }
+
+    public ItemState execute(long itemId) {
+        return repository.getState(itemId);
+    }
+
+    public Map<Long, ItemState> getAll() {
+        return repository.getStates();
+    }
+
+    public void addListener(ItemStateRepository.Listener listener) {
+        repository.addListener(listener);
+    }
+
+    public void removeListener(ItemStateRepository.Listener listener) {
+        repository.removeListener(listener);
+    }
+}
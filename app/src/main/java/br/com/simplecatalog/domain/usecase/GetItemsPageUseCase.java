@@ -0,0 +1,36 @@
+package br.com.simplecatalog.domain.usecase;
+
+import java.util.List;
+
+import br.com.simplecatalog.domain.CancellationToken;
+import br.com.simplecatalog.domain.model.Item;
+import br.com.simplecatalog.repository.ItemRepository;
+
+/* UseCase de paginação: "carregar a próxima página de itens".
+* Usado pelo ViewModel para carregar a lista aos poucos (e pré-carregar
+* as páginas seguintes conforme a rolagem), em vez do catálogo inteiro de uma vez.
+* */
+
+public class GetItemsPageUseCase {
+
+    private final ItemRepository repository;
+
+    public GetItemsPageUseCase(ItemRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * @param afterId id do último item já carregado (0 para a primeira página)
+     * @param limit   quantidade máxima de itens na página
+     */
+    public List<Item> execute(long afterId, int limit) {
+        return repository.getItemsPage(afterId, limit);
+    }
+
+    /**
+     * Versão cancelável: o ViewModel cancela cargas e prefetches abandonados.
+     */
+    public List<Item> execute(long afterId, int limit, CancellationToken token) {
+        return repository.getItemsPage(afterId, limit, token);
+    }
+}
@@ -2,6 +2,7 @@ package br.com.simplecatalog.domain.usecase;
 
 import java.util.List;
 
+import br.com.simplecatalog.domain.CancellationToken;
 import br.com.simplecatalog.domain.model.Item;
 import br.com.simplecatalog.repository.ItemRepository;
 
@@ -27,6 +28,11 @@ public class GetItemsUseCase {
     public List<Item> execute() {
         return repository.getItems();
     }
+
+    // Versão cancelável (ex: o ViewModel cancela quando a tela é destruída)
+    public List<Item> execute(CancellationToken token) {
+        return repository.getItems(token);
+    }
     /* execute() é a operação do UseCase.
     * Aqui está simples, mas depois pode crescer:
     * validações
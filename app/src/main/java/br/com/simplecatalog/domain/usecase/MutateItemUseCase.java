@@ -0,0 +1,28 @@
+package br.com.simplecatalog.domain.usecase;
+
+import br.com.simplecatalog.domain.model.ItemMutation;
+import br.com.simplecatalog.domain.model.ItemState;
+import br.com.simplecatalog.repository.ItemStateRepository;
+
+/* UseCase "editar um item" (favoritar, mudar quantidade, escrever nota).
+* - execute(mutation): devolve o novo estado na hora (pode chamar na UI thread);
+*   gravar e enviar ao servidor fica com o Repository, em background e em lote
+* - flush(): envia já o que estiver pendente (ex: tela indo para background)
+* */
+
+public class MutateItemUseCase {
+
+    private final ItemStateRepository repository;
+
+    public MutateItemUseCase(ItemStateRepository repository) {
+        this.repository = repository;
+    }
+
+    public ItemState execute(ItemMutation mutation) {
+        return repository.mutate(mutation);
+    }
+
+    public void flush() {
+        repository.flush();
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.simplecatalog.domain.usecase;
+
+import java.util.List;
+
+import br.com.simplecatalog.domain.model.Catalog;
+import br.com.simplecatalog.repository.CatalogRepository;
+
+/* UseCase "trocar de catálogo".
+* - getCatalogs(): lista para a UI montar o seletor
+* - execute(id): devolve os UseCases da lista ligados ao catálogo escolhido
+*   (o CatalogRepository mantém os catálogos recentes quentes, então trocar de volta é imediato)
+* - release(useCases): quem chamou execute() avisa que não usa mais aqueles UseCases
+*   (até lá o catálogo não é fechado, mesmo se esfriar)
+* */
+
+public class SelectCatalogUseCase {
+
+    private final CatalogRepository repository;
+
+    public SelectCatalogUseCase(CatalogRepository repository) {
+        this.repository = repository;
+    }
+
+    public List<Catalog> getCatalogs() {
+        return repository.getCatalogs();
+    }
+
+    public CatalogUseCases execute(String catalogId) {
+        repository.retain(catalogId);
+        return new CatalogUseCases(
+                catalogId,
+                new GetItemsPageUseCase(repository.itemRepository(catalogId)),
+                new GetItemDetailUseCase(repository.itemDetailRepository(catalogId)),
+                new GetItemStateUseCase(repository.itemStateRepository(catalogId))
+        );
+    }
+
+    public void release(CatalogUseCases useCases) {
+        repository.release(useCases.getCatalogId());
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.simplecatalog.perf;
+
+/**
+ * Contadores de eventos do pipeline de dados ({@link PerfTracer#count}).
+ */
+public enum Counter {
+    CACHE_HIT,          // leitura atendida pelo Room sem ir à rede
+    CACHE_MISS,         // cache vazio: precisou sincronizar
+    ROWS_WRITTEN,       // linhas gravadas/removidas na tabela items
+    ROWS_READ,          // linhas lidas da tabela items
+    DETAIL_HOT_HIT,     // detalhe servido do hot set (itens mais acessados, fixos em memória)
+    DETAIL_MEMORY_HIT,  // detalhe servido da memória
+    DETAIL_DISK_HIT,    // detalhe servido da tabela item_details
+    DETAIL_NETWORK,     // detalhe buscado na API
+    DETAIL_DISK_REJECTED, // detalhe não gravado em disco: menos popular que o que sairia
+    PREFETCH_REQUESTED, // páginas pré-carregadas pelo ItemsViewModel
+    PREFETCH_CANCELLED, // prefetch cancelado por não ser mais necessário
+    ROW_PREINFLATED,    // ViewHolder criado com view inflada antes, fora do caminho crítico
+    ROW_INFLATED_SYNC   // ViewHolder que precisou inflar na hora (durante scroll/layout)
+}
@@ -0,0 +1,69 @@
+package br.com.simplecatalog.perf;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latência lock-free com buckets em potências de 2 (microssegundos).
+ *
+ * Bucket i guarda amostras em [2^(i-1), 2^i) µs (bucket 0 = 0 µs). O último (i = 24) acumula
+ * tudo a partir de 2^23 µs (~8,4 s) e o percentil que cai nele é reportado como 2^24 - 1 µs
+ * (~16,8 s), qualquer que seja o valor real (para o pior caso exato, {@link #getMaxMicros()}).
+ * Gravar uma amostra não aloca nada (só operações atômicas em arrays pré-alocados).
+ */
+public final class LatencyHistogram {
+
+    static final int BUCKETS = 25;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+
+        long max;
+        do {
+            max = maxMicros.get();
+        } while (micros > max && !maxMicros.compareAndSet(max, micros));
+    }
+
+    public long getCount() { return count.get(); }
+    public long getTotalMicros() { return totalMicros.get(); }
+    public long getMaxMicros() { return maxMicros.get(); }
+
+    /**
+     * Percentil aproximado (limite superior do bucket), em microssegundos.
+     */
+    public long percentileMicros(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return i == 0 ? 0 : (1L << i) - 1;
+            }
+        }
+        return maxMicros.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.simplecatalog.perf;
+
+import android.os.Trace;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Instrumentação de performance do pipeline de dados (rede → parse → map → Room → UI).
+ *
+ * Uso:
+ *   long token = PerfTracer.begin(Stage.QUERY);
+ *   try { ... } finally { PerfTracer.end(Stage.QUERY, token); }
+ *
+ *   PerfTracer.count(Counter.ROWS_WRITTEN, entities.size());
+ *
+ * - Cada etapa vira uma seção no systrace/Perfetto e uma amostra no histograma da etapa
+ * - Sem alocação por chamada: histogramas e contadores são arrays atômicos pré-alocados
+ * - Desligado (padrão), begin/end/count custam uma leitura de volatile e um return
+ * - {@link #dump(Writer)} / {@link #dumpToFile(File)} exportam um resumo em texto
+ */
+public final class PerfTracer {
+    private PerfTracer() {} // impede instanciação
+
+    private static volatile boolean enabled;
+
+    private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[Stage.values().length];
+    private static final AtomicLongArray COUNTERS = new AtomicLongArray(Counter.values().length);
+
+    static {
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new LatencyHistogram();
+        }
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Abre a medição de uma etapa. Retorna um token (0 se desligado) a ser passado para {@link #end}.
+     * begin/end devem acontecer na mesma thread (exigência das seções do systrace).
+     */
+    public static long begin(Stage stage) {
+        if (!enabled) {
+            return 0L;
+        }
+        Trace.beginSection(stage.traceName);
+        return System.nanoTime();
+    }
+
+    public static void end(Stage stage, long token) {
+        if (token == 0L) {
+            return;
+        }
+        Trace.endSection();
+        HISTOGRAMS[stage.ordinal()].record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - token));
+    }
+
+    public static void count(Counter counter, long delta) {
+        if (!enabled) {
+            return;
+        }
+        COUNTERS.addAndGet(counter.ordinal(), delta);
+    }
+
+    public static LatencyHistogram histogram(Stage stage) {
+        return HISTOGRAMS[stage.ordinal()];
+    }
+
+    public static long counter(Counter counter) {
+        return COUNTERS.get(counter.ordinal());
+    }
+
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+        for (int i = 0; i < COUNTERS.length(); i++) {
+            COUNTERS.set(i, 0);
+        }
+    }
+
+    /**
+     * Escreve um resumo legível: latência por etapa (n, média, p50, p95, máx) e contadores.
+     */
+    public static void dump(Writer out) throws IOException {
+        out.write("== Latência por etapa (µs) ==\n");
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram h = histogram(stage);
+            long n = h.getCount();
+            out.write(String.format(Locale.US,
+                    "%-8s n=%-6d avg=%-8d p50=%-8d p95=%-8d max=%d%n",
+                    stage.name(),
+                    n,
+                    n == 0 ? 0 : h.getTotalMicros() / n,
+                    h.percentileMicros(0.50),
+                    h.percentileMicros(0.95),
+                    h.getMaxMicros()));
+        }
+        out.write("== Contadores ==\n");
+        for (Counter counter : Counter.values()) {
+            out.write(counter.name() + "=" + counter(counter) + "\n");
+        }
+    }
+
+    /**
+     * Exporta o resumo para um arquivo local (ex: filesDir/perf-dump.txt).
+     * Fazer fora da UI thread.
+     */
+    public static void dumpToFile(File file) throws IOException {
+        try (Writer out = new FileWriter(file, false)) {
+            dump(out);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.simplecatalog.perf;
+
+/**
+ * Etapas do pipeline de dados medidas pelo {@link PerfTracer}.
+ */
+public enum Stage {
+    FETCH("catalog:fetch"),     // chamada HTTP completa (inclui o parse)
+    PARSE("catalog:parse"),     // conversão JSON → DTO (Gson)
+    MAP("catalog:map"),         // conversões do ItemMapper
+    PERSIST("catalog:persist"), // escrita no Room (transação de sync)
+    QUERY("catalog:query"),     // leitura no Room
+    BIND("catalog:bind"),       // onBindViewHolder do ItemsAdapter
+    INFLATE("catalog:inflate"); // inflate síncrono de linha no onCreateViewHolder (sem view pré-inflada)
+
+    // Nome da seção no systrace/Perfetto (constante: não aloca ao abrir a seção)
+    final String traceName;
+
+    Stage(String traceName) {
+        this.traceName = traceName;
+    }
+}
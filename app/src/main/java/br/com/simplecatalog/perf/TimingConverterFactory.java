@@ -0,0 +1,48 @@
+package br.com.simplecatalog.perf;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Converter.Factory do Retrofit que mede o parse (etapa PARSE) do conversor real (Gson).
+ * Só decora o conversor de resposta; o de requisição é repassado sem mudança.
+ */
+public final class TimingConverterFactory extends Converter.Factory {
+
+    private final Converter.Factory delegate;
+
+    public TimingConverterFactory(Converter.Factory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+                                                            Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        Converter<ResponseBody, ?> converter = delegate.responseBodyConverter(type, annotations, retrofit);
+        if (converter == null) {
+            return null;
+        }
+        return body -> {
+            long token = PerfTracer.begin(Stage.PARSE);
+            try {
+                return converter.convert(body);
+            } finally {
+                PerfTracer.end(Stage.PARSE, token);
+            }
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type,
+                                                          Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations,
+                                                          Retrofit retrofit) {
+        return delegate.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+}
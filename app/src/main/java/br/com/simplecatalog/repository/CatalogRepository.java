@@ -0,0 +1,49 @@
+package br.com.simplecatalog.repository;
+
+import java.util.List;
+
+import br.com.simplecatalog.domain.model.Catalog;
+
+/**
+ * Contrato de acesso aos catálogos configurados no app.
+ *
+ * - Cada catálogo tem seus próprios repositórios (API, banco e caches isolados)
+ * - A implementação decide quais catálogos ficam "quentes" em memória e quando liberar
+ *   memória/disco dos outros; o domínio só pede o repositório do catálogo desejado
+ * - Quem guarda os repositórios de um catálogo (uma tela, tarefas em background) marca o uso
+ *   com {@link #retain}/{@link #release}: catálogo em uso pode esfriar, mas não é fechado
+ */
+public interface CatalogRepository {
+
+    /**
+     * Catálogos disponíveis, na ordem de exibição. O primeiro é o padrão.
+     */
+    List<Catalog> getCatalogs();
+
+    /**
+     * Repositório de itens do catálogo (abre/aquece o catálogo se preciso).
+     */
+    ItemRepository itemRepository(String catalogId);
+
+    /**
+     * Repositório de detalhe do catálogo (abre/aquece o catálogo se preciso).
+     */
+    ItemDetailRepository itemDetailRepository(String catalogId);
+
+    /**
+     * Repositório das edições do usuário no catálogo (abre/aquece o catálogo se preciso).
+     */
+    ItemStateRepository itemStateRepository(String catalogId);
+
+    /**
+     * Marca o catálogo como em uso (abre/aquece se preciso).
+     * Cada retain() precisa de um release() quando os repositórios não forem mais usados.
+     */
+    void retain(String catalogId);
+
+    /**
+     * Fim de um uso marcado por retain(). O último release de um catálogo que já esfriou
+     * é o que libera o banco e os caches dele.
+     */
+    void release(String catalogId);
+}
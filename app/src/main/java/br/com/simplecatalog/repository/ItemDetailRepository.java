@@ -0,0 +1,24 @@
+package br.com.simplecatalog.repository;
+
+import br.com.simplecatalog.domain.model.ItemDetail;
+
+/**
+ * Contrato do repositório de detalhe dos itens.
+ *
+ * A lista (ItemRepository) traz só o preview; o corpo completo é buscado item a item,
+ * sob demanda, e guardado num cache próprio e limitado.
+ */
+public interface ItemDetailRepository {
+
+    /**
+     * Retorna o detalhe completo do item (memória → disco → API).
+     * Sem rede e sem cache, devolve o preview da lista; null se o item não existir.
+     */
+    ItemDetail getItemDetail(long id);
+
+    /**
+     * Dispara a busca do detalhe em background (ex: dedo encostou na linha),
+     * para a tela de detalhe abrir com o dado já em cache.
+     */
+    void prefetch(long id);
+}
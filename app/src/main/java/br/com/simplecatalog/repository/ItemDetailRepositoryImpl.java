@@ -0,0 +1,403 @@
+package br.com.simplecatalog.repository;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.simplecatalog.data.local.dao.ItemDao;
+import br.com.simplecatalog.data.local.dao.ItemDetailDao;
+import br.com.simplecatalog.data.local.entity.ItemDetailEntity;
+import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.dto.ItemDto;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.domain.model.ItemDetail;
+import br.com.simplecatalog.perf.Counter;
+import br.com.simplecatalog.perf.PerfTracer;
+import br.com.simplecatalog.perf.Stage;
+import br.com.simplecatalog.repository.cache.FrequencySketch;
+import br.com.simplecatalog.repository.cache.LruMap;
+import retrofit2.Response;
+
+/**
+ * Implementação do ItemDetailRepository com cache em camadas (tiers).
+ *
+ * Ordem de leitura:
+ * 1) Hot set (memória, fixo): os {@code hotEntries} detalhes mais acessados; não sai por LRU,
+ *    só quando outro item passa a ser aberto com mais frequência
+ * 2) Memória (LruMap, abertos recentemente)
+ * 3) Warm (disco, tabela item_details): só o corpo, com access_count, limitado a
+ *    {@code diskBudgetBytes}; passando do limite, saem os menos acessados. O uso do disco
+ *    (bytes e linhas) fica num total em memória atualizado a cada gravação/remoção: gravar
+ *    um detalhe não soma a tabela de novo
+ * 4) Cold (API, GET posts/{id} pelo ResilientCallExecutor): o que saiu do disco
+ *    é buscado de novo sob demanda
+ *
+ * Frequência de acesso (TinyLFU):
+ * - Cada abertura conta num FrequencySketch (memória fixa, independe do tamanho do catálogo)
+ * - Com o hot set ou o disco cheios, o candidato só entra se for mais frequente que a vítima:
+ *   um item aberto uma vez não expulsa um item popular
+ * - O sketch envelhece (contadores pela metade) e o access_count do disco acompanha
+ * - Prefetch não conta como acesso (o toque na lista + abertura contariam em dobro)
+ *
+ * Buscas simultâneas do mesmo id (prefetch no toque + abertura da tela) são unificadas:
+ * só uma vai à rede e as outras esperam o mesmo resultado.
+ *
+ * Invalidação: registrado como ItemRepository.Listener. Quando uma sincronização muda itens,
+ * o ItemRepositoryImpl já apagou o detalhe do disco; aqui saem o hot set e a memória.
+ * Cargas que começaram antes da invalidação não gravam o resultado em cache
+ * (contador {@code invalidations}), senão o corpo antigo voltaria logo depois.
+ */
+public class ItemDetailRepositoryImpl implements ItemDetailRepository, ItemRepository.Listener {
+
+    private static final String TAG = "ItemDetailRepository";
+
+    // Máximo de linhas removidas por passo ao liberar espaço no disco
+    private static final int TRIM_BATCH = 32;
+
+    private final ApiService apiService;
+    private final ResilientCallExecutor callExecutor;
+    private final ItemDao itemDao;
+    private final ItemDetailDao detailDao;
+    private final ItemMapper mapper;
+    private final Executor prefetchExecutor;
+    private final int hotEntries;
+    private final long diskBudgetBytes;
+
+    // Popularidade de cada id (decide entrada no hot set e no disco)
+    private final FrequencySketch sketch;
+
+    // Nível 1: hot set fixo (leitura sem lock; trocas protegidas por hotLock)
+    private final ConcurrentHashMap<Long, ItemDetail> hotSet = new ConcurrentHashMap<>();
+    private final Object hotLock = new Object();
+
+    // Nível 2: detalhes recentes em memória
+    private final LruMap<Long, ItemDetail> memoryCache;
+
+    // Incrementado a cada invalidação: cargas iniciadas antes dela não entram nos caches
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Uso do tier em disco, mantido em memória (protegido por diskLock). diskBytes < 0 = desconhecido:
+    // relido do banco (uma soma de body_bytes) na próxima gravação; acontece no startup e depois
+    // de cada sync, que apaga linhas por fora deste repositório
+    private final Object diskLock = new Object();
+    private long diskBytes = -1;
+    private int diskRows;
+
+    // Buscas em andamento por id (single-flight)
+    private final ConcurrentHashMap<Long, FutureTask<ItemDetail>> inFlight = new ConcurrentHashMap<>();
+
+    public ItemDetailRepositoryImpl(ApiService apiService,
+                                    ResilientCallExecutor callExecutor,
+                                    ItemDao itemDao,
+                                    ItemDetailDao detailDao,
+                                    ItemMapper mapper,
+                                    Executor prefetchExecutor,
+                                    int hotEntries,
+                                    int maxMemoryEntries,
+                                    long diskBudgetBytes) {
+        this.apiService = apiService;
+        this.callExecutor = callExecutor;
+        this.itemDao = itemDao;
+        this.detailDao = detailDao;
+        this.mapper = mapper;
+        this.prefetchExecutor = prefetchExecutor;
+        this.hotEntries = hotEntries;
+        this.diskBudgetBytes = diskBudgetBytes;
+        this.memoryCache = new LruMap<>(maxMemoryEntries);
+        // acompanha bem mais ids do que cabem na memória: a vítima também precisa ter histórico
+        this.sketch = new FrequencySketch(8 * (hotEntries + maxMemoryEntries));
+    }
+
+    @Override
+    public ItemDetail getItemDetail(long id) {
+        long seen = invalidations.get();
+        if (sketch.increment(id)) {
+            prefetchExecutor.execute(detailDao::ageAccessCounts); // disco envelhece junto com o sketch
+        }
+
+        ItemDetail hot = hotSet.get(id);
+        if (hot != null) {
+            PerfTracer.count(Counter.DETAIL_HOT_HIT, 1);
+            return hot;
+        }
+
+        ItemDetail detail = memoryCache.get(id);
+        if (detail != null) {
+            PerfTracer.count(Counter.DETAIL_MEMORY_HIT, 1);
+        } else {
+            detail = loadShared(id);
+        }
+        // preview de fallback (sem rede) não fica em cache, então também não entra no hot set
+        if (detail != null && memoryCache.get(id) == detail) {
+            maybePromote(detail, seen);
+        }
+        return detail;
+    }
+
+    @Override
+    public void prefetch(long id) {
+        if (hotSet.containsKey(id) || memoryCache.get(id) != null || inFlight.containsKey(id)) {
+            return;
+        }
+        // aquece o cache sem contar acesso; é só otimização: uma falha aqui não pode escapar
+        // para a thread compartilhada (exceção não tratada numa thread derruba o app)
+        prefetchExecutor.execute(() -> {
+            try {
+                loadShared(id);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Prefetch do detalhe " + id + " falhou", e);
+            }
+        });
+    }
+
+    /**
+     * Carrega o hot set a partir do disco (mais acessados primeiro) e devolve a
+     * popularidade salva ao sketch. Chamado em background quando o catálogo abre:
+     * os itens populares abrem sem I/O desde a primeira vez.
+     */
+    public void warmUp() {
+        if (hotEntries == 0) {
+            return;
+        }
+        long seen = invalidations.get();
+        List<ItemDetailEntity> popular = detailDao.getMostAccessed(hotEntries);
+        for (ItemDetailEntity stored : popular) {
+            long id = stored.getId();
+            for (int i = 0, n = Math.min(stored.getAccessCount(), FrequencySketch.MAX_FREQUENCY); i < n; i++) {
+                sketch.increment(id);
+            }
+            ItemEntity item = itemDao.getById(id);
+            ItemDetail detail = mapper.toDetail(id, item != null ? item.getTitle() : null, stored.getBody());
+            synchronized (hotLock) {
+                if (invalidations.get() != seen) {
+                    return; // uma sync mudou itens no meio da leitura: o que foi lido pode estar velho
+                }
+                if (hotSet.size() < hotEntries) {
+                    hotSet.putIfAbsent(id, detail);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sync mudou (ou apagou) esses itens: o detalhe deles sai do hot set e da memória.
+     * A popularidade no sketch continua valendo (o item é o mesmo, só o conteúdo mudou).
+     */
+    @Override
+    public void onItemsChanged(List<Long> itemIds) {
+        invalidations.incrementAndGet();
+        forgetDiskUsage(); // o sync apagou as linhas desses itens
+        synchronized (hotLock) {
+            for (Long id : itemIds) {
+                hotSet.remove(id);
+            }
+        }
+        for (Long id : itemIds) {
+            memoryCache.remove(id);
+        }
+    }
+
+    // Snapshot completo: nenhum detalhe em memória é confiável
+    @Override
+    public void onAllItemsChanged() {
+        invalidations.incrementAndGet();
+        forgetDiskUsage();
+        synchronized (hotLock) {
+            hotSet.clear();
+        }
+        memoryCache.evictAll();
+    }
+
+    // Single-flight: uma busca por id, as chamadas simultâneas esperam o mesmo resultado
+    private ItemDetail loadShared(long id) {
+        FutureTask<ItemDetail> task = new FutureTask<>(() -> load(id));
+        FutureTask<ItemDetail> existing = inFlight.putIfAbsent(id, task);
+        if (existing == null) {
+            try {
+                task.run();
+            } finally {
+                inFlight.remove(id, task);
+            }
+            existing = task;
+        }
+
+        try {
+            return existing.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao carregar detalhe " + id, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // Disco → API → preview da lista
+    private ItemDetail load(long id) {
+        long seen = invalidations.get();
+        ItemEntity item = itemDao.getById(id);
+        String title = item != null ? item.getTitle() : null;
+        long now = System.currentTimeMillis();
+
+        // 3) DISCO (warm)
+        long queryToken = PerfTracer.begin(Stage.QUERY);
+        ItemDetailEntity stored;
+        try {
+            stored = detailDao.getById(id);
+        } finally {
+            PerfTracer.end(Stage.QUERY, queryToken);
+        }
+        if (stored != null) {
+            PerfTracer.count(Counter.DETAIL_DISK_HIT, 1);
+            detailDao.recordAccess(id, now);
+            return remember(mapper.toDetail(id, title, stored.getBody()), seen);
+        }
+
+        // 4) API (cold)
+        PerfTracer.count(Counter.DETAIL_NETWORK, 1);
+        Response<ItemDto> response = null;
+        try {
+            response = fetch(id);
+        } catch (IOException e) {
+            // sem rede: segue para o preview
+        } catch (RuntimeException e) {
+            // resposta que não dá para converter (ex.: JSON malformado): também segue para o preview
+            Log.w(TAG, "Detalhe " + id + " com resposta inválida", e);
+        }
+        if (response != null && response.isSuccessful() && response.body() != null) {
+            ItemDto dto = response.body();
+            storeWarm(dto, now);
+            return remember(mapper.toDetail(id, title != null ? title : dto.getTitle(), dto.getSubtitle()), seen);
+        }
+
+        // fallback: o que a lista já tem (preview), sem guardar em cache
+        return item != null ? mapper.toDetail(id, item.getTitle(), item.getSubtitle()) : null;
+    }
+
+    /**
+     * Grava o detalhe no disco respeitando o orçamento em bytes.
+     * Admissão (TinyLFU): com o disco cheio, só entra se for mais frequente que a próxima vítima;
+     * senão fica só na memória e, se voltar a ser aberto, ganha frequência e entra depois.
+     *
+     * Tudo sob diskLock: o total em memória acompanha exatamente o insert e as remoções.
+     */
+    private void storeWarm(ItemDto dto, long now) {
+        int frequency = sketch.frequency(dto.getId());
+        synchronized (diskLock) {
+            if (diskBytes < 0) {
+                diskBytes = detailDao.totalBodyBytes();
+                diskRows = detailDao.count();
+            }
+            if (diskBytes >= diskBudgetBytes) {
+                Long victim = detailDao.getColdestId();
+                if (victim != null && sketch.frequency(victim) > frequency) {
+                    PerfTracer.count(Counter.DETAIL_DISK_REJECTED, 1);
+                    return;
+                }
+            }
+            ItemDetailEntity entity = mapper.dtoToDetailEntity(dto, now, frequency);
+            Long replaced = detailDao.getBodyBytes(entity.getId()); // REPLACE: desconta a versão antiga
+            detailDao.insert(entity);
+            diskBytes += entity.getBodyBytes() - (replaced != null ? replaced : 0);
+            if (replaced == null) {
+                diskRows++;
+            }
+            trimDisk();
+        }
+    }
+
+    /**
+     * Remove os menos acessados até o tier em disco caber no orçamento (chamado com diskLock).
+     * Cada passo apaga só o excesso estimado pelo tamanho médio do corpo (no mínimo 1,
+     * no máximo TRIM_BATCH): no caso comum (um detalhe novo passou do limite) sai uma
+     * vítima só, e não um lote de 32 que levaria junto o item que acabou de ser admitido.
+     */
+    private void trimDisk() {
+        while (diskBytes > diskBudgetBytes && diskRows > 0) {
+            long excessRows = (diskBytes - diskBudgetBytes) * diskRows / diskBytes;
+            int batch = (int) Math.max(1, Math.min(TRIM_BATCH, excessRows));
+            List<ItemDetailDao.StoredSize> coldest = detailDao.getColdest(batch);
+            if (coldest.isEmpty()) {
+                diskBytes = 0; // o total estava acima do real (linhas apagadas por fora)
+                diskRows = 0;
+                return;
+            }
+            List<Long> ids = new ArrayList<>(coldest.size());
+            for (ItemDetailDao.StoredSize stored : coldest) {
+                ids.add(stored.id);
+                diskBytes -= stored.bodyBytes;
+            }
+            detailDao.deleteByIds(ids);
+            diskRows -= ids.size();
+        }
+    }
+
+    private void forgetDiskUsage() {
+        synchronized (diskLock) {
+            diskBytes = -1;
+        }
+    }
+
+    /**
+     * Hot set: entra direto enquanto houver vaga; cheio, troca com o membro menos
+     * frequente só se o candidato for mais frequente que ele.
+     */
+    private void maybePromote(ItemDetail detail, long seen) {
+        long id = detail.getId();
+        int frequency = sketch.frequency(id);
+        ItemDetail displaced = null;
+        synchronized (hotLock) {
+            if (hotEntries == 0 || hotSet.containsKey(id) || invalidations.get() != seen) {
+                return;
+            }
+            if (hotSet.size() >= hotEntries) {
+                long victim = -1;
+                int victimFrequency = Integer.MAX_VALUE;
+                for (Map.Entry<Long, ItemDetail> entry : hotSet.entrySet()) { // poucos itens: varredura simples
+                    int candidate = sketch.frequency(entry.getKey());
+                    if (candidate < victimFrequency) {
+                        victimFrequency = candidate;
+                        victim = entry.getKey();
+                    }
+                }
+                if (victimFrequency >= frequency) {
+                    return;
+                }
+                displaced = hotSet.remove(victim);
+            }
+            hotSet.put(id, detail);
+        }
+        memoryCache.remove(id); // já está no hot set
+        if (displaced != null) {
+            memoryCache.put(displaced.getId(), displaced); // volta a competir no LRU
+        }
+        // lido só da memória daqui em diante: grava a popularidade para sobreviver ao restart
+        prefetchExecutor.execute(() -> detailDao.raiseAccessCount(id, frequency));
+    }
+
+    private Response<ItemDto> fetch(long id) throws IOException {
+        long token = PerfTracer.begin(Stage.FETCH);
+        try {
+            return callExecutor.execute(apiService.getItem(id));
+        } finally {
+            PerfTracer.end(Stage.FETCH, token);
+        }
+    }
+
+    private ItemDetail remember(ItemDetail detail, long seen) {
+        memoryCache.put(detail.getId(), detail);
+        if (invalidations.get() != seen) {
+            memoryCache.remove(detail.getId(), detail); // invalidado durante a carga: devolve, mas não guarda
+        }
+        return detail;
+    }
+}
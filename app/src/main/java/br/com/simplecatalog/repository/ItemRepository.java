@@ -1,6 +1,7 @@
 package br.com.simplecatalog.repository;
 
 import java.util.List;
+import br.com.simplecatalog.domain.CancellationToken;
 import br.com.simplecatalog.domain.model.Item;
 
 /**
@@ -18,10 +19,49 @@ import br.com.simplecatalog.domain.model.Item;
  */
 
 public interface ItemRepository {
+
+    /**
+     * Aviso de itens alterados por um sync, depois do commit (para caches em memória de
+     * dados derivados dos itens, como o detalhe). Pode ser chamado em qualquer thread.
+     */
+    interface Listener {
+        // Delta: itens atualizados ou apagados
+        void onItemsChanged(List<Long> itemIds);
+
+        // Sync completo: qualquer item pode ter mudado
+        void onAllItemsChanged();
+    }
+
     /**
      * Retorna todos os itens no formato do domínio.
      * A origem dos dados (API remota ou cache local) é decidida pela implementação, não pelo domínio.
      */
-    List<Item> getItems();
+    default List<Item> getItems() {
+        return getItems(CancellationToken.NONE);
+    }
+
+    /**
+     * Igual a {@link #getItems()}, cancelável: cancelar interrompe a rede na hora e
+     * desfaz escritas ainda não confirmadas (lança java.util.concurrent.CancellationException).
+     */
+    List<Item> getItems(CancellationToken token);
+
+    /**
+     * Retorna a próxima página de itens (ordenados por id) depois do item {@code afterId}.
+     * Para a primeira página use {@code afterId = 0}; se o cache estiver vazio,
+     * a implementação sincroniza com a API antes de ler.
+     */
+    default List<Item> getItemsPage(long afterId, int limit) {
+        return getItemsPage(afterId, limit, CancellationToken.NONE);
+    }
+
+    /**
+     * Igual a {@link #getItemsPage(long, int)}, cancelável pelo token.
+     */
+    List<Item> getItemsPage(long afterId, int limit, CancellationToken token);
+
+    void addListener(Listener listener);
+
+    void removeListener(Listener listener);
 }
 
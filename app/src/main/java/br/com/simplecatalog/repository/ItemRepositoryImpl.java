@@ -1,15 +1,35 @@
 package br.com.simplecatalog.repository;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
+import br.com.simplecatalog.data.local.TransactionRunner;
 import br.com.simplecatalog.data.local.dao.ItemDao;
+import br.com.simplecatalog.data.local.dao.ItemDetailDao;
+import br.com.simplecatalog.data.local.dao.SyncStateDao;
 import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.data.local.entity.SyncStateEntity;
 import br.com.simplecatalog.data.mapper.ItemMapper;
 import br.com.simplecatalog.data.remote.ApiService;
 import br.com.simplecatalog.data.remote.dto.ItemDto;
+import br.com.simplecatalog.data.remote.dto.ItemsDeltaDto;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.domain.CancellationToken;
 import br.com.simplecatalog.domain.model.Item;
+import br.com.simplecatalog.perf.Counter;
+import br.com.simplecatalog.perf.PerfTracer;
+import br.com.simplecatalog.perf.Stage;
 import retrofit2.Call;
 import retrofit2.Response;
 
@@ -27,84 +47,437 @@ import retrofit2.Response;
  * - Persistir cache local de forma eficiente, evitando duplicações
  * - Converter DTOs e Entities para o modelo de domínio através do Mapper
  * - Proteger a UI e o domínio contra falhas de rede ou indisponibilidade da API
+ *
+ * Delta sync:
+ * - O cursor do último sync fica na tabela sync_state
+ * - Com cursor, a API devolve só o que mudou (upserts + tombstones)
+ * - Delta e novo cursor são aplicados numa única transação
+ * - Se o servidor não suporta delta (404/501), cai para o GET completo
+ * - O detalhe em cache (item_details) dos itens alterados/apagados sai na mesma transação
+ *   (sync completo: todos); depois do commit os {@link Listener}s limpam caches em memória
+ *
+ * Resiliência:
+ * - Toda chamada HTTP passa pelo ResilientCallExecutor (retry com jitter, hedge, circuit breaker)
+ * - Circuito aberto chega aqui como IOException e o fluxo cai direto para o cache
+ *
+ * Concorrência (várias telas/threads chamando ao mesmo tempo):
+ * - Escritas do sync (clear + insert + cursor) rodam numa transação: leitores do Room
+ *   veem o cache antigo ou o novo, nunca a tabela vazia no meio da troca
+ * - getItems() devolve um snapshot imutável publicado via AtomicReference (leitura sem lock)
+ * - Cada sync gravado invalida o snapshot; um leitor que leu antes da troca não consegue
+ *   republicar dados velhos (compareAndSet contra a versão que ele viu)
+ * - Syncs simultâneos viram um só (single-flight): os demais esperam o mesmo resultado
+ *
+ * Cancelamento (CancellationToken):
+ * - Cancelar corta a chamada HTTP na hora (Call.cancel()) e não faz novas tentativas
+ * - As escritas do sync checam o token entre lotes dentro da transação: cancelar no meio
+ *   desfaz tudo (rollback), e cache + cursor continuam os do sync anterior
+ * - Se quem iniciou um sync compartilhado cancela, os outros que esperavam refazem o sync
+ *
+ * Instrumentação (PerfTracer): FETCH nas chamadas HTTP, QUERY nas leituras do Room,
+ * PERSIST nas transações de sync (com MAP dentro, na conversão DTO → Entity) e contadores
+ * de cache hit/miss e linhas gravadas.
  */
 public class ItemRepositoryImpl implements ItemRepository {
 
-    private final ApiService apiService; // serviço HTTP (fonte remota)
-    private final ItemDao itemDao;       // acesso ao banco local (cache)
-    private final ItemMapper mapper;     // conversões entre camadas
+    // Chave do recurso na tabela sync_state
+    static final String SYNC_RESOURCE_ITEMS = "items";
+
+    // Limite de parâmetros por "DELETE ... IN (...)" (SQLite aceita 999 por padrão)
+    private static final int MAX_DELETE_BATCH = 500;
+
+    // Intervalo em que quem espera um sync compartilhado confere o próprio token
+    private static final long AWAIT_POLL_MILLIS = 50;
+
+    // Linhas por insert no caminho em lote (as mesmas Entities são reaproveitadas entre lotes)
+    static final int INSERT_CHUNK = 256;
+
+    private final ApiService apiService;              // serviço HTTP (fonte remota)
+    private final ResilientCallExecutor callExecutor; // retry/hedge/circuit breaker das chamadas
+    private final ItemDao itemDao;                    // acesso ao banco local (cache)
+    private final ItemDetailDao itemDetailDao;        // detalhe em cache: invalidado pelo sync
+    private final SyncStateDao syncStateDao;          // cursor do delta sync
+    private final TransactionRunner transactionRunner; // escrita atômica (delta + cursor)
+    private final ItemMapper mapper;                  // conversões entre camadas
+
+    // Vira false quando o servidor responde que não tem o endpoint de delta (vale pela sessão)
+    private volatile boolean deltaSupported = true;
+
+    // Lista completa já convertida; items == null quando precisa ser relida do banco
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, null));
+
+    // Sync em andamento (single-flight)
+    private final AtomicReference<FutureTask<Boolean>> inFlightSync = new AtomicReference<>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
 
     // construtor
-    public ItemRepositoryImpl(ApiService apiService, ItemDao itemDao, ItemMapper mapper) {
+    public ItemRepositoryImpl(ApiService apiService,
+                              ResilientCallExecutor callExecutor,
+                              ItemDao itemDao,
+                              ItemDetailDao itemDetailDao,
+                              SyncStateDao syncStateDao,
+                              TransactionRunner transactionRunner,
+                              ItemMapper mapper) {
         this.apiService = apiService;
+        this.callExecutor = callExecutor;
         this.itemDao = itemDao;
+        this.itemDetailDao = itemDetailDao;
+        this.syncStateDao = syncStateDao;
+        this.transactionRunner = transactionRunner;
         this.mapper = mapper;
     }
 
     @Override
-    public List<Item> getItems() {
-        // 1) CACHE LOCAL (Room)
-        // Tenta ler do banco antes de qualquer chamada remota
-        List<ItemEntity> cached = itemDao.getAll();
-        if (cached != null && !cached.isEmpty()) {
-            // Converte Entity → Domain model antes de devolver pra UI
-            return mapper.entitiesToDomain(cached);
+    public List<Item> getItems(CancellationToken token) {
+        token.throwIfCancelled();
+
+        // 1) CACHE LOCAL (snapshot em memória ou Room)
+        // Tenta ler do cache antes de qualquer chamada remota
+        List<Item> cached = readCacheOrEmpty();
+        if (!cached.isEmpty()) {
+            PerfTracer.count(Counter.CACHE_HIT, 1);
+            return cached;
         }
+        PerfTracer.count(Counter.CACHE_MISS, 1);
 
         // 2) FONTE REMOTA (API REST)
-        // Se o cache estiver vazio, busca os dados remotos
+        // Se o cache estiver vazio, sincroniza com a API (primeiro sync é sempre completo)
         try {
-            Call<List<ItemDto>> call = apiService.getItems();
-            Response<List<ItemDto>> response = call.execute(); // execução síncrona fora da UI thread
-
-            if (response.isSuccessful() && response.body() != null) {
-                List<ItemDto> dtos = response.body();
+            sync(token);
+        } catch (IOException e) {
+            // falha de rede (ou circuito aberto): segue para o cache
+        }
 
-                // 3) ATUALIZA CACHE LOCAL
-                // Converte DTO → Entity e salva no banco como novo cache
-                List<ItemEntity> entities = mapper.dtosToEntities(dtos);
-                itemDao.clear();            // limpa cache anterior
-                itemDao.insertAll(entities); // insere novo cache
+        // 3) Lê o cache atualizado (ou o que houver no banco se a API falhou)
+        token.throwIfCancelled();
+        return readCacheOrEmpty();
+    }
 
-                // 4) Converte Entity → Domain model e devolve resultado final
-                return mapper.entitiesToDomain(entities);
+    @Override
+    public List<Item> getItemsPage(long afterId, int limit, CancellationToken token) {
+        token.throwIfCancelled();
+        List<ItemEntity> page = queryPage(afterId, limit);
+        if (page.isEmpty() && afterId <= 0) {
+            PerfTracer.count(Counter.CACHE_MISS, 1);
+            // primeira página com cache vazio: sincroniza e lê de novo
+            try {
+                sync(token);
+            } catch (IOException e) {
+                return new ArrayList<>();
             }
-
-            // fallback seguro: domínio/UI recebem lista vazia se não houver dados
-            return new ArrayList<>();
-
-        } catch (IOException e) {
-            // fallback seguro em falhas de rede: tenta converter o que houver no banco
-            List<ItemEntity> fallback = itemDao.getAll();
-            return fallback != null ? mapper.entitiesToDomain(fallback) : new ArrayList<>();
+            token.throwIfCancelled();
+            page = queryPage(afterId, limit);
+        } else {
+            PerfTracer.count(Counter.CACHE_HIT, 1);
         }
+        return mapper.entitiesToDomain(page);
     }
 
     /**
-     * Atualiza a lista forçando nova busca na API e sincronizando o cache local.
+     * Atualiza a lista sincronizando com a API (delta desde o último cursor).
      * (Opcional, mas muito pertinente para entrevistas que discutem atualização de dados)
      */
     public List<Item> refresh() {
+        return refresh(CancellationToken.NONE);
+    }
+
+    public List<Item> refresh(CancellationToken token) {
         try {
-            Call<List<ItemDto>> call = apiService.getItems();
-            Response<List<ItemDto>> response = call.execute();
+            sync(token);
+        } catch (IOException e) {
+            // falha de rede: segue com o cache atual
+        }
+        // sucesso ou falha, o cache local é a fonte da verdade devolvida
+        token.throwIfCancelled();
+        return readCacheOrEmpty();
+    }
+
+    /**
+     * Sincroniza o cache local com a API.
+     * Chamadas simultâneas compartilham o mesmo sync (uma requisição só).
+     *
+     * @return true se o cache foi atualizado, false se a API respondeu erro
+     */
+    private boolean sync(CancellationToken token) throws IOException {
+        while (true) {
+            FutureTask<Boolean> running = inFlightSync.get();
+            if (running == null) {
+                FutureTask<Boolean> task = new FutureTask<>(() -> syncOnce(token));
+                if (!inFlightSync.compareAndSet(null, task)) {
+                    continue; // outra thread iniciou o sync agora: espera o dela
+                }
+                try {
+                    task.run();
+                } finally {
+                    inFlightSync.compareAndSet(task, null);
+                }
+                running = task;
+            }
+
+            try {
+                return await(running, token);
+            } catch (CancellationException e) {
+                // cancelado por quem iniciou o sync; se este chamador não cancelou, tenta de novo
+                token.throwIfCancelled();
+            }
+        }
+    }
+
+    private static boolean await(FutureTask<Boolean> task, CancellationToken token) throws IOException {
+        while (true) {
+            try {
+                return task.get(AWAIT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                token.throwIfCancelled(); // quem só esperava desiste sem afetar o sync
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("Falha no sync", cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                token.throwIfCancelled();
+                throw new InterruptedIOException("Sync interrompido");
+            }
+        }
+    }
+
+    private boolean syncOnce(CancellationToken token) throws IOException {
+        if (deltaSupported) {
+            String cursor = syncStateDao.getCursor(SYNC_RESOURCE_ITEMS);
+            Response<ItemsDeltaDto> response = fetch(apiService.getItemsChangedSince(cursor), token);
 
             if (response.isSuccessful() && response.body() != null) {
-                List<ItemEntity> entities = mapper.dtosToEntities(response.body());
+                applyDelta(response.body(), cursor == null, token);
+                return true;
+            }
+            if (response.code() != 404 && response.code() != 501) {
+                return false;
+            }
+            // servidor sem suporte a delta: usa o GET completo daqui em diante
+            deltaSupported = false;
+        }
+        return fullSync(token);
+    }
+
+    /**
+     * Aplica o delta em uma única transação: upserts, tombstones e novo cursor.
+     * Sem cursor anterior (ou com full = true) o conteúdo recebido substitui o cache.
+     */
+    private void applyDelta(ItemsDeltaDto delta, boolean replaceAll, CancellationToken token) {
+        List<ItemDto> dtos = delta.getItems() != null ? delta.getItems() : new ArrayList<>();
+        List<Long> tombstones = mapper.deltaTombstoneIds(dtos);
+        boolean replace = replaceAll || delta.isFullSnapshot();
+        List<Long> changedIds = new ArrayList<>(dtos.size());
+
+        persist(dtos.size(), () -> {
+            if (replace) {
+                // snapshot completo (pode ser a coleção inteira): caminho em lote
                 itemDao.clear();
-                itemDao.insertAll(entities);
-                return mapper.entitiesToDomain(entities);
+                itemDetailDao.clear();
+                insertInChunks(dtos, token);
+            } else {
+                // delta incremental costuma ser pequeno: lista simples
+                for (int from = 0; from < tombstones.size(); from += MAX_DELETE_BATCH) {
+                    token.throwIfCancelled();
+                    int to = Math.min(from + MAX_DELETE_BATCH, tombstones.size());
+                    itemDao.deleteByIds(tombstones.subList(from, to));
+                }
+                List<ItemEntity> upserts = mapper.deltaUpsertsToEntities(dtos);
+                token.throwIfCancelled();
+                if (!upserts.isEmpty()) {
+                    itemDao.insertAll(upserts);
+                }
+
+                // detalhe guardado de item alterado/apagado ficou velho
+                changedIds.addAll(tombstones);
+                for (ItemEntity upsert : upserts) {
+                    changedIds.add(upsert.getId());
+                }
+                for (int from = 0; from < changedIds.size(); from += MAX_DELETE_BATCH) {
+                    itemDetailDao.deleteByIds(changedIds.subList(from, Math.min(from + MAX_DELETE_BATCH, changedIds.size())));
+                }
             }
+            if (delta.getCursor() != null) {
+                syncStateDao.save(new SyncStateEntity(SYNC_RESOURCE_ITEMS, delta.getCursor()));
+            } else {
+                syncStateDao.clear(SYNC_RESOURCE_ITEMS);
+            }
+        });
 
-            // fallback para cache se o refresh falhar
-            List<ItemEntity> fallback = itemDao.getAll();
-            return fallback != null ? mapper.entitiesToDomain(fallback) : new ArrayList<>();
+        if (replace) {
+            notifyAllChanged();
+        } else if (!changedIds.isEmpty()) {
+            notifyChanged(changedIds);
+        }
+    }
 
-        } catch (IOException e) {
-            // fallback para cache em falha de rede
-            List<ItemEntity> fallback = itemDao.getAll();
-            return fallback != null ? mapper.entitiesToDomain(fallback) : new ArrayList<>();
+    /**
+     * Sync legado: baixa a coleção inteira e substitui o cache.
+     */
+    private boolean fullSync(CancellationToken token) throws IOException {
+        Call<List<ItemDto>> call = apiService.getItems();
+        Response<List<ItemDto>> response = fetch(call, token); // síncrono, fora da UI thread
+
+        if (response.isSuccessful() && response.body() != null) {
+            // Converte DTO → Entity em lotes e salva no banco como novo cache
+            List<ItemDto> dtos = response.body();
+            persist(dtos.size(), () -> {
+                itemDao.clear();             // limpa cache anterior
+                itemDetailDao.clear();       // e os detalhes guardados (qualquer item pode ter mudado)
+                insertInChunks(dtos, token); // insere novo cache
+                syncStateDao.clear(SYNC_RESOURCE_ITEMS);
+            });
+            notifyAllChanged();
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Grava os DTOs (menos tombstones) em lotes de INSERT_CHUNK reaproveitando o mesmo
+     * buffer de Entities: o sync completo aloca INSERT_CHUNK Entities, não uma por item.
+     * A conversão de cada lote é medida como etapa MAP (a gravação fica dentro do PERSIST).
+     * Deve rodar dentro da transação do persist(): o token é checado a cada lote e
+     * o cancelamento desfaz a transação inteira.
+     */
+    private void insertInChunks(List<ItemDto> dtos, CancellationToken token) {
+        ItemEntity[] buffer = mapper.newEntityBuffer(Math.min(INSERT_CHUNK, Math.max(dtos.size(), 1)));
+
+        int i = 0;
+        int n = dtos.size();
+        while (i < n) {
+            int filled = 0;
+            long mapToken = PerfTracer.begin(Stage.MAP);
+            try {
+                for (; i < n && filled < buffer.length; i++) {
+                    ItemDto dto = dtos.get(i);
+                    if (!dto.isDeleted()) {
+                        mapper.copyInto(dto, buffer[filled++]);
+                    }
+                }
+            } finally {
+                PerfTracer.end(Stage.MAP, mapToken);
+            }
+            if (filled == 0) {
+                return; // só tombstones no fim
+            }
+            token.throwIfCancelled();
+            // lote cheio vai direto; só o último lote parcial copia o array
+            itemDao.insertBatch(filled == buffer.length ? buffer : Arrays.copyOf(buffer, filled));
+        }
+    }
+
+    /**
+     * Lista completa do cache: snapshot em memória ou, se inválido, releitura do banco.
+     * Lista vazia não vira snapshot (cache vazio ainda precisa de sync).
+     */
+    private List<Item> readCacheOrEmpty() {
+        Snapshot seen = snapshot.get();
+        if (seen.items != null) {
+            return seen.items;
+        }
+        List<ItemEntity> rows = queryAll();
+        if (rows == null || rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Item> items = mapper.entitiesToDomain(rows);
+        // falha se um sync gravou depois da leitura: devolve o que leu, mas não publica
+        snapshot.compareAndSet(seen, new Snapshot(seen.version, items));
+        return items;
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
     }
-}
 
+    @Override
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyChanged(List<Long> itemIds) {
+        List<Long> ids = Collections.unmodifiableList(itemIds);
+        for (Listener listener : listeners) {
+            listener.onItemsChanged(ids);
+        }
+    }
+
+    private void notifyAllChanged() {
+        for (Listener listener : listeners) {
+            listener.onAllItemsChanged();
+        }
+    }
+
+    // Chamado depois de cada transação de sync concluída
+    private void invalidateSnapshot() {
+        Snapshot current;
+        do {
+            current = snapshot.get();
+        } while (!snapshot.compareAndSet(current, new Snapshot(current.version + 1, null)));
+    }
+
+    /**
+     * Versão + lista imutável. A versão muda a cada escrita, então um compareAndSet
+     * com o Snapshot lido antes da query só publica se nada foi gravado nesse meio tempo.
+     */
+    private static final class Snapshot {
+        final long version;
+        final List<Item> items;
+
+        Snapshot(long version, List<Item> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+
+    // --- Acesso a rede/banco com medição (PerfTracer) ---
+
+    private <T> Response<T> fetch(Call<T> call, CancellationToken cancellation) throws IOException {
+        long token = PerfTracer.begin(Stage.FETCH);
+        try {
+            return callExecutor.execute(call, cancellation);
+        } finally {
+            PerfTracer.end(Stage.FETCH, token);
+        }
+    }
+
+    private List<ItemEntity> queryAll() {
+        long token = PerfTracer.begin(Stage.QUERY);
+        try {
+            List<ItemEntity> rows = itemDao.getAll();
+            PerfTracer.count(Counter.ROWS_READ, rows != null ? rows.size() : 0);
+            return rows;
+        } finally {
+            PerfTracer.end(Stage.QUERY, token);
+        }
+    }
+
+    private List<ItemEntity> queryPage(long afterId, int limit) {
+        long token = PerfTracer.begin(Stage.QUERY);
+        try {
+            List<ItemEntity> rows = itemDao.getPageAfter(afterId, limit);
+            PerfTracer.count(Counter.ROWS_READ, rows.size());
+            return rows;
+        } finally {
+            PerfTracer.end(Stage.QUERY, token);
+        }
+    }
+
+    private void persist(int rowsWritten, Runnable writes) {
+        long token = PerfTracer.begin(Stage.PERSIST);
+        try {
+            transactionRunner.runInTransaction(writes);
+            invalidateSnapshot(); // só depois do commit
+            PerfTracer.count(Counter.ROWS_WRITTEN, rowsWritten);
+        } finally {
+            PerfTracer.end(Stage.PERSIST, token);
+        }
+    }
+}
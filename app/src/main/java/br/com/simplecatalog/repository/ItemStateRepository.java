@@ -0,0 +1,52 @@
+package br.com.simplecatalog.repository;
+
+import java.util.Map;
+
+import br.com.simplecatalog.domain.model.ItemMutation;
+import br.com.simplecatalog.domain.model.ItemState;
+
+/**
+ * Contrato do repositório das edições do usuário (favorito, quantidade, nota).
+ *
+ * Escrita otimista: {@link #mutate} devolve o novo estado na hora (a UI atualiza no mesmo frame)
+ * e o envio ao servidor acontece depois, em lote, a partir de uma outbox persistida.
+ */
+public interface ItemStateRepository {
+
+    /**
+     * Avisado quando um estado muda por fora da tela que editou
+     * (confirmação do servidor, conflito resolvido, edição em outra tela).
+     * Pode ser chamado em qualquer thread.
+     */
+    interface Listener {
+        void onItemStateChanged(ItemState state);
+    }
+
+    /**
+     * Estado atual do item (vazio se nunca editado). Na primeira chamada lê o banco:
+     * chamar em background.
+     */
+    ItemState getState(long itemId);
+
+    /**
+     * Todos os itens com alguma edição, por id. Na primeira chamada lê o banco:
+     * chamar em background.
+     */
+    Map<Long, ItemState> getStates();
+
+    /**
+     * Aplica a edição e devolve o novo estado imediatamente (pending = true), sem I/O
+     * na thread chamadora: pode ser chamado na UI thread. Gravação local e envio ficam
+     * em background; o envio espera uma janela curta para juntar outras edições no mesmo lote.
+     */
+    ItemState mutate(ItemMutation mutation);
+
+    /**
+     * Envia agora o que estiver na outbox (ex: app indo para background).
+     */
+    void flush();
+
+    void addListener(Listener listener);
+
+    void removeListener(Listener listener);
+}
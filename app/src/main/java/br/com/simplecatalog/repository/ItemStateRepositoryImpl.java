@@ -0,0 +1,537 @@
+package br.com.simplecatalog.repository;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import br.com.simplecatalog.data.local.TransactionRunner;
+import br.com.simplecatalog.data.local.dao.ItemStateDao;
+import br.com.simplecatalog.data.local.dao.OutboxDao;
+import br.com.simplecatalog.data.local.entity.ItemStateEntity;
+import br.com.simplecatalog.data.local.entity.OutboxEntity;
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.dto.MutationBatchDto;
+import br.com.simplecatalog.data.remote.dto.MutationBatchResultDto;
+import br.com.simplecatalog.data.remote.dto.MutationDto;
+import br.com.simplecatalog.data.remote.dto.MutationResultDto;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.data.remote.resilience.RetryPolicy;
+import br.com.simplecatalog.domain.model.ItemMutation;
+import br.com.simplecatalog.domain.model.ItemState;
+import retrofit2.Response;
+
+/**
+ * Implementação do ItemStateRepository: escrita otimista + outbox persistida + envio em lote.
+ *
+ * Caminho de uma edição:
+ * 1) mutate(): aplica no mapa em memória e devolve o novo estado (UI atualiza no mesmo frame)
+ * 2) Thread da outbox: grava item_state + outbox na mesma transação (sobrevive a app morto)
+ * 3) Depois de {@code batchWindowMillis} (a partir da primeira edição pendente), envia até
+ *    MAX_BATCH mutações num POST posts/batch só; editar de novo o mesmo campo substitui a
+ *    mutação pendente (dez toques no "+" = uma mutação)
+ *
+ * Respostas:
+ * - applied: sai da outbox, guarda a versão nova
+ * - conflict: "last writer wins" pelo updatedAt: servidor mais novo → vale o valor dele;
+ *   edição local mais nova → reenvia sobre a versão atual do servidor
+ * - rejected: sai da outbox e o campo volta ao valor do servidor
+ * - Falha de rede / 5xx / 429: tudo fica na outbox e o envio é repetido com backoff
+ *   exponencial com jitter (até 5 min); 404/501 = servidor sem lote: um PATCH por item
+ * - Resposta que não dá para converter ou erro do Room no envio: mesma coisa que falha de rede
+ *   (as tarefas rodam num ScheduledThreadPoolExecutor, que engoliria a exceção e pararia a outbox)
+ *
+ * Gravação na outbox que falha (erro do Room): tenta de novo até PERSIST_ATTEMPTS vezes;
+ * esgotadas, a edição fica só em memória e o item deixa de estar "sincronizando"
+ * (senão ficaria pendente para sempre, esperando uma gravação que não vai acontecer).
+ *
+ * Sem retry/hedge no ResilientCallExecutor das escritas: quem repete é a outbox (persistida),
+ * e cada mutação leva o seq como id para o servidor ignorar reenvios.
+ *
+ * Edições feitas com um lote na rede:
+ * - A gravação delas espera na fila da thread da outbox (atrás do envio), então por um tempo
+ *   só existem no mapa em memória; olhar a outbox no banco não basta para saber se há algo mais novo
+ * - Cada edição ganha um número de sequência por item/campo ({@link EditSeqs}); a resposta do
+ *   servidor só sobrescreve o campo, e o item só deixa de estar "sincronizando", se não houver
+ *   edição mais nova do que a que foi gravada na outbox
+ */
+public class ItemStateRepositoryImpl implements ItemStateRepository {
+
+    // Mutações por requisição
+    static final int MAX_BATCH = 100;
+
+    // Janela padrão para juntar edições no mesmo lote
+    public static final long DEFAULT_BATCH_WINDOW_MILLIS = 2_000;
+
+    // Quanto close() espera a thread da outbox parar
+    static final long CLOSE_TIMEOUT_MILLIS = 2_000;
+
+    private static final String TAG = "ItemStateRepository";
+
+    // Tentativas de gravar uma edição na outbox antes de desistir dela
+    static final int PERSIST_ATTEMPTS = 3;
+
+    // Backoff entre envios que falharam (full jitter, teto de 5 min)
+    private static final RetryPolicy BACKOFF = new RetryPolicy(Integer.MAX_VALUE, 2_000, 5 * 60_000);
+
+    private final ApiService apiService;
+    private final ResilientCallExecutor callExecutor;
+    private final ItemStateDao stateDao;
+    private final OutboxDao outboxDao;
+    private final TransactionRunner transactionRunner;
+    private final ItemMapper mapper;
+    private final long batchWindowMillis;
+    private final LongSupplier clock;
+
+    // Uma thread só para gravar e enviar: edições são aplicadas e enviadas na ordem
+    private final ScheduledThreadPoolExecutor outboxExecutor = new ScheduledThreadPoolExecutor(1);
+
+    // Estado em memória (fonte da verdade para a UI); carregado do banco na primeira leitura
+    private final ConcurrentHashMap<Long, ItemState> states = new ConcurrentHashMap<>();
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
+
+    // Sequência das edições por item/campo (só lida/escrita dentro de states.compute do mesmo item)
+    private final AtomicLong editCounter = new AtomicLong();
+    private final ConcurrentHashMap<Long, EditSeqs> editSeqs = new ConcurrentHashMap<>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Random random = new Random();
+
+    // Protegidos por this
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    // Só acessados na thread da outbox
+    private int consecutiveFailures;
+    private boolean batchSupported = true;
+
+    public ItemStateRepositoryImpl(ApiService apiService,
+                                   ResilientCallExecutor callExecutor,
+                                   ItemStateDao stateDao,
+                                   OutboxDao outboxDao,
+                                   TransactionRunner transactionRunner,
+                                   ItemMapper mapper) {
+        this(apiService, callExecutor, stateDao, outboxDao, transactionRunner, mapper,
+                DEFAULT_BATCH_WINDOW_MILLIS, System::currentTimeMillis);
+    }
+
+    public ItemStateRepositoryImpl(ApiService apiService,
+                                   ResilientCallExecutor callExecutor,
+                                   ItemStateDao stateDao,
+                                   OutboxDao outboxDao,
+                                   TransactionRunner transactionRunner,
+                                   ItemMapper mapper,
+                                   long batchWindowMillis,
+                                   LongSupplier clock) {
+        this.apiService = apiService;
+        this.callExecutor = callExecutor;
+        this.stateDao = stateDao;
+        this.outboxDao = outboxDao;
+        this.transactionRunner = transactionRunner;
+        this.mapper = mapper;
+        this.batchWindowMillis = batchWindowMillis;
+        this.clock = clock;
+
+        // close() descarta envios agendados: a outbox fica no banco e sai quando o catálogo reabrir
+        outboxExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        // carrega em background e envia o que ficou pendente da última vez que o app rodou
+        outboxExecutor.execute(this::ensureLoaded);
+    }
+
+    @Override
+    public ItemState getState(long itemId) {
+        ensureLoaded();
+        ItemState state = states.get(itemId);
+        return state != null ? state : ItemState.empty(itemId);
+    }
+
+    @Override
+    public Map<Long, ItemState> getStates() {
+        ensureLoaded();
+        return Collections.unmodifiableMap(new HashMap<>(states));
+    }
+
+    @Override
+    public ItemState mutate(ItemMutation mutation) {
+        long now = clock.getAsLong();
+        int field = mutation.getField().ordinal();
+        long[] seq = new long[1];
+        ItemState updated = states.compute(mutation.getItemId(), (id, current) -> {
+            // numerada dentro do compute: a ordem das sequências é a ordem em que as edições valeram
+            seq[0] = editCounter.incrementAndGet();
+            editSeqs.computeIfAbsent(id, key -> new EditSeqs()).edited[field] = seq[0];
+            return mutation.applyTo(current != null ? current : ItemState.empty(id)).withPending(true);
+        });
+        notifyChanged(updated);
+
+        outboxExecutor.execute(() -> persist(mutation, now, seq[0], 1));
+        scheduleFlush(batchWindowMillis);
+        return updated;
+    }
+
+    @Override
+    public void flush() {
+        scheduleFlush(0);
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Para os envios (chamado quando o catálogo esfria, antes de fechar o banco).
+     * Nada se perde: o que não foi enviado continua na outbox.
+     *
+     * Espera (até {@link #CLOSE_TIMEOUT_MILLIS}) a thread da outbox terminar o que estava
+     * fazendo: fechar o banco no meio de uma transação dela quebraria a gravação. O envio em
+     * andamento é interrompido; a transação local é curta.
+     *
+     * @return true se a thread da outbox terminou (o banco pode ser fechado)
+     */
+    public boolean close() {
+        synchronized (this) {
+            closed = true;
+        }
+        // fora do lock: a thread da outbox pode estar esperando por ele em scheduleFlush()
+        outboxExecutor.shutdownNow();
+        try {
+            return outboxExecutor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        boolean hasPending;
+        synchronized (loadLock) {
+            if (loaded) {
+                return;
+            }
+            Set<Long> pending = new HashSet<>(outboxDao.getPendingItemIds());
+            for (ItemStateEntity stored : stateDao.getAll()) {
+                // putIfAbsent: edição otimista feita antes da carga vale mais que o banco
+                states.putIfAbsent(stored.getItemId(), mapper.toState(stored, pending.contains(stored.getItemId())));
+            }
+            loaded = true;
+            hasPending = !pending.isEmpty();
+        }
+        if (hasPending) {
+            scheduleFlush(batchWindowMillis);
+        }
+    }
+
+    // Grava o estado atual do item e a mutação na outbox, atomicamente (thread da outbox)
+    private void persist(ItemMutation mutation, long now, long seq, int attempt) {
+        long itemId = mutation.getItemId();
+        try {
+            ensureLoaded();
+            transactionRunner.runInTransaction(() -> {
+                ItemStateEntity stored = stateDao.getById(itemId);
+                long version = stored != null ? stored.getVersion() : 0;
+                // o mapa em memória é a verdade: grava o estado atual, não o de quando a edição foi feita
+                stateDao.upsert(mapper.toStateEntity(states.get(itemId), now, version));
+                outboxDao.enqueue(mapper.toOutbox(mutation, version, now));
+            });
+        } catch (RuntimeException e) {
+            if (attempt < PERSIST_ATTEMPTS
+                    && scheduleOnOutbox(() -> persist(mutation, now, seq, attempt + 1),
+                            BACKOFF.backoffMillis(attempt, random))) {
+                Log.w(TAG, "Gravação da edição do item " + itemId + " falhou (tentativa " + attempt + ")", e);
+                return;
+            }
+            // desiste: marca como tratada para o item não ficar "sincronizando" para sempre
+            Log.e(TAG, "Edição do item " + itemId + " não foi gravada; fica só em memória", e);
+            markPersisted(itemId, mutation, seq);
+            settle(Collections.singleton(itemId));
+            return;
+        }
+        markPersisted(itemId, mutation, seq);
+        // edição feita com um lote na rede: o agendamento do mutate() caiu no envio que estava
+        // rodando, que já não a viu na outbox; garante um envio para ela
+        scheduleFlush(batchWindowMillis);
+    }
+
+    private void markPersisted(long itemId, ItemMutation mutation, long seq) {
+        int field = mutation.getField().ordinal();
+        states.computeIfPresent(itemId, (id, current) -> {
+            EditSeqs seqs = editSeqs.get(id);
+            if (seqs != null) {
+                seqs.persisted[field] = Math.max(seqs.persisted[field], seq);
+            }
+            return current;
+        });
+    }
+
+    // Agenda uma tarefa na thread da outbox; false se o repositório já foi fechado
+    private synchronized boolean scheduleOnOutbox(Runnable task, long delayMillis) {
+        if (closed) {
+            return false;
+        }
+        outboxExecutor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Agenda o envio. Se já houver um agendado para antes, a edição entra nele (é o que
+     * junta várias edições num lote só); se o novo prazo for menor, antecipa.
+     */
+    private synchronized void scheduleFlush(long delayMillis) {
+        if (closed) {
+            return;
+        }
+        if (scheduledFlush != null && !scheduledFlush.isDone()) {
+            if (scheduledFlush.getDelay(TimeUnit.MILLISECONDS) <= delayMillis) {
+                return;
+            }
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = outboxExecutor.schedule(this::flushNow, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Envia um lote da outbox (thread da outbox)
+    private void flushNow() {
+        flushStarted();
+        try {
+            sendPending();
+        } catch (RuntimeException e) {
+            // corpo que o Gson não converte, erro do Room...: conta como envio que falhou.
+            // Escapando daqui, a exceção sumiria no ScheduledFuture e nada reagendaria o envio
+            Log.w(TAG, "Envio da outbox falhou", e);
+            retryLater();
+        }
+    }
+
+    private void sendPending() {
+        ensureLoaded();
+        List<OutboxEntity> batch = outboxDao.getBatch(MAX_BATCH);
+        if (batch.isEmpty()) {
+            consecutiveFailures = 0;
+            return;
+        }
+
+        boolean delivered;
+        try {
+            delivered = batchSupported ? sendBatch(batch) : sendPatches(batch);
+        } catch (IOException e) {
+            delivered = false; // sem rede / circuito aberto: fica tudo na outbox
+        }
+
+        if (!delivered) {
+            retryLater();
+            return;
+        }
+        consecutiveFailures = 0;
+        if (!outboxDao.getBatch(1).isEmpty()) {
+            // lote cheio: manda o resto já; senão sobrou reenvio de conflito, que espera a janela
+            scheduleFlush(batch.size() == MAX_BATCH ? 0 : batchWindowMillis);
+        }
+    }
+
+    // O envio agendado é este que está rodando: sem soltar a referência, scheduleFlush() o veria
+    // "ainda não terminado e com prazo vencido" e descartaria o reagendamento feito daqui de dentro
+    private synchronized void flushStarted() {
+        scheduledFlush = null;
+    }
+
+    // Backoff exponencial com jitter; a outbox continua no banco
+    private void retryLater() {
+        consecutiveFailures++;
+        scheduleFlush(Math.max(batchWindowMillis, BACKOFF.backoffMillis(consecutiveFailures, random)));
+    }
+
+    /**
+     * POST posts/batch com o lote inteiro.
+     *
+     * @return true se o servidor respondeu o lote (mesmo com conflitos/rejeições),
+     *         false se vale tentar de novo mais tarde
+     */
+    private boolean sendBatch(List<OutboxEntity> batch) throws IOException {
+        List<MutationDto> mutations = new ArrayList<>(batch.size());
+        Map<Long, OutboxEntity> bySeq = new HashMap<>();
+        for (OutboxEntity row : batch) {
+            mutations.add(mapper.toMutationDto(row));
+            bySeq.put(row.getSeq(), row);
+        }
+
+        Response<MutationBatchResultDto> response =
+                callExecutor.execute(apiService.applyMutations(new MutationBatchDto(mutations)));
+
+        if (response.code() == 404 || response.code() == 501) {
+            // servidor sem endpoint de lote: PATCH por item daqui em diante
+            batchSupported = false;
+            return sendPatches(batch);
+        }
+        if (!response.isSuccessful() || response.body() == null || response.body().getResults() == null) {
+            if (RetryPolicy.isRetryable(response.code())) {
+                return false;
+            }
+            removeFromOutbox(batch); // 4xx do lote inteiro: repetir não muda nada
+            return true;
+        }
+
+        Set<Long> touched = new HashSet<>();
+        transactionRunner.runInTransaction(() -> {
+            for (MutationResultDto result : response.body().getResults()) {
+                OutboxEntity row = bySeq.get(result.getMutationId());
+                if (row != null) {
+                    resolve(row, result);
+                    touched.add(row.getItemId());
+                }
+            }
+        });
+        settle(touched);
+        return true;
+    }
+
+    // Aplica o resultado de uma mutação (dentro da transação)
+    private void resolve(OutboxEntity row, MutationResultDto result) {
+        String status = result.getStatus();
+        if (MutationResultDto.STATUS_APPLIED.equals(status)) {
+            outboxDao.delete(row.getSeq());
+            stateDao.setVersion(row.getItemId(), result.getVersion());
+        } else if (MutationResultDto.STATUS_CONFLICT.equals(status)) {
+            stateDao.setVersion(row.getItemId(), result.getVersion());
+            if (result.getServerUpdatedAt() > row.getUpdatedAt()) {
+                // o servidor foi escrito depois da nossa edição: vale o valor dele
+                outboxDao.delete(row.getSeq());
+                applyServerValue(row, result.getServerValue());
+            } else {
+                // nossa edição é a mais nova: reenvia sobre a versão atual
+                outboxDao.rebase(row.getSeq(), result.getVersion());
+            }
+        } else {
+            // rejected (ou status desconhecido): o servidor não aceita, fica o valor dele
+            outboxDao.delete(row.getSeq());
+            applyServerValue(row, result.getServerValue());
+        }
+    }
+
+    /**
+     * Campo volta ao valor do servidor, a menos que o usuário já tenha editado de novo.
+     * A edição mais nova pode ainda nem estar na outbox (gravação na fila atrás deste envio):
+     * por isso a checagem é pela sequência em memória, no mesmo compute que aplica o valor.
+     */
+    private void applyServerValue(OutboxEntity row, String serverValue) {
+        long itemId = row.getItemId();
+        ItemMutation serverMutation = ItemMutation.of(itemId, row.getField(), serverValue);
+        int field = serverMutation.getField().ordinal();
+        boolean[] applied = new boolean[1];
+        ItemState updated = states.compute(itemId, (id, current) -> {
+            EditSeqs seqs = editSeqs.get(id);
+            if (seqs != null && seqs.edited[field] > seqs.persisted[field]) {
+                return current; // edição mais nova do mesmo campo: ela vai sobrescrever o servidor
+            }
+            applied[0] = true;
+            return serverMutation.applyTo(current != null ? current : ItemState.empty(id));
+        });
+        if (!applied[0]) {
+            return;
+        }
+        ItemStateEntity stored = stateDao.getById(itemId);
+        stateDao.upsert(mapper.toStateEntity(updated, row.getUpdatedAt(), stored != null ? stored.getVersion() : 0));
+    }
+
+    /**
+     * Fallback sem endpoint de lote: um PATCH por item com todos os campos pendentes dele
+     * (ainda junta as edições: um item editado 10 vezes = 1 requisição).
+     */
+    private boolean sendPatches(List<OutboxEntity> batch) throws IOException {
+        Map<Long, List<OutboxEntity>> byItem = new LinkedHashMap<>();
+        for (OutboxEntity row : batch) {
+            List<OutboxEntity> rows = byItem.get(row.getItemId());
+            if (rows == null) {
+                rows = new ArrayList<>();
+                byItem.put(row.getItemId(), rows);
+            }
+            rows.add(row);
+        }
+
+        for (Map.Entry<Long, List<OutboxEntity>> entry : byItem.entrySet()) {
+            Response<Void> response = callExecutor.execute(
+                    apiService.patchItem(entry.getKey(), mapper.toPatchFields(entry.getValue())));
+            if (!response.isSuccessful() && RetryPolicy.isRetryable(response.code())) {
+                return false; // os itens já enviados saíram da outbox; o resto tenta de novo
+            }
+            // 2xx confirma; outro 4xx descarta (repetir não muda nada)
+            removeFromOutbox(entry.getValue());
+        }
+        return true;
+    }
+
+    // Tira as mutações da outbox (confirmadas ou descartadas) sem mexer no estado local
+    private void removeFromOutbox(List<OutboxEntity> rows) {
+        Set<Long> touched = new HashSet<>();
+        transactionRunner.runInTransaction(() -> {
+            for (OutboxEntity row : rows) {
+                outboxDao.delete(row.getSeq());
+                touched.add(row.getItemId());
+            }
+        });
+        settle(touched);
+    }
+
+    // Itens sem mais nada na outbox (nem edição esperando gravação) deixam de estar "sincronizando"
+    private void settle(Set<Long> itemIds) {
+        for (long itemId : itemIds) {
+            boolean queued = outboxDao.countForItem(itemId) > 0;
+            ItemState state = states.computeIfPresent(itemId, (id, current) -> {
+                EditSeqs seqs = editSeqs.get(id);
+                return queued || (seqs != null && seqs.hasUnpersisted()) ? current : current.withPending(false);
+            });
+            if (state != null) {
+                notifyChanged(state);
+            }
+        }
+    }
+
+    private void notifyChanged(ItemState state) {
+        for (Listener listener : listeners) {
+            listener.onItemStateChanged(state);
+        }
+    }
+
+    /**
+     * Por campo (índice = ItemMutation.Field.ordinal()): sequência da última edição feita e
+     * da última gravada na outbox. edited > persisted = há edição só em memória.
+     */
+    private static final class EditSeqs {
+        final long[] edited = new long[ItemMutation.Field.values().length];
+        final long[] persisted = new long[ItemMutation.Field.values().length];
+
+        boolean hasUnpersisted() {
+            for (int i = 0; i < edited.length; i++) {
+                if (edited[i] > persisted[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.simplecatalog.repository.cache;
+
+/**
+ * Estimativa de frequência de acesso por id (count-min sketch do TinyLFU).
+ *
+ * Como funciona:
+ * - Cada id incrementa 4 contadores de 4 bits (0..15) em posições dadas por 4 hashes;
+ *   a frequência estimada é o menor dos 4 (colisões só aumentam, nunca diminuem a estimativa)
+ * - Memória fixa: 8 a 16 bytes por item esperado, não importa o tamanho do catálogo
+ *   (um catálogo de 1M de itens não gera 1M de entradas de controle)
+ * - Envelhecimento: a cada {@code 10 * expectedItems} incrementos todos os contadores
+ *   caem pela metade, então o que foi popular ontem perde espaço para o popular de hoje
+ *
+ * Usado pelo ItemDetailRepositoryImpl para decidir quem entra no hot set e no disco:
+ * o candidato só expulsa a vítima se for acessado com mais frequência que ela.
+ */
+public final class FrequencySketch {
+
+    // Maior valor de um contador (4 bits)
+    public static final int MAX_FREQUENCY = 15;
+
+    private static final long RESET_MASK = 0x7777777777777777L; // zera o bit alto de cada contador após o shift
+    private static final long ONE_MASK = 0x1111111111111111L;   // bit baixo de cada contador (contadores ímpares)
+
+    // Sementes dos 4 hashes (constantes ímpares de 64 bits)
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private final long[] table; // cada long guarda 16 contadores de 4 bits
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;           // incrementos desde o último envelhecimento
+
+    public FrequencySketch(int expectedItems) {
+        int items = Math.max(expectedItems, 16);
+        int length = Integer.highestOneBit(items - 1) << 1; // próxima potência de 2
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * items;
+    }
+
+    /**
+     * Frequência estimada do id (0..{@link #MAX_FREQUENCY}).
+     */
+    public synchronized int frequency(long id) {
+        int hash = spread(id);
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Registra um acesso ao id.
+     *
+     * @return true se este incremento disparou o envelhecimento (contadores pela metade);
+     *         quem guarda contagens fora do sketch (ex: access_count no disco) deve acompanhar
+     */
+    public synchronized boolean increment(long id) {
+        int hash = spread(id);
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+            return true;
+        }
+        return false;
+    }
+
+    // Soma 1 no contador j (0..15) do long i, se ainda não estiver saturado
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = 0xfL << offset;
+        if ((table[i] & mask) != mask) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    // Divide todos os contadores por 2 (o erro de arredondamento dos ímpares é descontado de size)
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (odd >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    // Espalha os bits do id (ids sequenciais não podem cair nos mesmos contadores)
+    private static int spread(long id) {
+        int x = Long.hashCode(id);
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.simplecatalog.repository.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapa LRU com limite de entradas (o "Nível 2" do ItemDetailRepositoryImpl).
+ *
+ * Faz o mesmo que o android.util.LruCache que usávamos antes, mas em Java puro:
+ * o LruCache do SDK não existe nos testes JVM (o android.jar dos testes só tem stubs),
+ * e o repositório de detalhe precisa ser testado sem emulador.
+ *
+ * - LinkedHashMap em ordem de acesso: get() move a entrada para o fim,
+ *   e ao passar do limite sai a primeira (a menos usada recentemente)
+ * - Todos os métodos são synchronized (acessado pela thread da tela e pelo prefetch)
+ */
+public final class LruMap<K, V> {
+
+    private final LinkedHashMap<K, V> map;
+
+    public LruMap(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries <= 0");
+        }
+        this.map = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    public synchronized V put(K key, V value) {
+        return map.put(key, value);
+    }
+
+    public synchronized V remove(K key) {
+        return map.remove(key);
+    }
+
+    // Remove só se a entrada ainda for esta (não apaga o que outra thread acabou de gravar)
+    public synchronized boolean remove(K key, V value) {
+        return map.remove(key, value);
+    }
+
+    public synchronized void evictAll() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.simplecatalog.ui;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.View;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+
+import br.com.simplecatalog.databinding.ActivityItemDetailBinding;
+import br.com.simplecatalog.di.AppContainer;
+import br.com.simplecatalog.di.CatalogComponent;
+import br.com.simplecatalog.di.CatalogRegistry;
+import br.com.simplecatalog.domain.model.Item;
+import br.com.simplecatalog.domain.model.ItemState;
+import br.com.simplecatalog.ui.viewmodel.ItemDetailViewModel;
+import br.com.simplecatalog.ui.viewmodel.ItemDetailViewModelFactory;
+
+/**
+ * Activity de detalhe do item.
+ * - Mostra título e preview da lista na hora (vêm pelo Intent)
+ * - Troca pelo corpo completo quando o ViewModel entrega o detalhe (normalmente já em cache
+ *   graças ao prefetch feito no toque da linha)
+ * - Favorito / quantidade / nota: mudam na tela no próprio toque; "Sincronizando…" some
+ *   quando o servidor confirma
+ */
+public class ItemDetailActivity extends AppCompatActivity {
+
+    private static final String EXTRA_CATALOG_ID = "extra_catalog_id";
+    private static final String EXTRA_ITEM_ID = "extra_item_id";
+    private static final String EXTRA_TITLE = "extra_title";
+    private static final String EXTRA_PREVIEW = "extra_preview";
+
+    private ActivityItemDetailBinding binding;
+    private ItemDetailViewModel viewModel;
+
+    public static Intent newIntent(Context context, String catalogId, Item item) {
+        return new Intent(context, ItemDetailActivity.class)
+                .putExtra(EXTRA_CATALOG_ID, catalogId)
+                .putExtra(EXTRA_ITEM_ID, item.getId())
+                .putExtra(EXTRA_TITLE, item.getTitle())
+                .putExtra(EXTRA_PREVIEW, item.getSubtitle());
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        binding = ActivityItemDetailBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        // Conteúdo imediato: o que a lista já tinha
+        binding.detailTitle.setText(getIntent().getStringExtra(EXTRA_TITLE));
+        binding.detailBody.setText(getIntent().getStringExtra(EXTRA_PREVIEW));
+
+        AppContainer container = AppContainer.getInstance(this);
+        // detalhe vem do mesmo catálogo da lista (banco e API daquele catálogo)
+        String extraCatalogId = getIntent().getStringExtra(EXTRA_CATALOG_ID);
+        String catalogId = extraCatalogId != null ? extraCatalogId : CatalogRegistry.DEFAULT_ID;
+        // mesmo componente enquanto o ViewModel segurar o catálogo (retain na factory)
+        CatalogComponent catalog = container.catalogManager.open(catalogId);
+        ItemDetailViewModelFactory factory = new ItemDetailViewModelFactory(
+                catalog.getItemDetailUseCase,
+                catalog.getItemStateUseCase,
+                catalog.mutateItemUseCase,
+                container.catalogManager,
+                catalogId
+        );
+        viewModel = new ViewModelProvider(this, factory).get(ItemDetailViewModel.class);
+
+        setupEditing();
+        observeViewModel();
+
+        viewModel.loadDetail(getIntent().getLongExtra(EXTRA_ITEM_ID, 0));
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        viewModel.flushEdits(); // saiu da tela: envia sem esperar a janela do lote
+    }
+
+    private void setupEditing() {
+        // onClick (e não onCheckedChanged): só o toque do usuário edita, não o setChecked do observer
+        binding.detailFavorite.setOnClickListener(v -> viewModel.toggleFavorite());
+        binding.detailQuantityMinus.setOnClickListener(v -> viewModel.changeQuantity(-1));
+        binding.detailQuantityPlus.setOnClickListener(v -> viewModel.changeQuantity(1));
+        binding.detailSaveNote.setOnClickListener(v ->
+                viewModel.saveNote(binding.detailNote.getText().toString()));
+    }
+
+    private void observeViewModel() {
+        viewModel.getState().observe(this, this::renderState);
+
+        viewModel.getDetail().observe(this, detail -> {
+            binding.detailTitle.setText(detail.getTitle());
+            binding.detailBody.setText(detail.getBody());
+        });
+
+        viewModel.getLoading().observe(this, isLoading ->
+                binding.detailProgress.setVisibility(Boolean.TRUE.equals(isLoading) ? View.VISIBLE : View.GONE));
+
+        viewModel.getError().observe(this, message -> {
+            if (message != null) {
+                binding.detailError.setText(message);
+                binding.detailError.setVisibility(View.VISIBLE);
+            } else {
+                binding.detailError.setVisibility(View.GONE);
+            }
+        });
+    }
+
+    private void renderState(ItemState state) {
+        boolean firstState = !binding.detailFavorite.isEnabled();
+        binding.detailFavorite.setEnabled(true);
+        binding.detailQuantityMinus.setEnabled(state.getQuantity() > 0);
+        binding.detailQuantityPlus.setEnabled(true);
+        binding.detailNote.setEnabled(true);
+        binding.detailSaveNote.setEnabled(true);
+
+        binding.detailFavorite.setChecked(state.isFavorite());
+        binding.detailQuantity.setText(String.valueOf(state.getQuantity()));
+        // a nota só é preenchida na chegada: depois disso o campo é de quem está digitando
+        if (firstState) {
+            binding.detailNote.setText(state.getNote());
+        }
+        binding.detailPending.setVisibility(state.isPending() ? View.VISIBLE : View.GONE);
+    }
+}
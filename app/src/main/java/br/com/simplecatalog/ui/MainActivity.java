@@ -5,13 +5,21 @@ import android.view.View;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.DefaultItemAnimator;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.google.android.material.tabs.TabLayout;
+
 import java.util.ArrayList;
+import java.util.List;
 
 import br.com.simplecatalog.databinding.ActivityMainBinding;
 import br.com.simplecatalog.di.AppContainer;
+import br.com.simplecatalog.di.CatalogRegistry;
+import br.com.simplecatalog.domain.model.Catalog;
+import br.com.simplecatalog.domain.model.Item;
 import br.com.simplecatalog.ui.adapter.ItemsAdapter;
+import br.com.simplecatalog.ui.adapter.RowPreInflater;
 import br.com.simplecatalog.ui.viewmodel.ItemsViewModel;
 import br.com.simplecatalog.ui.viewmodel.ItemsViewModelFactory;
 
@@ -22,6 +30,9 @@ import br.com.simplecatalog.ui.viewmodel.ItemsViewModelFactory;
  */
 public class MainActivity extends AppCompatActivity {
 
+    // Linhas que acabaram de sair da tela e voltam sem rebind (vai-e-volta curto na rolagem)
+    private static final int VIEW_CACHE_SIZE = 4;
+
     private ActivityMainBinding binding;
     private ItemsAdapter adapter;
     private ItemsViewModel viewModel;
@@ -40,28 +51,113 @@ public class MainActivity extends AppCompatActivity {
         // 2) Monta dependências via AppContainer e cria ViewModel via Factory
         setupViewModel();
 
-        // 3) Observa estados do ViewModel e atualiza UI
+        // 3) Seletor de catálogo (só aparece com mais de um catálogo)
+        setupCatalogTabs();
+
+        // 4) Observa estados do ViewModel e atualiza UI
         observeViewModel();
 
-        // 4) Dispara carregamento inicial (pode ser cache-first ou refresh)
+        // 5) Dispara carregamento inicial (primeira página; as seguintes vêm por prefetch)
         viewModel.loadItems();
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Builds debug: salva o resumo de performance (latência por etapa + contadores)
+        AppContainer.getInstance(this).exportPerfDump();
+    }
+
     private void setupRecyclerView() {
-        adapter = new ItemsAdapter(new ArrayList<>());
+        adapter = new ItemsAdapter(new ArrayList<>(), new ItemsAdapter.OnItemInteractionListener() {
+            @Override
+            public void onItemPressed(Item item) {
+                // pré-carrega o detalhe enquanto o dedo ainda está na tela
+                viewModel.onItemPressed(item);
+            }
+
+            @Override
+            public void onItemClicked(Item item) {
+                startActivity(ItemDetailActivity.newIntent(MainActivity.this, viewModel.getCatalogId(), item));
+            }
+        });
+
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        binding.recyclerView.setLayoutManager(layoutManager);
+
+        // O tamanho do RecyclerView vem das constraints, não do conteúdo:
+        // página nova ou linha alterada não pedem novo layout da tela inteira
+        binding.recyclerView.setHasFixedSize(true);
+        binding.recyclerView.setItemViewCacheSize(VIEW_CACHE_SIZE);
+        binding.recyclerView.setRecycledViewPool(ItemsAdapter.newViewPool());
+
+        // Linha que muda de estado (compacta ↔ rica) é trocada sem crossfade:
+        // sem um segundo ViewHolder por linha alterada nem animação disputando o frame
+        DefaultItemAnimator animator = new DefaultItemAnimator();
+        animator.setSupportsChangeAnimations(false);
+        binding.recyclerView.setItemAnimator(animator);
+
+        // Views de cada tipo infladas em background antes de serem necessárias
+        // (depois do LayoutManager: ele gera os LayoutParams das views pré-infladas;
+        // a soma dos estoques fica em RowPreInflater.MAX_IN_FLIGHT)
+        RowPreInflater preInflater = new RowPreInflater(binding.recyclerView);
+        preInflater.keepReady(ItemsAdapter.TYPE_COMPACT, ItemsAdapter.layoutFor(ItemsAdapter.TYPE_COMPACT), 6);
+        preInflater.keepReady(ItemsAdapter.TYPE_RICH, ItemsAdapter.layoutFor(ItemsAdapter.TYPE_RICH), 2);
+        preInflater.keepReady(ItemsAdapter.TYPE_HEADER, ItemsAdapter.layoutFor(ItemsAdapter.TYPE_HEADER), 2);
+        adapter.setPreInflater(preInflater);
 
-        binding.recyclerView.setLayoutManager(new LinearLayoutManager(this));
         binding.recyclerView.setAdapter(adapter);
+
+        // Viewport + velocidade de rolagem → ViewModel decide o que pré-carregar
+        // (posições do RecyclerView contam cabeçalhos; o ViewModel conta itens)
+        binding.recyclerView.addOnScrollListener(new ViewportScrollListener(
+                layoutManager,
+                (first, last, itemsPerSecond) -> viewModel.onViewportChanged(
+                        adapter.itemIndexAt(first), adapter.itemIndexAt(last), itemsPerSecond)
+        ));
     }
 
     private void setupViewModel() {
         // AppContainer fornece as dependências (UseCase já composto com Repository)
         AppContainer container = AppContainer.getInstance(this);
 
-        ItemsViewModelFactory factory = new ItemsViewModelFactory(container.getItemsUseCase);
+        ItemsViewModelFactory factory = new ItemsViewModelFactory(
+                container.selectCatalogUseCase,
+                CatalogRegistry.DEFAULT_ID
+        );
         viewModel = new ViewModelProvider(this, factory).get(ItemsViewModel.class);
     }
 
+    private void setupCatalogTabs() {
+        List<Catalog> catalogs = viewModel.getCatalogs();
+        if (catalogs.size() < 2) {
+            binding.catalogTabs.setVisibility(View.GONE);
+            return;
+        }
+
+        String current = viewModel.getCatalogId(); // pode não ser o padrão após rotação
+        for (Catalog catalog : catalogs) {
+            TabLayout.Tab tab = binding.catalogTabs.newTab().setText(catalog.getName()).setTag(catalog.getId());
+            binding.catalogTabs.addTab(tab, catalog.getId().equals(current));
+        }
+        binding.catalogTabs.setVisibility(View.VISIBLE);
+
+        // listener depois das abas: montar as abas não dispara troca
+        binding.catalogTabs.addOnTabSelectedListener(new TabLayout.OnTabSelectedListener() {
+            @Override
+            public void onTabSelected(TabLayout.Tab tab) {
+                viewModel.selectCatalog((String) tab.getTag());
+                binding.recyclerView.scrollToPosition(0);
+            }
+
+            @Override
+            public void onTabUnselected(TabLayout.Tab tab) { }
+
+            @Override
+            public void onTabReselected(TabLayout.Tab tab) { }
+        });
+    }
+
     private void observeViewModel() {
         viewModel.getItems().observe(this, items -> {
             // Atualiza lista
@@ -72,6 +168,9 @@ public class MainActivity extends AppCompatActivity {
             binding.emptyState.setVisibility(items == null || items.isEmpty() ? View.VISIBLE : View.GONE);
         });
 
+        // Edições do usuário: só as linhas alteradas são redesenhadas (compacta ↔ rica)
+        viewModel.getStates().observe(this, adapter::updateStates);
+
         viewModel.getLoading().observe(this, isLoading -> {
             // Mostra/oculta progress
             binding.progressBar.setVisibility(Boolean.TRUE.equals(isLoading) ? View.VISIBLE : View.GONE);
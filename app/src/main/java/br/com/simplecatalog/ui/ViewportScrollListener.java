@@ -0,0 +1,69 @@
+package br.com.simplecatalog.ui;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Listener de rolagem que traduz o scroll do RecyclerView em "viewport + velocidade".
+ *
+ * - Viewport: primeira e última posição visíveis
+ * - Velocidade: itens por segundo (suavizada), positiva rolando para baixo
+ *
+ * A UI só repassa esses sinais; quem decide o que pré-carregar é o ViewModel.
+ */
+public class ViewportScrollListener extends RecyclerView.OnScrollListener {
+
+    public interface Callback {
+        void onViewportChanged(int firstVisiblePosition, int lastVisiblePosition, float itemsPerSecond);
+    }
+
+    // Peso da amostra nova na média móvel exponencial (suaviza picos de um frame)
+    private static final float SMOOTHING = 0.4f;
+
+    private final LinearLayoutManager layoutManager;
+    private final Callback callback;
+
+    private int lastFirstVisible = RecyclerView.NO_POSITION;
+    private long lastSampleTime;
+    private float velocity;
+
+    public ViewportScrollListener(LinearLayoutManager layoutManager, Callback callback) {
+        this.layoutManager = layoutManager;
+        this.callback = callback;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        if (lastFirstVisible != RecyclerView.NO_POSITION && now > lastSampleTime) {
+            float sample = (first - lastFirstVisible) * 1000f / (now - lastSampleTime);
+            velocity = velocity + SMOOTHING * (sample - velocity);
+        }
+        lastFirstVisible = first;
+        lastSampleTime = now;
+
+        callback.onViewportChanged(first, last, velocity);
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            // parado: zera a velocidade para o prefetch voltar à distância mínima
+            velocity = 0f;
+            callback.onViewportChanged(
+                    layoutManager.findFirstVisibleItemPosition(),
+                    layoutManager.findLastVisibleItemPosition(),
+                    0f
+            );
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.simplecatalog.ui.adapter;
+
+import br.com.simplecatalog.domain.model.Item;
+
+/**
+ * Uma linha da lista: cabeçalho de seção ou item.
+ *
+ * Modelo da camada de apresentação, montado a partir dos Items do domínio pelo {@link CatalogRows}.
+ * Se o item vira linha compacta ou rica não fica aqui: depende do estado do usuário
+ * (favorito/quantidade/nota), que muda sem a lista mudar, e é decidido pelo ItemsAdapter no bind.
+ */
+public final class CatalogRow {
+
+    private final long categoryId;
+    private final Item item; // null = cabeçalho
+
+    private CatalogRow(long categoryId, Item item) {
+        this.categoryId = categoryId;
+        this.item = item;
+    }
+
+    static CatalogRow header(long categoryId) {
+        return new CatalogRow(categoryId, null);
+    }
+
+    static CatalogRow item(Item item) {
+        return new CatalogRow(item.getCategoryId(), item);
+    }
+
+    public boolean isHeader() { return item == null; }
+    public long getCategoryId() { return categoryId; }
+    public Item getItem() { return item; }
+}
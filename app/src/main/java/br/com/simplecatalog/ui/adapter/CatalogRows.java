@@ -0,0 +1,110 @@
+package br.com.simplecatalog.ui.adapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.simplecatalog.domain.model.Item;
+
+/**
+ * Transforma a lista de Items (em ordem de id, como vem da paginação) nas linhas do adapter.
+ *
+ * - Um cabeçalho antes de cada trecho de itens da mesma categoria
+ * - Itens sem categoria (0) não ganham cabeçalho: catálogo sem categorias vira lista simples
+ * - Página nova anexada ao fim (prefetch) só processa os itens novos: custo proporcional
+ *   à página, não à lista inteira, e as linhas já na tela mantêm a posição
+ * - Guarda a posição de cada item para o adapter achar a linha quando o estado de um item muda
+ * - E o caminho inverso ({@link #itemIndexAt}): o viewport do RecyclerView vem em linhas
+ *   (com cabeçalhos), a paginação do ViewModel conta itens
+ *
+ * Sem dependência de Android (testável na JVM). Usado só na UI thread.
+ */
+final class CatalogRows {
+
+    // update() trocou a lista inteira (não foi só anexar)
+    static final int RESET = -1;
+
+    private final List<CatalogRow> rows = new ArrayList<>();
+    private final Map<Long, Integer> positionById = new HashMap<>();
+    private final List<Integer> headerPositions = new ArrayList<>(); // crescente
+    private List<Item> source = Collections.emptyList();
+
+    /**
+     * Recalcula as linhas para a nova lista de itens.
+     *
+     * @return posição da primeira linha nova se a lista só cresceu no fim (as anteriores não mudaram),
+     *         ou {@link #RESET} se tudo foi recalculado
+     */
+    int update(List<Item> items) {
+        List<Item> old = source;
+        source = items != null ? items : Collections.emptyList();
+
+        int oldSize = old.size();
+        if (oldSize > 0 && source.size() >= oldSize && source.get(oldSize - 1) == old.get(oldSize - 1)) {
+            int firstNew = rows.size();
+            appendFrom(oldSize);
+            return firstNew;
+        }
+
+        rows.clear();
+        positionById.clear();
+        headerPositions.clear();
+        appendFrom(0);
+        return RESET;
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    CatalogRow get(int position) {
+        return rows.get(position);
+    }
+
+    /**
+     * Posição da linha do item, ou -1 se o item não está na lista.
+     */
+    int positionOf(long itemId) {
+        Integer position = positionById.get(itemId);
+        return position != null ? position : -1;
+    }
+
+    /**
+     * Índice (na lista de itens) do último item na linha {@code position} ou antes dela:
+     * a própria linha se for item, o item anterior se for cabeçalho; -1 se não houver.
+     */
+    int itemIndexAt(int position) {
+        if (position < 0) {
+            return -1;
+        }
+        // cabeçalhos são poucos: busca binária pelos que estão até a posição
+        int low = 0;
+        int high = headerPositions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (headerPositions.get(mid) <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Math.min(position, rows.size() - 1) - low;
+    }
+
+    private void appendFrom(int start) {
+        long previousCategory = start > 0 ? source.get(start - 1).getCategoryId() : 0;
+        for (int i = start, n = source.size(); i < n; i++) {
+            Item item = source.get(i);
+            long category = item.getCategoryId();
+            if (category != 0 && (i == 0 || category != previousCategory)) {
+                headerPositions.add(rows.size());
+                rows.add(CatalogRow.header(category));
+            }
+            positionById.put(item.getId(), rows.size());
+            rows.add(CatalogRow.item(item));
+            previousCategory = category;
+        }
+    }
+}
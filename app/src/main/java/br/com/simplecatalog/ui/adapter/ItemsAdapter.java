@@ -1,15 +1,29 @@
 package br.com.simplecatalog.ui.adapter;
 
+import android.annotation.SuppressLint;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import br.com.simplecatalog.R;
 import br.com.simplecatalog.databinding.ItemRowBinding;
+import br.com.simplecatalog.databinding.ItemRowRichBinding;
+import br.com.simplecatalog.databinding.ItemSectionHeaderBinding;
 import br.com.simplecatalog.domain.model.Item;
+import br.com.simplecatalog.domain.model.ItemState;
+import br.com.simplecatalog.perf.Counter;
+import br.com.simplecatalog.perf.PerfTracer;
+import br.com.simplecatalog.perf.Stage;
 
 /**
  * Adapter do RecyclerView: apenas exibe dados do domínio em lista.
@@ -17,67 +31,298 @@ import br.com.simplecatalog.domain.model.Item;
  *
  * O Adapter é responsável por exibir os modelos do domínio no RecyclerView.
  * Ele não acessa rede nem banco, apenas consome dados prontos e gerencia a camada de apresentação da lista.
+ *
+ * Tipos de linha (view types), decididos pelo domínio:
+ * - {@link #TYPE_HEADER}: cabeçalho de seção, quando a categoria do item muda ({@link CatalogRows})
+ * - {@link #TYPE_COMPACT}: item sem edições do usuário (título + preview)
+ * - {@link #TYPE_RICH}: item com favorito/quantidade/nota ({@link ItemState#hasUserData()})
+ *
+ * Custo de criar linhas:
+ * - Cada tipo tem seu tamanho no RecycledViewPool ({@link #newViewPool()}): num fling por
+ *   conteúdo misto o tipo menos comum não esvazia o pool e força inflates
+ * - Com um {@link RowPreInflater}, o onCreateViewHolder usa views infladas em background
+ *   e só infla na UI thread se o estoque acabar (medido como Stage.INFLATE)
  */
-public class ItemsAdapter extends RecyclerView.Adapter<ItemsAdapter.ItemViewHolder> {
+public class ItemsAdapter extends RecyclerView.Adapter<ItemsAdapter.RowViewHolder> {
+
+    public static final int TYPE_HEADER = 0;
+    public static final int TYPE_COMPACT = 1;
+    public static final int TYPE_RICH = 2;
+
+    /**
+     * Interações com a linha, repassadas para a Activity.
+     */
+    public interface OnItemInteractionListener {
+        // Dedo encostou na linha (antes do clique): bom momento para pré-carregar o detalhe
+        void onItemPressed(Item item);
+
+        // Clique completo: abrir o detalhe
+        void onItemClicked(Item item);
+    }
+
+    private final CatalogRows rows = new CatalogRows();
+    private Map<Long, ItemState> states = Collections.emptyMap();
+    private final OnItemInteractionListener listener;
+    private RowPreInflater preInflater;
+
+    public ItemsAdapter(List<Item> items, OnItemInteractionListener listener) {
+        this.listener = listener;
+        rows.update(items);
+    }
 
-    private List<Item> items;
+    /**
+     * Pool de ViewHolders com tamanho por tipo (o padrão do RecyclerView é 5 de cada).
+     * Pode ser compartilhado entre listas que usam este adapter (setRecycledViewPool).
+     */
+    public static RecyclerView.RecycledViewPool newViewPool() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setMaxRecycledViews(TYPE_HEADER, 4);   // poucos por tela
+        pool.setMaxRecycledViews(TYPE_COMPACT, 16); // a maioria das linhas: uma tela inteira
+        pool.setMaxRecycledViews(TYPE_RICH, 8);
+        return pool;
+    }
 
-    public ItemsAdapter(List<Item> items) {
-        this.items = items;
+    /**
+     * Estoque de views infladas em background para o onCreateViewHolder (opcional).
+     */
+    public void setPreInflater(RowPreInflater preInflater) {
+        this.preInflater = preInflater;
     }
 
     /**
      * Atualiza a lista do Adapter (novo dataset vindo do ViewModel/Presenter)
      */
+    @SuppressLint("NotifyDataSetChanged")
     public void updateItems(List<Item> newItems) {
-        this.items = newItems;
+        int oldCount = rows.size();
+        int firstNew = rows.update(newItems);
+
+        // Página nova anexada ao fim (prefetch): avisa só a faixa inserida,
+        // sem redesenhar as linhas que já estão na tela
+        if (firstNew != CatalogRows.RESET) {
+            if (rows.size() > oldCount) {
+                notifyItemRangeInserted(firstNew, rows.size() - oldCount);
+            }
+            return;
+        }
         notifyDataSetChanged(); // notifica o RecyclerView para redesenhar
     }
 
+    /**
+     * Atualiza o estado do usuário por item. Só as linhas cujo estado mudou são redesenhadas
+     * (e trocam de tipo, compacta ↔ rica, se for o caso).
+     */
+    public void updateStates(Map<Long, ItemState> newStates) {
+        Map<Long, ItemState> oldStates = states;
+        states = newStates != null ? newStates : Collections.emptyMap();
+
+        Set<Long> ids = new HashSet<>(oldStates.keySet());
+        ids.addAll(states.keySet());
+        for (Long id : ids) {
+            if (!sameDisplay(oldStates.get(id), states.get(id))) {
+                int position = rows.positionOf(id);
+                if (position >= 0) {
+                    notifyItemChanged(position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Índice na lista de itens (a do ViewModel) do último item na linha ou antes dela
+     * (cabeçalhos não contam); -1 se não houver item até ali.
+     */
+    public int itemIndexAt(int position) {
+        return rows.itemIndexAt(position);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        CatalogRow row = rows.get(position);
+        if (row.isHeader()) {
+            return TYPE_HEADER;
+        }
+        ItemState state = states.get(row.getItem().getId());
+        return state != null && state.hasUserData() ? TYPE_RICH : TYPE_COMPACT;
+    }
+
     @NonNull
     @Override
-    public ItemViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        // Infla o layout da linha usando ViewBinding
-        ItemRowBinding binding = ItemRowBinding.inflate(
-                LayoutInflater.from(parent.getContext()),
-                parent,
-                false
-        );
-        return new ItemViewHolder(binding);
+    public RowViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = preInflater != null ? preInflater.take(viewType) : null;
+        if (view != null) {
+            PerfTracer.count(Counter.ROW_PREINFLATED, 1);
+        } else {
+            // Estoque vazio: infla na hora usando ViewBinding
+            PerfTracer.count(Counter.ROW_INFLATED_SYNC, 1);
+            long token = PerfTracer.begin(Stage.INFLATE);
+            view = LayoutInflater.from(parent.getContext()).inflate(layoutFor(viewType), parent, false);
+            PerfTracer.end(Stage.INFLATE, token);
+        }
+
+        switch (viewType) {
+            case TYPE_HEADER:
+                return new HeaderViewHolder(ItemSectionHeaderBinding.bind(view));
+            case TYPE_RICH:
+                return new RichItemViewHolder(ItemRowRichBinding.bind(view), listener);
+            default:
+                return new ItemViewHolder(ItemRowBinding.bind(view), listener);
+        }
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ItemViewHolder holder, int position) {
-        // Obtém o item do domínio e preenche a UI
-        Item item = items.get(position);
-        holder.bind(item);
+    public void onBindViewHolder(@NonNull RowViewHolder holder, int position) {
+        // Obtém a linha (cabeçalho ou item do domínio) e preenche a UI
+        long token = PerfTracer.begin(Stage.BIND);
+        CatalogRow row = rows.get(position);
+        holder.bind(row, row.isHeader() ? null : states.get(row.getItem().getId()));
+        PerfTracer.end(Stage.BIND, token);
     }
 
     @Override
     public int getItemCount() {
-        return items != null ? items.size() : 0;
+        return rows.size();
+    }
+
+    /**
+     * Layout de cada tipo de linha (também usado pelo RowPreInflater).
+     */
+    public static int layoutFor(int viewType) {
+        switch (viewType) {
+            case TYPE_HEADER:
+                return R.layout.item_section_header;
+            case TYPE_RICH:
+                return R.layout.item_row_rich;
+            default:
+                return R.layout.item_row;
+        }
+    }
+
+    // Só o que aparece na linha conta (pending muda sem mudar o desenho)
+    private static boolean sameDisplay(ItemState a, ItemState b) {
+        boolean aVisible = a != null && a.hasUserData();
+        boolean bVisible = b != null && b.hasUserData();
+        if (!aVisible || !bVisible) {
+            return aVisible == bVisible;
+        }
+        return a.isFavorite() == b.isFavorite()
+                && a.getQuantity() == b.getQuantity()
+                && Objects.equals(a.getNote(), b.getNote());
     }
 
     /**
-     * ViewHolder segura as views de cada linha e faz o bind dos dados.
+     * Base dos ViewHolders: segura as views de cada linha e faz o bind dos dados.
+     */
+    abstract static class RowViewHolder extends RecyclerView.ViewHolder {
+
+        RowViewHolder(View itemView) {
+            super(itemView);
+        }
+
+        // state é null para cabeçalhos e para itens sem edição
+        abstract void bind(CatalogRow row, ItemState state);
+    }
+
+    /**
+     * Cabeçalho de seção: só o nome da categoria.
+     */
+    static class HeaderViewHolder extends RowViewHolder {
+
+        private final ItemSectionHeaderBinding binding;
+
+        HeaderViewHolder(ItemSectionHeaderBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+
+        @Override
+        void bind(CatalogRow row, ItemState state) {
+            binding.sectionTitle.setText("Categoria " + row.getCategoryId());
+        }
+    }
+
+    /**
+     * Linha de item: toque e clique ficam aqui, iguais para a compacta e a rica.
      * Usa binding para evitar findViewById e melhorar performance.
      */
-    static class ItemViewHolder extends RecyclerView.ViewHolder {
+    abstract static class ClickableItemViewHolder extends RowViewHolder {
+
+        private Item boundItem;
+
+        // Listeners criados uma vez por ViewHolder (não a cada bind)
+        @SuppressLint("ClickableViewAccessibility")
+        ClickableItemViewHolder(View itemView, OnItemInteractionListener listener) {
+            super(itemView);
+
+            itemView.setOnTouchListener((view, event) -> {
+                if (event.getActionMasked() == MotionEvent.ACTION_DOWN && boundItem != null) {
+                    listener.onItemPressed(boundItem);
+                }
+                return false; // não consome: o clique continua funcionando
+            });
+            itemView.setOnClickListener(view -> {
+                if (boundItem != null) {
+                    listener.onItemClicked(boundItem);
+                }
+            });
+        }
+
+        @Override
+        final void bind(CatalogRow row, ItemState state) {
+            boundItem = row.getItem();
+            bindItem(boundItem, state);
+        }
+
+        abstract void bindItem(Item item, ItemState state);
+    }
+
+    /**
+     * Linha compacta: título + preview
+     */
+    static class ItemViewHolder extends ClickableItemViewHolder {
 
         private final ItemRowBinding binding;
 
-        public ItemViewHolder(ItemRowBinding binding) {
-            super(binding.getRoot());
+        ItemViewHolder(ItemRowBinding binding, OnItemInteractionListener listener) {
+            super(binding.getRoot(), listener);
             this.binding = binding;
         }
 
-        /**
-         * Faz o preenchimento da linha com os dados do item
-         */
-        public void bind(Item item) {
+        @Override
+        void bindItem(Item item, ItemState state) {
             binding.itemTitle.setText(item.getTitle());       // ← referência do domínio
             binding.itemSubtitle.setText(item.getSubtitle()); // ← referência do domínio
         }
     }
-}
 
+    /**
+     * Linha rica: título + preview + o que o usuário marcou no item
+     */
+    static class RichItemViewHolder extends ClickableItemViewHolder {
+
+        private final ItemRowRichBinding binding;
+
+        RichItemViewHolder(ItemRowRichBinding binding, OnItemInteractionListener listener) {
+            super(binding.getRoot(), listener);
+            this.binding = binding;
+        }
+
+        @Override
+        void bindItem(Item item, ItemState state) {
+            binding.itemTitle.setText(item.getTitle());
+            binding.itemSubtitle.setText(item.getSubtitle());
+
+            boolean favorite = state != null && state.isFavorite();
+            int quantity = state != null ? state.getQuantity() : 0;
+            String note = state != null ? state.getNote() : null;
+
+            binding.itemFavorite.setVisibility(favorite ? View.VISIBLE : View.GONE);
+            binding.itemQuantity.setVisibility(quantity > 0 ? View.VISIBLE : View.GONE);
+            if (quantity > 0) {
+                binding.itemQuantity.setText("Qtd: " + quantity);
+            }
+            binding.itemNote.setVisibility(note != null ? View.VISIBLE : View.GONE);
+            binding.itemNote.setText(note);
+        }
+    }
+}
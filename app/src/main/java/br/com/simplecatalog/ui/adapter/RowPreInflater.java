@@ -0,0 +1,99 @@
+package br.com.simplecatalog.ui.adapter;
+
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.Nullable;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+
+import java.util.ArrayDeque;
+
+/**
+ * Infla as views das linhas em background, antes de o RecyclerView precisar delas.
+ *
+ * Por que:
+ * - Num fling por conteúdo misto (cabeçalho, compacta, rica) o pool de cada tipo pode esvaziar,
+ *   e o onCreateViewHolder inflaria XML na UI thread no meio do frame (jank)
+ * - Aqui cada tipo tem um estoque de views prontas; o ItemsAdapter pega do estoque e, ao pegar,
+ *   pede a reposição em background. Inflar na hora só acontece se o estoque acabar
+ *
+ * Detalhes:
+ * - AsyncLayoutInflater infla numa thread própria e entrega a view na UI thread
+ *   (os layouts das linhas só usam views simples, que podem ser infladas fora da UI thread)
+ * - O parent (o próprio RecyclerView) só é usado para gerar os LayoutParams; a view não é anexada
+ * - As views prontas não vão direto para o RecycledViewPool: o pool só aceita ViewHolders já
+ *   criados pelo adapter (com o tipo registrado), então o estoque fica aqui até o onCreateViewHolder
+ * - A fila do AsyncLayoutInflater tem 10 posições e bloqueia a UI thread quando cheia:
+ *   a soma dos estoques de todos os tipos deve ficar em até {@link #MAX_IN_FLIGHT}
+ *
+ * Usado só na UI thread.
+ */
+public final class RowPreInflater {
+
+    // Tamanho da fila interna do AsyncLayoutInflater
+    public static final int MAX_IN_FLIGHT = 10;
+
+    private final AsyncLayoutInflater inflater;
+    private final ViewGroup parent;
+
+    // Por tipo de view: layout, estoque desejado, views prontas e inflates em andamento
+    private final SparseArray<Slot> slots = new SparseArray<>();
+
+    public RowPreInflater(ViewGroup parent) {
+        this.parent = parent;
+        this.inflater = new AsyncLayoutInflater(parent.getContext());
+    }
+
+    /**
+     * Define quantas views manter prontas para o tipo e começa a inflar.
+     */
+    public void keepReady(int viewType, @LayoutRes int layout, int count) {
+        Slot slot = slots.get(viewType);
+        if (slot == null) {
+            slot = new Slot(layout);
+            slots.put(viewType, slot);
+        }
+        slot.target = count;
+        refill(slot);
+    }
+
+    /**
+     * Uma view pronta do tipo, ou null se o estoque estiver vazio (o adapter infla na hora).
+     * Sempre dispara a reposição do estoque.
+     */
+    @Nullable
+    public View take(int viewType) {
+        Slot slot = slots.get(viewType);
+        if (slot == null) {
+            return null;
+        }
+        View view = slot.ready.poll();
+        refill(slot);
+        return view;
+    }
+
+    private void refill(Slot slot) {
+        while (slot.ready.size() + slot.inFlight < slot.target) {
+            slot.inFlight++;
+            inflater.inflate(slot.layout, parent, (view, resid, ignored) -> {
+                slot.inFlight--;
+                if (slot.ready.size() < slot.target) {
+                    slot.ready.add(view);
+                }
+            });
+        }
+    }
+
+    private static final class Slot {
+        final int layout;
+        final ArrayDeque<View> ready = new ArrayDeque<>();
+        int target;
+        int inFlight;
+
+        Slot(int layout) {
+            this.layout = layout;
+        }
+    }
+}
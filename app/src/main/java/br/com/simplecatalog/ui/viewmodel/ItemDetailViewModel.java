@@ -0,0 +1,146 @@
+package br.com.simplecatalog.ui.viewmodel;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import br.com.simplecatalog.domain.model.ItemDetail;
+import br.com.simplecatalog.domain.model.ItemMutation;
+import br.com.simplecatalog.domain.model.ItemState;
+import br.com.simplecatalog.domain.usecase.GetItemDetailUseCase;
+import br.com.simplecatalog.domain.usecase.GetItemStateUseCase;
+import br.com.simplecatalog.domain.usecase.MutateItemUseCase;
+import br.com.simplecatalog.repository.ItemStateRepository;
+
+/**
+ * ViewModel da tela de detalhe:
+ * - Busca o detalhe completo do item via UseCase (em background)
+ * - Publica detalhe, loading e erro via LiveData
+ * - Edições do usuário (favorito, quantidade, nota): o novo estado é publicado com setValue
+ *   na própria UI thread (a tela muda no mesmo frame do toque); gravar e enviar é com o Repository
+ * - releaseCatalog: avisa que o catálogo não é mais usado, depois da última tarefa em background
+ */
+public class ItemDetailViewModel extends ViewModel {
+
+    private final GetItemDetailUseCase getItemDetailUseCase;
+    private final GetItemStateUseCase getItemStateUseCase;
+    private final MutateItemUseCase mutateItemUseCase;
+    private final Runnable releaseCatalog;
+
+    // Estados observáveis pela UI
+    private final MutableLiveData<ItemDetail> detail = new MutableLiveData<>();
+    private final MutableLiveData<ItemState> state = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private final MutableLiveData<String> error = new MutableLiveData<>(null);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Item desta tela (-1 até loadDetail)
+    private volatile long itemId = -1;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Confirmação/correção do servidor chega por aqui (qualquer thread)
+    private final ItemStateRepository.Listener stateListener = changed -> {
+        if (changed.getItemId() == itemId) {
+            // relê o estado já na UI thread: um aviso atrasado não desfaz um toque mais novo
+            mainHandler.post(() -> state.setValue(getItemStateUseCase.execute(changed.getItemId())));
+        }
+    };
+
+    public ItemDetailViewModel(GetItemDetailUseCase getItemDetailUseCase,
+                               GetItemStateUseCase getItemStateUseCase,
+                               MutateItemUseCase mutateItemUseCase,
+                               Runnable releaseCatalog) {
+        this.getItemDetailUseCase = getItemDetailUseCase;
+        this.getItemStateUseCase = getItemStateUseCase;
+        this.mutateItemUseCase = mutateItemUseCase;
+        this.releaseCatalog = releaseCatalog;
+        getItemStateUseCase.addListener(stateListener);
+    }
+
+    public LiveData<ItemDetail> getDetail() { return detail; }
+    public LiveData<ItemState> getState() { return state; }
+    public LiveData<Boolean> getLoading() { return loading; }
+    public LiveData<String> getError() { return error; }
+
+    /**
+     * Carrega o detalhe e o estado do item (só na primeira vez: rotação reaproveita o estado).
+     */
+    public void loadDetail(long itemId) {
+        if (detail.getValue() != null && detail.getValue().getId() == itemId) {
+            return;
+        }
+        this.itemId = itemId;
+        loading.setValue(true);
+        error.setValue(null);
+
+        executor.execute(() -> {
+            try {
+                // estado primeiro: é só banco local, os controles de edição liberam antes da rede
+                state.postValue(getItemStateUseCase.execute(itemId));
+
+                ItemDetail result = getItemDetailUseCase.execute(itemId);
+                if (result != null) {
+                    detail.postValue(result);
+                } else {
+                    error.postValue("Item não encontrado.");
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                error.postValue("Falha ao carregar detalhe.");
+            } finally {
+                loading.postValue(false);
+            }
+        });
+    }
+
+    // --- Edições (UI thread) ---
+
+    public void toggleFavorite() {
+        ItemState current = state.getValue();
+        if (current != null) {
+            apply(ItemMutation.favorite(current.getItemId(), !current.isFavorite()));
+        }
+    }
+
+    public void changeQuantity(int delta) {
+        ItemState current = state.getValue();
+        if (current != null) {
+            apply(ItemMutation.quantity(current.getItemId(), Math.max(0, current.getQuantity() + delta)));
+        }
+    }
+
+    public void saveNote(String note) {
+        ItemState current = state.getValue();
+        if (current != null) {
+            apply(ItemMutation.note(current.getItemId(), note));
+        }
+    }
+
+    /**
+     * Tela saindo de cena: não espera a janela do lote para enviar o que está pendente.
+     */
+    public void flushEdits() {
+        mutateItemUseCase.flush();
+    }
+
+    private void apply(ItemMutation mutation) {
+        state.setValue(mutateItemUseCase.execute(mutation)); // mesmo frame: sem I/O aqui
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        getItemStateUseCase.removeListener(stateListener);
+        mainHandler.removeCallbacksAndMessages(null);
+        executor.execute(releaseCatalog); // na fila: depois da carga de detalhe em andamento
+        executor.shutdown();
+    }
+}
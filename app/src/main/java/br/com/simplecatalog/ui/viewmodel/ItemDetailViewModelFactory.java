@@ -0,0 +1,49 @@
+package br.com.simplecatalog.ui.viewmodel;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+
+import br.com.simplecatalog.domain.usecase.GetItemDetailUseCase;
+import br.com.simplecatalog.domain.usecase.GetItemStateUseCase;
+import br.com.simplecatalog.domain.usecase.MutateItemUseCase;
+import br.com.simplecatalog.repository.CatalogRepository;
+
+/**
+ * Factory do ItemDetailViewModel (mesma ideia do ItemsViewModelFactory:
+ * injeta os UseCases pelo construtor).
+ *
+ * O ViewModel marca o catálogo como em uso ao ser criado e solta no onCleared (não a
+ * Activity: o ViewModel e as tarefas dele sobrevivem à rotação).
+ */
+public class ItemDetailViewModelFactory implements ViewModelProvider.Factory {
+
+    private final GetItemDetailUseCase getItemDetailUseCase;
+    private final GetItemStateUseCase getItemStateUseCase;
+    private final MutateItemUseCase mutateItemUseCase;
+    private final CatalogRepository catalogRepository;
+    private final String catalogId;
+
+    public ItemDetailViewModelFactory(GetItemDetailUseCase getItemDetailUseCase,
+                                      GetItemStateUseCase getItemStateUseCase,
+                                      MutateItemUseCase mutateItemUseCase,
+                                      CatalogRepository catalogRepository,
+                                      String catalogId) {
+        this.getItemDetailUseCase = getItemDetailUseCase;
+        this.getItemStateUseCase = getItemStateUseCase;
+        this.mutateItemUseCase = mutateItemUseCase;
+        this.catalogRepository = catalogRepository;
+        this.catalogId = catalogId;
+    }
+
+    @Override
+    @NonNull
+    public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
+        if (modelClass.isAssignableFrom(ItemDetailViewModel.class)) {
+            catalogRepository.retain(catalogId);
+            return (T) new ItemDetailViewModel(getItemDetailUseCase, getItemStateUseCase, mutateItemUseCase,
+                    () -> catalogRepository.release(catalogId));
+        }
+        throw new IllegalArgumentException("ViewModel desconhecido");
+    }
+}
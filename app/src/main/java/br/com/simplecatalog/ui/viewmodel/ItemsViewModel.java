@@ -4,12 +4,30 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import br.com.simplecatalog.domain.CancellationToken;
+import br.com.simplecatalog.domain.model.Catalog;
 import br.com.simplecatalog.domain.model.Item;
-import br.com.simplecatalog.domain.usecase.GetItemsUseCase;
+import br.com.simplecatalog.domain.model.ItemState;
+import br.com.simplecatalog.domain.usecase.CatalogUseCases;
+import br.com.simplecatalog.domain.usecase.GetItemDetailUseCase;
+import br.com.simplecatalog.domain.usecase.GetItemStateUseCase;
+import br.com.simplecatalog.domain.usecase.GetItemsPageUseCase;
+import br.com.simplecatalog.domain.usecase.SelectCatalogUseCase;
+import br.com.simplecatalog.perf.Counter;
+import br.com.simplecatalog.perf.PerfTracer;
+import br.com.simplecatalog.repository.ItemStateRepository;
 
 /**
  * ViewModel (MVVM):
@@ -20,56 +38,413 @@ import br.com.simplecatalog.domain.usecase.GetItemsUseCase;
  * Importante:
  * - Não referencia Views, Activity ou Context (mantém desacoplamento)
  * - Operações pesadas (rede/banco) são feitas em background para evitar ANR
+ *
+ * Paginação com prefetch preditivo:
+ * - A lista é carregada em páginas (keyset por id), não de uma vez
+ * - A Activity informa o viewport e a velocidade de rolagem ({@link #onViewportChanged})
+ * - Quanto mais rápida a rolagem, mais itens são pré-carregados à frente do viewport,
+ *   para o usuário nunca alcançar o fim do que já está carregado
+ * - Prefetch que ficou desnecessário (usuário parou ou voltou) é cancelado, mesmo já em andamento
+ *
+ * Cancelamento:
+ * - Cada carga e cada prefetch tem um CancellationToken passado até o Repository
+ *   (corta a chamada HTTP e desfaz escritas não confirmadas)
+ * - Nova carga, troca de catálogo e onCleared() cancelam o que estava em andamento:
+ *   sair da tela não deixa rede/CPU trabalhando para ninguém
+ *
+ * Catálogos:
+ * - {@link #selectCatalog} troca os UseCases para os do catálogo escolhido
+ * - As páginas já carregadas de cada catálogo ficam guardadas (poucos catálogos, LRU):
+ *   voltar para um catálogo mostra a lista na hora, sem recarregar
+ * - O ViewModel é dono dos UseCases do catálogo atual (recebidos já com retain): o catálogo
+ *   anterior só é solto depois que as tarefas que ainda podem usar o banco dele terminarem.
+ *   As páginas guardadas são listas em memória e não prendem o catálogo
+ *
+ * Estado do usuário por item ({@link #getStates()}):
+ * - Favorito/quantidade/nota de cada item editado, para a lista mostrar a linha "rica"
+ * - Relido a cada aviso do repositório (edição no detalhe, confirmação do servidor),
+ *   numa thread própria: não espera atrás de uma página carregando da rede
  */
 public class ItemsViewModel extends ViewModel {
 
-    private final GetItemsUseCase getItemsUseCase;
+    // Tamanho da página (também a menor distância de prefetch)
+    static final int PAGE_SIZE = 30;
+
+    // Quantos segundos de rolagem à frente manter carregados
+    private static final float LOOKAHEAD_SECONDS = 2f;
+
+    // Teto de itens por prefetch (evita uma query enorme num fling muito rápido)
+    private static final int MAX_PREFETCH_ITEMS = PAGE_SIZE * 8;
+
+    // Páginas guardadas de catálogos fora da tela (no máximo este número)
+    private static final int MAX_SAVED_CATALOGS = 3;
+
+    private final SelectCatalogUseCase selectCatalogUseCase;
+
+    // UseCases do catálogo atual (trocados por selectCatalog, protegidos por pageLock)
+    private CatalogUseCases catalogUseCases;
+    private String catalogId;
+    private GetItemsPageUseCase getItemsPageUseCase;
+    private volatile GetItemDetailUseCase getItemDetailUseCase;
+    private volatile GetItemStateUseCase getItemStateUseCase;
+
+    // Estado da paginação de outros catálogos, para a troca ser imediata (protegido por pageLock)
+    private final LinkedHashMap<String, PageState> savedPages =
+            new LinkedHashMap<String, PageState>(MAX_SAVED_CATALOGS + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PageState> eldest) {
+                    return size() > MAX_SAVED_CATALOGS;
+                }
+            };
 
     // Estados observáveis pela UI
     private final MutableLiveData<List<Item>> items = new MutableLiveData<>();
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
     private final MutableLiveData<String> error = new MutableLiveData<>(null);
+    private final MutableLiveData<Map<Long, ItemState>> states = new MutableLiveData<>(Collections.emptyMap());
 
     // Executor simples para rodar tarefas fora da UI thread
+    // (uma thread só: as páginas são carregadas em ordem)
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
 
-    public ItemsViewModel(GetItemsUseCase getItemsUseCase) {
-        this.getItemsUseCase = getItemsUseCase;
+    // Leituras do estado do usuário (uma thread só: a última leitura publicada é a mais nova)
+    private final ExecutorService statesExecutor = Executors.newSingleThreadExecutor();
+    private final ItemStateRepository.Listener stateListener = state -> loadStates();
+
+    // Estado da paginação (protegido por pageLock)
+    private final Object pageLock = new Object();
+    private PagedItemList loaded = PagedItemList.empty(); // páginas anexadas sem copiar (ver PagedItemList)
+    private long lastLoadedId;
+    private boolean endReached = true;
+    private int generation; // muda a cada loadItems(): descarta páginas de cargas antigas
+    private Future<?> pendingPrefetch;
+    private CancellationToken loadToken = CancellationToken.NONE;     // carga da primeira página
+    private CancellationToken prefetchToken = CancellationToken.NONE; // prefetch pendente
+
+    // Último viewport informado pela UI
+    private volatile int lastVisiblePosition = -1;
+    private volatile float scrollVelocity; // itens/segundo (positivo = rolando para baixo)
+
+    public ItemsViewModel(SelectCatalogUseCase selectCatalogUseCase, CatalogUseCases initialCatalog) {
+        this.selectCatalogUseCase = selectCatalogUseCase;
+        this.catalogUseCases = initialCatalog;
+        this.catalogId = initialCatalog.getCatalogId();
+        this.getItemsPageUseCase = initialCatalog.getItemsPage();
+        this.getItemDetailUseCase = initialCatalog.getItemDetail();
+        this.getItemStateUseCase = initialCatalog.getItemState();
+        getItemStateUseCase.addListener(stateListener);
+        loadStates();
     }
 
     // Exposição “read-only” para a UI (boa prática)
     public LiveData<List<Item>> getItems() { return items; }
     public LiveData<Boolean> getLoading() { return loading; }
     public LiveData<String> getError() { return error; }
+    public LiveData<Map<Long, ItemState>> getStates() { return states; }
+
+    // Catálogos disponíveis e o atual (para o seletor da UI)
+    public List<Catalog> getCatalogs() { return selectCatalogUseCase.getCatalogs(); }
+    public String getCatalogId() {
+        synchronized (pageLock) {
+            return catalogId;
+        }
+    }
 
     /**
-     * Carrega itens usando o UseCase.
+     * Carrega a primeira página usando o UseCase.
      * Deve ser chamado pela Activity (ex: onCreate) para iniciar o fluxo.
      */
     public void loadItems() {
         loading.setValue(true);
         error.setValue(null);
 
+        final int loadGeneration;
+        final GetItemsPageUseCase pages;
+        final CancellationToken token;
+        synchronized (pageLock) {
+            cancelInFlight(); // a carga anterior (se houver) não serve mais
+            loadGeneration = ++generation;
+            pages = getItemsPageUseCase;
+            token = new CancellationToken();
+            loadToken = token;
+        }
+
         executor.execute(() -> {
             try {
-                List<Item> result = getItemsUseCase.execute();
-
-                // postValue porque estamos em thread de background
-                items.postValue(result);
+                List<Item> firstPage = pages.execute(0, PAGE_SIZE, token);
+                if (!publishPage(loadGeneration, 0, firstPage, PAGE_SIZE, true)) {
+                    return;
+                }
+                maybePrefetch();
+            } catch (CancellationException e) {
+                // carga abandonada (nova carga, troca de catálogo ou tela destruída): nada a mostrar
             } catch (Exception e) {
                 e.printStackTrace();
                 error.postValue("Falha ao carregar itens.");
             } finally {
-                loading.postValue(false);
+                if (isCurrent(loadGeneration)) {
+                    loading.postValue(false);
+                }
             }
         });
     }
 
+    /**
+     * Troca o catálogo exibido.
+     * Se o catálogo já foi aberto nesta tela, as páginas guardadas voltam na hora;
+     * senão carrega a primeira página (o CatalogManager mantém o banco/API quentes).
+     * Deve ser chamado na UI thread.
+     */
+    public void selectCatalog(String newCatalogId) {
+        PageState restored;
+        CatalogUseCases previous;
+        synchronized (pageLock) {
+            if (newCatalogId.equals(catalogId)) {
+                return;
+            }
+            // guarda o que já foi carregado do catálogo atual (carga pela metade não vale a pena)
+            if (!loaded.isEmpty()) {
+                savedPages.put(catalogId, new PageState(loaded, lastLoadedId, endReached));
+            }
+
+            CatalogUseCases useCases = selectCatalogUseCase.execute(newCatalogId);
+            previous = catalogUseCases;
+            catalogUseCases = useCases;
+            catalogId = newCatalogId;
+            getItemsPageUseCase = useCases.getItemsPage();
+            getItemDetailUseCase = useCases.getItemDetail();
+            getItemStateUseCase.removeListener(stateListener);
+            getItemStateUseCase = useCases.getItemState();
+            getItemStateUseCase.addListener(stateListener);
+
+            cancelInFlight(); // cargas em andamento do catálogo anterior são canceladas/descartadas
+            generation++;
+
+            restored = savedPages.remove(newCatalogId);
+            if (restored != null) {
+                loaded = restored.items;
+                lastLoadedId = restored.lastLoadedId;
+                endReached = restored.endReached;
+            } else {
+                loaded = PagedItemList.empty();
+                endReached = true;
+            }
+            // postValue com o lock, como em publishPage: uma página do catálogo anterior que
+            // passou da checagem de geração não consegue ser entregue depois desta lista
+            items.postValue(loaded);
+        }
+
+        releaseAfterPendingWork(previous);
+
+        states.setValue(Collections.emptyMap()); // não mostra edições do catálogo anterior
+        loadStates();
+
+        if (restored != null) {
+            loading.setValue(false);
+            error.setValue(null);
+            maybePrefetch();
+        } else {
+            loadItems();
+        }
+    }
+
+    /**
+     * Recebe da UI o range visível e a velocidade de rolagem (itens por segundo).
+     * Chamado a cada scroll do RecyclerView. As posições são índices na lista de itens
+     * publicada por {@link #getItems()} (a UI desconta os cabeçalhos de seção).
+     */
+    public void onViewportChanged(int firstVisiblePosition, int lastVisiblePosition, float itemsPerSecond) {
+        this.lastVisiblePosition = lastVisiblePosition;
+        this.scrollVelocity = itemsPerSecond;
+        maybePrefetch();
+    }
+
+    /**
+     * Dedo encostou numa linha: pré-carrega o detalhe para a tela abrir sem esperar a rede.
+     */
+    public void onItemPressed(Item item) {
+        getItemDetailUseCase.prefetch(item.getId());
+    }
+
+    /**
+     * Quantos itens manter carregados além do último visível, conforme a velocidade.
+     */
+    static int prefetchDistance(float itemsPerSecond) {
+        int distance = PAGE_SIZE + (int) (Math.max(0f, itemsPerSecond) * LOOKAHEAD_SECONDS);
+        return Math.min(distance, MAX_PREFETCH_ITEMS);
+    }
+
+    /**
+     * Agenda (ou cancela) o prefetch conforme o viewport atual.
+     * Pode ser chamado da UI thread ou da thread do executor.
+     */
+    private void maybePrefetch() {
+        synchronized (pageLock) {
+            int loadedCount = loaded.size();
+            int wanted = lastVisiblePosition + 1 + prefetchDistance(scrollVelocity);
+
+            if (pendingPrefetch != null && !pendingPrefetch.isDone()) {
+                if (wanted <= loadedCount) {
+                    // não é mais necessário (usuário parou ou voltou): cancela, mesmo em andamento
+                    cancelPendingPrefetch();
+                    PerfTracer.count(Counter.PREFETCH_CANCELLED, 1);
+                }
+                return;
+            }
+            if (endReached || lastVisiblePosition < 0 || wanted <= loadedCount) {
+                return;
+            }
+
+            // arredonda para páginas inteiras
+            int missing = wanted - loadedCount;
+            int limit = Math.min(((missing + PAGE_SIZE - 1) / PAGE_SIZE) * PAGE_SIZE, MAX_PREFETCH_ITEMS);
+            int prefetchGeneration = generation;
+            long afterId = lastLoadedId;
+            GetItemsPageUseCase pages = getItemsPageUseCase;
+            CancellationToken token = new CancellationToken();
+            prefetchToken = token;
+            pendingPrefetch = executor.submit(() -> prefetch(pages, token, prefetchGeneration, afterId, limit));
+            PerfTracer.count(Counter.PREFETCH_REQUESTED, 1);
+        }
+    }
+
+    private void prefetch(GetItemsPageUseCase pages, CancellationToken token,
+                          int prefetchGeneration, long afterId, int limit) {
+        try {
+            List<Item> page = pages.execute(afterId, limit, token);
+            if (publishPage(prefetchGeneration, afterId, page, limit, false)) {
+                maybePrefetch(); // o viewport pode ter andado enquanto a página carregava
+            }
+        } catch (CancellationException e) {
+            // prefetch cancelado: a página não é mais necessária
+        } catch (Exception e) {
+            // prefetch é "melhor esforço": a próxima rolagem tenta de novo
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Anexa a página ao estado atual e publica para a UI.
+     * A lista publicada é uma view nova do PagedItemList: nada do que já estava carregado é copiado.
+     *
+     * @return false se a página ficou obsoleta (outro loadItems() ou outra página já aplicada)
+     */
+    private boolean publishPage(int pageGeneration, long afterId, List<Item> page, int limit, boolean replace) {
+        PagedItemList snapshot;
+        synchronized (pageLock) {
+            if (pageGeneration != generation || (!replace && afterId != lastLoadedId)) {
+                return false;
+            }
+            snapshot = (replace ? PagedItemList.empty() : loaded).append(page);
+            loaded = snapshot;
+            if (!page.isEmpty()) {
+                lastLoadedId = page.get(page.size() - 1).getId();
+            }
+            endReached = page.size() < limit;
+            pendingPrefetch = null;
+            // postValue porque estamos em thread de background; com o lock para a ordem de
+            // entrega ser a mesma das mudanças de estado (ver selectCatalog)
+            items.postValue(snapshot);
+        }
+        return true;
+    }
+
+    /**
+     * Relê o estado do usuário do catálogo atual e publica para a UI.
+     * A primeira leitura de um catálogo vai ao banco, por isso fora da UI thread.
+     */
+    private void loadStates() {
+        if (statesExecutor.isShutdown()) {
+            return; // aviso atrasado do repositório depois do onCleared()
+        }
+        statesExecutor.execute(() -> {
+            try {
+                states.postValue(getItemStateUseCase.getAll());
+            } catch (Exception e) {
+                // sem estado a lista continua funcionando, só sem as linhas "ricas"
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Solta o catálogo depois das tarefas já enfileiradas que podem usar o banco dele:
+     * cargas/prefetch no executor (já canceladas, terminam no próximo ponto de checagem)
+     * e leituras de estado no statesExecutor.
+     */
+    private void releaseAfterPendingWork(CatalogUseCases useCases) {
+        executor.execute(() -> {
+            awaitStatesIdle();
+            selectCatalogUseCase.release(useCases);
+        });
+    }
+
+    // Espera a fila do statesExecutor (até o que já estava nela terminar)
+    private void awaitStatesIdle() {
+        try {
+            if (statesExecutor.isShutdown()) {
+                statesExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } else {
+                statesExecutor.submit(() -> { }).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            // parou entre a checagem e o submit: onCleared() já interrompeu a leitura em andamento
+        }
+    }
+
+    private boolean isCurrent(int loadGeneration) {
+        synchronized (pageLock) {
+            return loadGeneration == generation;
+        }
+    }
+
+    // Deve ser chamado com pageLock
+    private void cancelPendingPrefetch() {
+        if (pendingPrefetch != null) {
+            pendingPrefetch.cancel(false); // ainda na fila: nem começa
+            pendingPrefetch = null;
+        }
+        prefetchToken.cancel();            // já rodando: para no próximo ponto de checagem
+        prefetchToken = CancellationToken.NONE;
+    }
+
+    // Deve ser chamado com pageLock: cancela carga e prefetch em andamento
+    private void cancelInFlight() {
+        loadToken.cancel();
+        loadToken = CancellationToken.NONE;
+        cancelPendingPrefetch();
+    }
+
+    // Páginas já carregadas de um catálogo (imutável)
+    private static final class PageState {
+        final PagedItemList items;
+        final long lastLoadedId;
+        final boolean endReached;
+
+        PageState(PagedItemList items, long lastLoadedId, boolean endReached) {
+            this.items = items;
+            this.lastLoadedId = lastLoadedId;
+            this.endReached = endReached;
+        }
+    }
+
     @Override
     protected void onCleared() {
         super.onCleared();
-        // Libera o executor para não manter threads vivas após a tela morrer
+        // Cancela o que estiver em andamento (HTTP cortado, transação desfeita)
+        CatalogUseCases current;
+        synchronized (pageLock) {
+            generation++;
+            cancelInFlight();
+            current = catalogUseCases;
+        }
+        getItemStateUseCase.removeListener(stateListener);
+        statesExecutor.shutdownNow();
+        // O que ainda está na fila do executor já foi cancelado (termina logo); a última tarefa
+        // solta o catálogo e a thread acaba: sem threads vivas após a tela morrer
+        releaseAfterPendingWork(current);
         executor.shutdown();
     }
 }
-
@@ -4,7 +4,7 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 
-import br.com.simplecatalog.domain.usecase.GetItemsUseCase;
+import br.com.simplecatalog.domain.usecase.SelectCatalogUseCase;
 
 /**
  * Factory responsável por criar o ItemsViewModel com o UseCase injetado no construtor.
@@ -27,11 +27,15 @@ import br.com.simplecatalog.domain.usecase.GetItemsUseCase;
 public class ItemsViewModelFactory implements ViewModelProvider.Factory {
 
     // Guardamos o UseCase que será injetado no ViewModel.
-    private final GetItemsUseCase getItemsUseCase;
+    private final SelectCatalogUseCase selectCatalogUseCase;
+    private final String initialCatalogId;
 
-    // A Activity vai criar a Factory passando o UseCase do AppContainer.
-    public ItemsViewModelFactory(GetItemsUseCase getItemsUseCase) {
-        this.getItemsUseCase = getItemsUseCase;
+    // A Activity vai criar a Factory passando o UseCase do AppContainer
+    // (troca de catálogo) e o catálogo inicial.
+    public ItemsViewModelFactory(SelectCatalogUseCase selectCatalogUseCase,
+                                 String initialCatalogId) {
+        this.selectCatalogUseCase = selectCatalogUseCase;
+        this.initialCatalogId = initialCatalogId;
     }
 
     @Override
@@ -39,8 +43,10 @@ public class ItemsViewModelFactory implements ViewModelProvider.Factory {
     public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
         // Verifica se a Factory foi chamada para o ViewModel correto
         if (modelClass.isAssignableFrom(ItemsViewModel.class)) {
-            // Cria o ViewModel com a dependência do UseCase
-            return (T) new ItemsViewModel(getItemsUseCase); // ← referência direta ao que você queria entender
+            // Cria o ViewModel com a dependência do UseCase. O catálogo inicial é aberto
+            // (execute() = retain) só aqui: recriar a Activity reaproveita o ViewModel e
+            // não marca um uso que ninguém soltaria
+            return (T) new ItemsViewModel(selectCatalogUseCase, selectCatalogUseCase.execute(initialCatalogId));
         }
         throw new IllegalArgumentException("ViewModel desconhecido");
     }
@@ -0,0 +1,119 @@
+package br.com.simplecatalog.ui.viewmodel;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import br.com.simplecatalog.domain.model.Item;
+
+/**
+ * Lista de itens publicada pelo ItemsViewModel: as páginas carregadas, uma atrás da outra.
+ *
+ * - {@link #append} guarda só a referência da página (a LazyItemList do Room continua
+ *   preguiçosa) e devolve uma view nova com o tamanho novo: custo por página, e não
+ *   proporcional a tudo que já foi carregado (copiar a lista inteira a cada prefetch
+ *   ficava quadrático numa rolagem longa)
+ * - Cada view é imutável para quem lê: enxerga só as páginas que existiam quando foi criada,
+ *   mesmo que páginas novas sejam anexadas depois ao mesmo diretório
+ * - get(i) acha a página por busca binária no índice de início de cada página
+ *
+ * As páginas anexadas não podem mudar depois (as do Repository não mudam).
+ * append() é chamado só com o pageLock do ViewModel; as views são lidas na UI thread
+ * (campos final: quem recebe a view enxerga o diretório preenchido até pageCount).
+ */
+final class PagedItemList extends AbstractList<Item> implements RandomAccess {
+
+    private final Directory directory;
+    private final List<?>[] pages;
+    private final int[] starts; // índice (na lista) do primeiro item de cada página
+    private final int pageCount;
+    private final int size;
+
+    private PagedItemList(Directory directory, int size) {
+        this.directory = directory;
+        this.pages = directory.pages;
+        this.starts = directory.starts;
+        this.pageCount = directory.count;
+        this.size = size;
+    }
+
+    // Lista vazia com diretório próprio (um por carga: não é compartilhada entre ViewModels)
+    static PagedItemList empty() {
+        return new PagedItemList(new Directory(8), 0);
+    }
+
+    /**
+     * Nova view com a página no fim. Esta view continua válida e do mesmo tamanho.
+     */
+    PagedItemList append(List<Item> page) {
+        if (page.isEmpty()) {
+            return this;
+        }
+        Directory target = directory;
+        if (pageCount != target.count) {
+            // outra view desta lista já anexou depois de mim: segue num diretório próprio
+            target = target.copyOf(pageCount);
+        }
+        target.add(page, size);
+        return new PagedItemList(target, size + page.size());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Item get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        // última página com início <= index
+        int low = 0;
+        int high = pageCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return ((List<Item>) pages[low]).get(index - starts[low]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Páginas e inícios, crescendo por dobra (o array antigo fica com as views antigas)
+    private static final class Directory {
+        List<?>[] pages;
+        int[] starts;
+        int count;
+
+        Directory(int capacity) {
+            pages = new List<?>[capacity];
+            starts = new int[capacity];
+        }
+
+        void add(List<?> page, int start) {
+            if (count == pages.length) {
+                List<?>[] grownPages = new List<?>[count * 2];
+                int[] grownStarts = new int[count * 2];
+                System.arraycopy(pages, 0, grownPages, 0, count);
+                System.arraycopy(starts, 0, grownStarts, 0, count);
+                pages = grownPages;
+                starts = grownStarts;
+            }
+            pages[count] = page;
+            starts[count] = start;
+            count++;
+        }
+
+        Directory copyOf(int pageCount) {
+            Directory copy = new Directory(Math.max(8, pageCount * 2));
+            System.arraycopy(pages, 0, copy.pages, 0, pageCount);
+            System.arraycopy(starts, 0, copy.starts, 0, pageCount);
+            copy.count = pageCount;
+            return copy;
+        }
+    }
+}
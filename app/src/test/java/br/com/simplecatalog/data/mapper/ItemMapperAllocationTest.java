@@ -0,0 +1,134 @@
+package br.com.simplecatalog.data.mapper;
+
+import com.google.gson.Gson;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.data.remote.dto.ItemDto;
+import br.com.simplecatalog.domain.model.Item;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * "Benchmark" de alocação do ItemMapper: mede bytes alocados pela thread
+ * (com.sun.management.ThreadMXBean) em vez de tempo, que é instável em CI.
+ */
+public class ItemMapperAllocationTest {
+
+    private static final int ROWS = 20_000;
+
+    // Primeira leitura = um Item por linha + a posição dele no Item[] de cache (layout do HotSpot):
+    // - compressed oops (padrão, heap < 32 GB): header 12 + id 8 + 2 refs de 4 + categoryId 8 = 36 → 40
+    //   com padding, + slot de 4 = 44 bytes/linha
+    // - sem compressed oops: header 16 + 8 + 2 refs de 8 + 8 = 48, + slot de 8 = 56 bytes/linha
+    // Teto = medida + 4/8 bytes de folga; passar dele = alguém voltou a alocar algo por linha.
+    private static final long MAX_BYTES_PER_ROW_COMPRESSED_OOPS = 48;
+    private static final long MAX_BYTES_PER_ROW_WIDE_OOPS = 64;
+
+    // Folga para ruído da própria medição (boxing interno do MXBean etc.)
+    private static final long NOISE_BYTES = 16 * 1024;
+
+    private com.sun.management.ThreadMXBean threadBean;
+    private final ItemMapper mapper = new ItemMapper();
+
+    @Before
+    public void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void entitiesToDomain_doesNotAllocatePerRow() {
+        List<ItemEntity> entities = entities(ROWS);
+        mapper.entitiesToDomain(entities); // aquece classes/JIT
+
+        long before = allocatedBytes();
+        List<Item> items = mapper.entitiesToDomain(entities);
+        long allocated = allocatedBytes() - before;
+
+        assertEquals(ROWS, items.size());
+        assertTrue("view alocou " + allocated + " bytes", allocated < NOISE_BYTES);
+    }
+
+    @Test
+    public void rereadingItems_allocatesNothing() {
+        List<Item> items = mapper.entitiesToDomain(entities(ROWS));
+
+        long before = allocatedBytes();
+        long checksum = readAll(items); // primeira leitura: cria os Items (um por linha)
+        long firstRead = allocatedBytes() - before;
+
+        before = allocatedBytes();
+        checksum += readAll(items);     // releitura (ex: rebind do RecyclerView): tudo memoizado
+        long secondRead = allocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertTrue("primeira leitura: " + firstRead + " bytes",
+                firstRead < ROWS * maxBytesPerRowOnFirstRead());
+        assertTrue("releitura: " + secondRead + " bytes", secondRead < NOISE_BYTES);
+        assertSame(items.get(7), items.get(7));
+    }
+
+    @Test
+    public void copyInto_reusesBufferEntities() {
+        ItemEntity[] buffer = mapper.newEntityBuffer(4);
+        ItemEntity first = buffer[0];
+        StringBuilder longBody = new StringBuilder();
+        for (int i = 0; i < ItemMapper.PREVIEW_LENGTH + 10; i++) {
+            longBody.append('x');
+        }
+        ItemDto dto = new Gson().fromJson(
+                "{\"id\":9,\"title\":\"t\",\"body\":\"" + longBody + "\"}", ItemDto.class);
+
+        mapper.copyInto(dto, buffer[0]);
+
+        assertSame(first, buffer[0]);
+        assertEquals(9, buffer[0].getId());
+        assertEquals(ItemMapper.PREVIEW_LENGTH, buffer[0].getSubtitle().length());
+    }
+
+    private static long readAll(List<Item> items) {
+        long sum = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            sum += items.get(i).getId();
+        }
+        return sum;
+    }
+
+    private static long maxBytesPerRowOnFirstRead() {
+        com.sun.management.HotSpotDiagnosticMXBean hotSpot =
+                ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+        try {
+            if (hotSpot != null && !Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue())) {
+                return MAX_BYTES_PER_ROW_WIDE_OOPS;
+            }
+        } catch (IllegalArgumentException e) {
+            // JVM sem a opção: fica com o layout padrão
+        }
+        return MAX_BYTES_PER_ROW_COMPRESSED_OOPS;
+    }
+
+    private long allocatedBytes() {
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static List<ItemEntity> entities(int count) {
+        List<ItemEntity> entities = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            entities.add(new ItemEntity(i, "title " + i, "preview " + i, 0));
+        }
+        return entities;
+    }
+}
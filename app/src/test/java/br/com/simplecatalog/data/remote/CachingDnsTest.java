@@ -0,0 +1,52 @@
+package br.com.simplecatalog.data.remote;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Dns;
+
+import static org.junit.Assert.assertEquals;
+
+public class CachingDnsTest {
+
+    @Test
+    public void lookup_isCachedUntilTtlExpires() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicLong now = new AtomicLong();
+        List<InetAddress> loopback = Collections.singletonList(InetAddress.getLoopbackAddress());
+        Dns delegate = hostname -> {
+            lookups.incrementAndGet();
+            return loopback;
+        };
+        CachingDns dns = new CachingDns(delegate, 1_000, now::get);
+
+        dns.lookup("api.example.com");
+        dns.lookup("api.example.com");
+        assertEquals(1, lookups.get());
+
+        now.set(1_000);
+        dns.lookup("api.example.com");
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void clear_forcesNewLookupWithinTtl() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        List<InetAddress> loopback = Collections.singletonList(InetAddress.getLoopbackAddress());
+        Dns delegate = hostname -> {
+            lookups.incrementAndGet();
+            return loopback;
+        };
+        CachingDns dns = new CachingDns(delegate, 1_000, () -> 0L);
+
+        dns.lookup("api.example.com");
+        dns.clear(); // troca de rede
+        dns.lookup("api.example.com");
+        assertEquals(2, lookups.get());
+    }
+}
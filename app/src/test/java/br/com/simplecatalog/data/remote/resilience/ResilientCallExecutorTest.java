@@ -0,0 +1,207 @@
+package br.com.simplecatalog.data.remote.resilience;
+
+import com.google.gson.JsonSyntaxException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.dto.ItemDto;
+import br.com.simplecatalog.domain.CancellationToken;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Testes da camada de resiliência (retry, circuit breaker e hedge) contra um MockWebServer.
+ */
+public class ResilientCallExecutorTest {
+
+    private MockWebServer server;
+    private ApiService apiService;
+    private CountingResilienceMetrics metrics;
+    private final AtomicLong now = new AtomicLong();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+        metrics = new CountingResilienceMetrics();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void serverErrors_areRetriedUntilSuccess() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("[]"));
+        ResilientCallExecutor executor = executor(new RetryPolicy(3, 1, 5), breaker(10), HedgePolicy.DISABLED);
+
+        Response<List<ItemDto>> response = executor.execute(apiService.getItems());
+
+        assertTrue(response.isSuccessful());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, metrics.count(ResilienceMetrics.Outcome.RETRY));
+        assertEquals(1, metrics.count(ResilienceMetrics.Outcome.SUCCESS_AFTER_RETRY));
+    }
+
+    @Test
+    public void clientError_isNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        ResilientCallExecutor executor = executor(new RetryPolicy(3, 1, 5), breaker(10), HedgePolicy.DISABLED);
+
+        Response<List<ItemDto>> response = executor.execute(apiService.getItems());
+
+        assertEquals(404, response.code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void openCircuit_shortCircuitsUntilProbeSucceeds() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        CircuitBreaker breaker = breaker(2);
+        ResilientCallExecutor executor = executor(RetryPolicy.NONE, breaker, HedgePolicy.DISABLED);
+
+        executor.execute(apiService.getItems());
+        executor.execute(apiService.getItems());
+        try {
+            executor.execute(apiService.getItems());
+            fail("Esperava CircuitOpenException");
+        } catch (CircuitOpenException expected) {
+            // backend não foi chamado
+        }
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, metrics.count(ResilienceMetrics.Outcome.SHORT_CIRCUITED));
+
+        // passado o tempo de abertura, uma chamada de teste fecha o circuito
+        now.addAndGet(60_000);
+        server.enqueue(new MockResponse().setBody("[]"));
+        assertTrue(executor.execute(apiService.getItems()).isSuccessful());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void cancelledProbe_releasesHalfOpenSlot() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        CircuitBreaker breaker = breaker(1);
+        ResilientCallExecutor executor = executor(RetryPolicy.NONE, breaker, HedgePolicy.DISABLED);
+        executor.execute(apiService.getItems());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // HALF_OPEN: a chamada de teste fica presa no servidor e é cancelada
+        now.addAndGet(60_000);
+        server.enqueue(new MockResponse().setBody("[]").setHeadersDelay(5, TimeUnit.SECONDS));
+        CancellationToken token = new CancellationToken();
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignored) {
+                // segue e cancela
+            }
+            token.cancel();
+        });
+        canceller.start();
+        try {
+            executor.execute(apiService.getItems(), token);
+            fail("Esperava CancellationException");
+        } catch (CancellationException expected) {
+            // cancelada: não é sucesso nem falha do backend
+        }
+        canceller.join();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // a vaga da chamada de teste voltou: a próxima chamada sai (e fecha o circuito)
+        server.enqueue(new MockResponse().setBody("[]"));
+        assertTrue(executor.execute(apiService.getItems()).isSuccessful());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, metrics.count(ResilienceMetrics.Outcome.SHORT_CIRCUITED));
+    }
+
+    @Test
+    public void slowPrimary_isHedgedAndFasterResponseWins() throws Exception {
+        server.enqueue(new MockResponse().setBody("[]").setHeadersDelay(3, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody("[]"));
+        ResilientCallExecutor executor = executor(
+                RetryPolicy.NONE, breaker(10), HedgePolicy.atPercentile(0.95, 100, 0));
+
+        long start = System.nanoTime();
+        Response<List<ItemDto>> response = executor.execute(apiService.getItems());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(response.isSuccessful());
+        assertTrue("Demorou " + elapsedMillis + "ms", elapsedMillis < 2_000);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, metrics.count(ResilienceMetrics.Outcome.HEDGE_SENT));
+    }
+
+    @Test
+    public void malformedBody_isNotANetworkFailure() throws Exception {
+        assertMalformedBodyPropagates(HedgePolicy.DISABLED);
+    }
+
+    @Test
+    public void malformedBody_isNotANetworkFailure_whenHedged() throws Exception {
+        assertMalformedBodyPropagates(HedgePolicy.atPercentile(0.95, 100, 0)); // hedge armado desde a 1ª chamada
+    }
+
+    @Test
+    public void backoff_isBoundedByMaxDelay() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1_000);
+        Random random = new Random(42);
+        for (int retry = 1; retry <= 10; retry++) {
+            long delay = policy.backoffMillis(retry, random);
+            assertTrue(delay >= 0 && delay <= 1_000);
+        }
+    }
+
+    // Mesma classificação com e sem hedge: a exceção do Gson sobe como está, sem retry nem falha no breaker
+    private void assertMalformedBodyPropagates(HedgePolicy hedge) throws Exception {
+        // id não numérico: o Gson lança JsonSyntaxException ao converter o corpo
+        server.enqueue(new MockResponse().setBody("[{\"id\":\"abc\"}]"));
+        server.enqueue(new MockResponse().setBody("[]")); // só seria usada por um retry
+        CircuitBreaker breaker = breaker(1);
+        ResilientCallExecutor executor = executor(new RetryPolicy(3, 1, 5), breaker, hedge);
+
+        try {
+            executor.execute(apiService.getItems());
+            fail("Esperava JsonSyntaxException");
+        } catch (JsonSyntaxException expected) {
+            // não embrulhada em IOException
+        }
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, metrics.count(ResilienceMetrics.Outcome.RETRY));
+    }
+
+    private CircuitBreaker breaker(int failureThreshold) {
+        return new CircuitBreaker(failureThreshold, 30_000, now::get);
+    }
+
+    private ResilientCallExecutor executor(RetryPolicy retry, CircuitBreaker breaker, HedgePolicy hedge) {
+        return new ResilientCallExecutor(retry, hedge, breaker, metrics);
+    }
+}
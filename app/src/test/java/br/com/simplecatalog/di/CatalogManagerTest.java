@@ -0,0 +1,217 @@
+package br.com.simplecatalog.di;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import br.com.simplecatalog.domain.model.Catalog;
+import br.com.simplecatalog.domain.usecase.CatalogUseCases;
+import br.com.simplecatalog.domain.usecase.SelectCatalogUseCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ciclo de vida dos catálogos no CatalogManager, com componentes falsos (sem Room)
+ * e arquivos de banco num diretório temporário.
+ */
+public class CatalogManagerTest {
+
+    private static final long KB = 1024;
+
+    private final Map<String, FakeComponent> created = new HashMap<>();
+    private final QueueExecutor background = new QueueExecutor();
+    private File dir;
+    private CatalogManager manager;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("catalogs").toFile();
+        manager = newManager(new CatalogManager.Budgets(2, 1000, 10 * KB));
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void eviction_closesIdleCatalog_afterQueuedBackgroundWork() {
+        manager.open("a");
+        manager.open("b"); // limite de 2: "a" esfria (o padrão nunca)
+
+        FakeComponent a = created.get("a");
+        assertFalse(a.closed); // close() vai para o background, atrás do que já estava na fila
+        background.runAll();
+        assertTrue(a.closed);
+        assertFalse(created.get("default").closed);
+    }
+
+    @Test
+    public void eviction_ofRetainedCatalog_waitsForLastRelease() {
+        manager.retain("a");
+        manager.retain("a");
+        manager.open("b");
+        background.runAll();
+
+        FakeComponent a = created.get("a");
+        assertFalse(a.closed); // esfriou, mas ainda em uso
+
+        manager.release("a");
+        background.runAll();
+        assertFalse(a.closed);
+
+        manager.release("a");
+        background.runAll();
+        assertTrue(a.closed);
+    }
+
+    @Test
+    public void reopeningRetiredCatalog_reusesSameComponent() {
+        manager.retain("a");
+        manager.open("b"); // "a" aposentado, ainda em uso
+
+        assertSame(created.get("a"), manager.open("a")); // nunca dois bancos no mesmo arquivo
+        manager.release("a");
+        background.runAll();
+        assertFalse(created.get("a").closed); // voltou a ser quente: release não fecha
+
+        manager.open("b"); // "a" esfria de novo, agora sem uso
+        background.runAll();
+        assertTrue(created.get("a").closed);
+        assertNotSame(created.get("a"), manager.open("a"));
+    }
+
+    @Test
+    public void selectCatalog_holdsCatalogUntilUseCasesAreReleased() {
+        SelectCatalogUseCase selectCatalog = new SelectCatalogUseCase(manager);
+
+        CatalogUseCases useCases = selectCatalog.execute("a");
+        assertEquals("a", useCases.getCatalogId());
+        manager.open("b");
+        background.runAll();
+        assertFalse(created.get("a").closed);
+
+        selectCatalog.release(useCases);
+        background.runAll();
+        assertTrue(created.get("a").closed);
+    }
+
+    @Test
+    public void trimDisk_deletesOldestClosedDatabases_keepsOpenOnes() throws IOException {
+        databaseFile("a", 4 * KB, 1_000);
+        databaseFile("b", 4 * KB, 2_000);
+        databaseFile("c", 4 * KB, 3_000);
+        File defaultDb = databaseFile("default", 4 * KB, 0); // o mais antigo, mas aberto
+
+        manager.open("c");
+        background.runAll(); // 16 KB > 10 KB: apaga "a" e "b" (frios), nunca os abertos
+
+        assertFalse(new File(dir, "simplecatalog-a.db").exists());
+        assertFalse(new File(dir, "simplecatalog-b.db").exists());
+        assertTrue(new File(dir, "simplecatalog-c.db").exists());
+        assertTrue(defaultDb.exists());
+    }
+
+    @Test
+    public void trimDisk_withinBudget_deletesNothing() throws IOException {
+        databaseFile("a", 2 * KB, 1_000);
+        databaseFile("b", 2 * KB, 2_000);
+
+        manager.open("a");
+        background.runAll();
+
+        assertTrue(new File(dir, "simplecatalog-a.db").exists());
+        assertTrue(new File(dir, "simplecatalog-b.db").exists());
+    }
+
+    private CatalogManager newManager(CatalogManager.Budgets budgets) {
+        CatalogRegistry registry = new CatalogRegistry(Arrays.asList(
+                catalog(CatalogRegistry.DEFAULT_ID), catalog("a"), catalog("b"), catalog("c")));
+        CatalogManager.Environment environment = new CatalogManager.Environment() {
+            @Override
+            public CatalogComponent create(Catalog catalog, boolean isDefault) {
+                FakeComponent component = new FakeComponent(catalog);
+                created.put(catalog.getId(), component);
+                return component;
+            }
+
+            @Override
+            public File databaseFile(String name) {
+                return new File(dir, name);
+            }
+
+            @Override
+            public void deleteDatabase(String name) {
+                new File(dir, name).delete();
+            }
+        };
+        CatalogManager catalogManager = new CatalogManager(registry, environment, background, budgets);
+        catalogManager.open(CatalogRegistry.DEFAULT_ID); // como o AppContainer
+        background.runAll();
+        return catalogManager;
+    }
+
+    private File databaseFile(String catalogId, long bytes, long lastModified) throws IOException {
+        String name = CatalogRegistry.DEFAULT_ID.equals(catalogId)
+                ? "simplecatalog.db" : "simplecatalog-" + catalogId + ".db";
+        File file = new File(dir, name);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(bytes);
+        }
+        assertTrue(file.setLastModified(lastModified + 1_000_000));
+        return file;
+    }
+
+    private static Catalog catalog(String id) {
+        return new Catalog(id, id, "https://" + id + ".example.com/", 1, 1, KB);
+    }
+
+    private static final class FakeComponent extends CatalogComponent {
+        boolean closed;
+
+        FakeComponent(Catalog catalog) {
+            super(catalog, null, null, null);
+        }
+
+        @Override
+        void close() {
+            assertFalse("fechado duas vezes", closed);
+            closed = true;
+        }
+    }
+
+    // backgroundExecutor controlado pelo teste (uma "thread" que só anda quando mandamos)
+    private static final class QueueExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.simplecatalog.perf;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles_followBucketUpperBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(100);     // bucket [64, 128)
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(10_000);  // bucket [8192, 16384)
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(10_000, histogram.getMaxMicros());
+        assertEquals(127, histogram.percentileMicros(0.50));
+        assertEquals(16_383, histogram.percentileMicros(0.95));
+    }
+
+    @Test
+    public void hugeSamples_fallInLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE / 2);
+        assertTrue(histogram.percentileMicros(1.0) > 0);
+    }
+}
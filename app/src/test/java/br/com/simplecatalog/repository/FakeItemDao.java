@@ -0,0 +1,66 @@
+package br.com.simplecatalog.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import br.com.simplecatalog.data.local.dao.ItemDao;
+import br.com.simplecatalog.data.local.entity.ItemEntity;
+
+/**
+ * ItemDao em memória para testes unitários do Repository (sem Room/SQLite).
+ * Mantém a ordem por id, como a tabela items.
+ */
+class FakeItemDao implements ItemDao {
+
+    final TreeMap<Long, ItemEntity> rows = new TreeMap<>();
+
+    @Override
+    public synchronized List<ItemEntity> getAll() {
+        return new ArrayList<>(rows.values());
+    }
+
+    @Override
+    public synchronized ItemEntity getById(long id) {
+        return rows.get(id);
+    }
+
+    @Override
+    public synchronized List<ItemEntity> getPageAfter(long afterId, int limit) {
+        List<ItemEntity> page = new ArrayList<>();
+        for (ItemEntity entity : rows.tailMap(afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(entity);
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized void insertAll(List<ItemEntity> items) {
+        for (ItemEntity item : items) {
+            rows.put(item.getId(), item);
+        }
+    }
+
+    @Override
+    public synchronized void insertBatch(ItemEntity[] items) {
+        // copia como o Room faria: o repositório reaproveita as Entities entre lotes
+        for (ItemEntity item : items) {
+            rows.put(item.getId(), new ItemEntity(item.getId(), item.getTitle(), item.getSubtitle(), item.getCategoryId()));
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        rows.clear();
+    }
+
+    @Override
+    public synchronized void deleteByIds(List<Long> ids) {
+        for (Long id : ids) {
+            rows.remove(id);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.simplecatalog.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.simplecatalog.data.local.dao.ItemDetailDao;
+import br.com.simplecatalog.data.local.entity.ItemDetailEntity;
+
+/**
+ * ItemDetailDao em memória para testes unitários do Repository
+ * (mesma ordem de despejo das queries: menos acessado primeiro, no empate o mais antigo).
+ */
+class FakeItemDetailDao implements ItemDetailDao {
+
+    private static final Comparator<ItemDetailEntity> COLDEST_FIRST =
+            Comparator.comparingInt(ItemDetailEntity::getAccessCount)
+                    .thenComparingLong(ItemDetailEntity::getLastAccessed);
+
+    final Map<Long, ItemDetailEntity> rows = new LinkedHashMap<>();
+
+    // Quantas vezes o total foi somado (cada soma é uma varredura da tabela no Room)
+    int totalBodyBytesCalls;
+
+    @Override
+    public synchronized ItemDetailEntity getById(long id) {
+        return rows.get(id);
+    }
+
+    @Override
+    public synchronized Long getBodyBytes(long id) {
+        ItemDetailEntity row = rows.get(id);
+        return row != null ? row.getBodyBytes() : null;
+    }
+
+    @Override
+    public synchronized void insert(ItemDetailEntity detail) {
+        rows.put(detail.getId(), detail);
+    }
+
+    @Override
+    public synchronized void recordAccess(long id, long now) {
+        ItemDetailEntity row = rows.get(id);
+        if (row != null) {
+            row.setLastAccessed(now);
+            row.setAccessCount(row.getAccessCount() + 1);
+        }
+    }
+
+    @Override
+    public synchronized void raiseAccessCount(long id, int count) {
+        ItemDetailEntity row = rows.get(id);
+        if (row != null) {
+            row.setAccessCount(Math.max(row.getAccessCount(), count));
+        }
+    }
+
+    @Override
+    public synchronized void ageAccessCounts() {
+        for (ItemDetailEntity row : rows.values()) {
+            row.setAccessCount(row.getAccessCount() / 2);
+        }
+    }
+
+    @Override
+    public synchronized List<ItemDetailEntity> getMostAccessed(int limit) {
+        List<ItemDetailEntity> sorted = new ArrayList<>(rows.values());
+        sorted.sort(COLDEST_FIRST.reversed());
+        return new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size())));
+    }
+
+    @Override
+    public synchronized Long getColdestId() {
+        return rows.values().stream().min(COLDEST_FIRST).map(ItemDetailEntity::getId).orElse(null);
+    }
+
+    @Override
+    public synchronized long totalBodyBytes() {
+        totalBodyBytesCalls++;
+        return bytesStored();
+    }
+
+    // Soma sem contar como chamada do repositório (para as asserções dos testes)
+    synchronized long bytesStored() {
+        long total = 0;
+        for (ItemDetailEntity row : rows.values()) {
+            total += row.getBodyBytes();
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized int count() {
+        return rows.size();
+    }
+
+    @Override
+    public synchronized List<StoredSize> getColdest(int count) {
+        List<ItemDetailEntity> sorted = new ArrayList<>(rows.values());
+        sorted.sort(COLDEST_FIRST);
+        List<StoredSize> coldest = new ArrayList<>();
+        for (ItemDetailEntity row : sorted.subList(0, Math.min(count, sorted.size()))) {
+            StoredSize size = new StoredSize();
+            size.id = row.getId();
+            size.bodyBytes = row.getBodyBytes();
+            coldest.add(size);
+        }
+        return coldest;
+    }
+
+    @Override
+    public synchronized void deleteByIds(List<Long> ids) {
+        for (Long id : ids) {
+            rows.remove(id);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        rows.clear();
+    }
+}
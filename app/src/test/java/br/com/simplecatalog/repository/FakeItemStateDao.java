@@ -0,0 +1,40 @@
+package br.com.simplecatalog.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.simplecatalog.data.local.dao.ItemStateDao;
+import br.com.simplecatalog.data.local.entity.ItemStateEntity;
+
+/**
+ * ItemStateDao em memória para testes unitários do Repository.
+ */
+class FakeItemStateDao implements ItemStateDao {
+
+    final Map<Long, ItemStateEntity> rows = new HashMap<>();
+
+    @Override
+    public synchronized List<ItemStateEntity> getAll() {
+        return new ArrayList<>(rows.values());
+    }
+
+    @Override
+    public synchronized ItemStateEntity getById(long itemId) {
+        return rows.get(itemId);
+    }
+
+    @Override
+    public synchronized void upsert(ItemStateEntity state) {
+        rows.put(state.getItemId(), state);
+    }
+
+    @Override
+    public synchronized void setVersion(long itemId, long version) {
+        ItemStateEntity row = rows.get(itemId);
+        if (row != null) {
+            row.setVersion(Math.max(row.getVersion(), version));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.simplecatalog.repository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import br.com.simplecatalog.data.local.dao.OutboxDao;
+import br.com.simplecatalog.data.local.entity.OutboxEntity;
+
+/**
+ * OutboxDao em memória para testes unitários do Repository.
+ * Imita o Room: seq autoincremento e REPLACE pelo índice único (item_id, field).
+ */
+class FakeOutboxDao implements OutboxDao {
+
+    final TreeMap<Long, OutboxEntity> rows = new TreeMap<>();
+    private long nextSeq = 1;
+
+    @Override
+    public synchronized void enqueue(OutboxEntity mutation) {
+        Iterator<OutboxEntity> iterator = rows.values().iterator();
+        while (iterator.hasNext()) {
+            OutboxEntity row = iterator.next();
+            if (row.getItemId() == mutation.getItemId() && row.getField().equals(mutation.getField())) {
+                iterator.remove();
+            }
+        }
+        long seq = nextSeq++;
+        rows.put(seq, new OutboxEntity(seq, mutation.getItemId(), mutation.getField(), mutation.getValue(),
+                mutation.getBaseVersion(), mutation.getUpdatedAt()));
+    }
+
+    @Override
+    public synchronized List<OutboxEntity> getBatch(int limit) {
+        List<OutboxEntity> batch = new ArrayList<>();
+        for (OutboxEntity row : rows.values()) {
+            if (batch.size() == limit) {
+                break;
+            }
+            batch.add(row);
+        }
+        return batch;
+    }
+
+    @Override
+    public synchronized int delete(long seq) {
+        return rows.remove(seq) != null ? 1 : 0;
+    }
+
+    @Override
+    public synchronized void rebase(long seq, long baseVersion) {
+        OutboxEntity row = rows.get(seq);
+        if (row != null) {
+            row.setBaseVersion(baseVersion);
+        }
+    }
+
+    @Override
+    public synchronized List<Long> getPendingItemIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (OutboxEntity row : rows.values()) {
+            ids.add(row.getItemId());
+        }
+        return new ArrayList<>(ids);
+    }
+
+    @Override
+    public synchronized int countForItem(long itemId) {
+        int count = 0;
+        for (OutboxEntity row : rows.values()) {
+            if (row.getItemId() == itemId) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.simplecatalog.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import br.com.simplecatalog.data.local.dao.SyncStateDao;
+import br.com.simplecatalog.data.local.entity.SyncStateEntity;
+
+/**
+ * SyncStateDao em memória para testes unitários do Repository.
+ */
+class FakeSyncStateDao implements SyncStateDao {
+
+    final Map<String, String> cursors = new HashMap<>();
+
+    @Override
+    public synchronized String getCursor(String resource) {
+        return cursors.get(resource);
+    }
+
+    @Override
+    public synchronized void save(SyncStateEntity state) {
+        cursors.put(state.getResource(), state.getCursor());
+    }
+
+    @Override
+    public synchronized void clear(String resource) {
+        cursors.remove(resource);
+    }
+}
@@ -0,0 +1,257 @@
+package br.com.simplecatalog.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import br.com.simplecatalog.data.local.entity.ItemDetailEntity;
+import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Camadas do ItemDetailRepositoryImpl (hot set, memória, disco, API) contra um servidor
+ * falso de detalhe: admissão no disco, troca no hot set, limpeza do disco e invalidação.
+ * Todos os corpos têm 8 bytes, então o orçamento do disco é contado em "detalhes".
+ */
+public class ItemDetailRepositoryImplTest {
+
+    private static final int BODY_BYTES = 8;
+
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private final Map<Long, String> bodies = new ConcurrentHashMap<>();
+    private final Set<Long> malformed = ConcurrentHashMap.newKeySet();
+    private volatile Runnable onRequest = () -> { };
+
+    private MockWebServer server;
+    private ApiService apiService;
+    private FakeItemDetailDao detailDao;
+    private final FakeItemDao itemDao = new FakeItemDao();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                requests.add(request.getPath());
+                onRequest.run();
+                long id = Long.parseLong(request.getPath().substring("/posts/".length()));
+                if (malformed.contains(id)) {
+                    // id não numérico: o Gson lança JsonSyntaxException (RuntimeException, não IOException)
+                    return new MockResponse().setBody("{\"id\":\"abc\",\"title\":\"Item\"}");
+                }
+                return new MockResponse().setBody("{\"id\":" + id + ",\"title\":\"Item " + id + "\","
+                        + "\"body\":\"" + body(id) + "\"}");
+            }
+        });
+        server.start();
+
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+        detailDao = new FakeItemDetailDao();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void diskFull_rejectsOneHitItem_keepsPopularVictim() {
+        ItemDetailRepositoryImpl repository = newRepository(0, 1, BODY_BYTES); // cabe 1 detalhe
+        for (int i = 0; i < 3; i++) {
+            repository.getItemDetail(1); // 1x da rede (vai ao disco), 2x da memória
+        }
+
+        // disco cheio: o 2 (aberto 1 vez) não expulsa o 1 (aberto 3 vezes)
+        assertEquals(body(2), repository.getItemDetail(2).getBody());
+        assertNotNull(detailDao.getById(1));
+        assertNull(detailDao.getById(2));
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void diskFull_admitsItemMoreFrequentThanVictim_andDropsOnlyTheVictim() {
+        fillDisk(40); // nunca abertos nesta sessão: frequência 0 no sketch
+        ItemDetailRepositoryImpl repository = newRepository(0, 1, 40 * BODY_BYTES);
+
+        repository.getItemDetail(1);
+
+        assertNotNull(detailDao.getById(1));
+        assertNull(detailDao.getById(100)); // o mais antigo saiu para dar lugar
+        assertEquals(40, detailDao.rows.size());
+        assertEquals(40 * BODY_BYTES, detailDao.bytesStored());
+    }
+
+    @Test
+    public void trimDisk_farOverBudget_deletesColdestUntilItFits() {
+        fillDisk(80); // orçamento caiu pela metade (ex.: configuração do catálogo mudou)
+        ItemDetailRepositoryImpl repository = newRepository(0, 1, 40 * BODY_BYTES);
+
+        repository.getItemDetail(1); // 81 no disco: mais de um passo de limpeza
+
+        assertEquals(40 * BODY_BYTES, detailDao.bytesStored()); // nem acima, nem apagou demais
+        assertNotNull(detailDao.getById(1)); // recém-admitido (mais acessado) fica
+        for (long id = 100; id < 141; id++) {
+            assertNull("deveria ter saído: " + id, detailDao.getById(id));
+        }
+        for (long id = 141; id < 180; id++) {
+            assertNotNull("deveria ficar: " + id, detailDao.getById(id));
+        }
+    }
+
+    @Test
+    public void diskUsage_isKeptInMemory_andReloadedOnlyAfterSync() {
+        fillDisk(10);
+        ItemDetailRepositoryImpl repository = newRepository(0, 1, 12 * BODY_BYTES);
+
+        for (long id = 1; id <= 5; id++) {
+            repository.getItemDetail(id); // 3 cabem, depois cada novo troca com o mais frio
+        }
+        assertEquals(1, detailDao.totalBodyBytesCalls); // só a carga inicial somou a tabela
+        assertEquals(12 * BODY_BYTES, detailDao.bytesStored());
+
+        detailDao.deleteByIds(List.of(1L, 2L)); // o sync apaga por fora e avisa
+        repository.onItemsChanged(List.of(1L, 2L));
+        repository.getItemDetail(6);
+        repository.getItemDetail(7);
+
+        assertEquals(2, detailDao.totalBodyBytesCalls);
+        assertEquals(12 * BODY_BYTES, detailDao.bytesStored()); // cabe de novo sem apagar além do preciso
+        assertEquals(12, detailDao.rows.size());
+    }
+
+    @Test
+    public void hotSet_swapsOnlyForMoreFrequentItem_andSurvivesLruChurn() {
+        // 1 vaga no hot set, 1 na memória, sem disco: o que sair dos dois volta para a rede
+        ItemDetailRepositoryImpl repository = newRepository(1, 1, 0);
+
+        repository.getItemDetail(1); // vaga livre: 1 entra no hot set
+        repository.getItemDetail(2); // empate (1 x 1): fica na memória
+        repository.getItemDetail(2); // 2 x 1: troca, o 1 volta para a memória
+        repository.getItemDetail(3); // LRU: o 3 tira o 1 da memória
+
+        repository.getItemDetail(2); // hot set: sem rede
+        repository.getItemDetail(1); // saiu de tudo: rede de novo
+
+        assertEquals(List.of("/posts/1", "/posts/2", "/posts/3", "/posts/1"), List.copyOf(requests));
+    }
+
+    @Test
+    public void onItemsChanged_dropsHotAndMemoryCopies() {
+        ItemDetailRepositoryImpl repository = newRepository(1, 4, 0);
+        repository.getItemDetail(1); // hot set
+        repository.getItemDetail(2); // memória
+        repository.getItemDetail(3); // memória
+
+        bodies.put(1L, "novo-001");
+        bodies.put(2L, "novo-002");
+        repository.onItemsChanged(List.of(1L, 2L)); // o sync já apagou as linhas do disco
+
+        assertEquals("novo-001", repository.getItemDetail(1).getBody());
+        assertEquals("novo-002", repository.getItemDetail(2).getBody());
+        assertEquals(body(3), repository.getItemDetail(3).getBody()); // não mudou: continua em memória
+        assertEquals(5, requests.size());
+    }
+
+    @Test
+    public void onAllItemsChanged_dropsEverything() {
+        ItemDetailRepositoryImpl repository = newRepository(1, 4, 0);
+        repository.getItemDetail(1);
+        repository.getItemDetail(2);
+
+        repository.onAllItemsChanged();
+        repository.getItemDetail(1);
+        repository.getItemDetail(2);
+
+        assertEquals(4, requests.size());
+    }
+
+    @Test
+    public void loadRacingWithInvalidation_isReturnedButNotCached() {
+        ItemDetailRepositoryImpl repository = newRepository(1, 4, 0);
+        onRequest = () -> {
+            onRequest = () -> { };
+            repository.onItemsChanged(List.of(1L)); // sync terminou com a resposta ainda na rede
+        };
+
+        assertEquals(body(1), repository.getItemDetail(1).getBody());
+        bodies.put(1L, "novo-001");
+
+        assertEquals("novo-001", repository.getItemDetail(1).getBody()); // não ficou a versão velha
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void malformedResponse_fallsBackToPreview_andIsNotCached() {
+        itemDao.rows.put(1L, new ItemEntity(1, "Item 1", "preview", 0));
+        malformed.add(1L);
+        ItemDetailRepositoryImpl repository = newRepository(1, 4, 4 * BODY_BYTES);
+
+        assertEquals("preview", repository.getItemDetail(1).getBody());
+        assertNull(detailDao.getById(1));
+
+        malformed.remove(1L);
+        assertEquals(body(1), repository.getItemDetail(1).getBody()); // preview não ficou em cache
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void prefetch_failure_doesNotEscapeToTheExecutor() {
+        FakeItemDetailDao brokenDao = new FakeItemDetailDao() {
+            @Override
+            public synchronized ItemDetailEntity getById(long id) {
+                throw new IllegalStateException("disco com problema");
+            }
+        };
+        // Runnable::run: uma exceção que escapasse do prefetch chegaria até aqui
+        ItemDetailRepositoryImpl repository = new ItemDetailRepositoryImpl(
+                apiService, ResilientCallExecutor.direct(), itemDao, brokenDao,
+                new ItemMapper(), Runnable::run, 1, 4, 0);
+
+        repository.prefetch(1);
+        repository.prefetch(1); // nada ficou preso em andamento
+
+        assertEquals(0, requests.size());
+    }
+
+    private ItemDetailRepositoryImpl newRepository(int hotEntries, int memoryEntries, long diskBytes) {
+        return new ItemDetailRepositoryImpl(
+                apiService, ResilientCallExecutor.direct(), itemDao, detailDao,
+                new ItemMapper(), Runnable::run, hotEntries, memoryEntries, diskBytes);
+    }
+
+    // Linhas antigas no disco com ids 100.., todas com access_count 0 (a mais antiga primeiro)
+    private void fillDisk(int rows) {
+        for (int i = 0; i < rows; i++) {
+            detailDao.insert(new ItemDetailEntity(100 + i, "antigo-" + (char) ('A' + i % 26), i, 0));
+        }
+    }
+
+    private String body(long id) {
+        String body = bodies.get(id);
+        return body != null ? body : String.format("corpo-%02d", id);
+    }
+}
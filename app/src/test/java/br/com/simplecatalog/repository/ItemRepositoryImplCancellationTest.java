@@ -0,0 +1,191 @@
+package br.com.simplecatalog.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.domain.CancellationToken;
+import br.com.simplecatalog.domain.model.Item;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Cancelamento no ItemRepositoryImpl: token cancelado corta a rede e não deixa
+ * escrita pela metade (a transação é desfeita, cache e cursor ficam como estavam).
+ */
+public class ItemRepositoryImplCancellationTest {
+
+    private static final int CATALOG_SIZE = 600; // mais de um lote de INSERT_CHUNK
+
+    private MockWebServer server;
+    private FakeSyncStateDao syncStateDao;
+    private ItemRepositoryImpl repository;
+    private final AtomicInteger version = new AtomicInteger();
+    private volatile long bodyDelayMillis;
+
+    // cancelado pelo DAO depois do primeiro lote gravado (null = não cancela)
+    private volatile CancellationToken cancelAfterFirstBatch;
+    private final FakeItemDao itemDao = new FakeItemDao() {
+        @Override
+        public synchronized void insertBatch(ItemEntity[] items) {
+            super.insertBatch(items);
+            CancellationToken token = cancelAfterFirstBatch;
+            if (token != null) {
+                token.cancel();
+            }
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setBody(snapshotJson(version.incrementAndGet()))
+                        .setBodyDelay(bodyDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+
+        ApiService apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+
+        syncStateDao = new FakeSyncStateDao();
+        // como o Room: exceção dentro da transação desfaz tudo o que ela escreveu
+        repository = new ItemRepositoryImpl(
+                apiService, ResilientCallExecutor.direct(), itemDao, new FakeItemDetailDao(), syncStateDao,
+                writes -> {
+                    synchronized (itemDao) {
+                        TreeMap<Long, ItemEntity> rowsBefore = new TreeMap<>(itemDao.rows);
+                        Map<String, String> cursorsBefore = new HashMap<>(syncStateDao.cursors);
+                        try {
+                            writes.run();
+                        } catch (RuntimeException e) {
+                            itemDao.rows.clear();
+                            itemDao.rows.putAll(rowsBefore);
+                            syncStateDao.cursors.clear();
+                            syncStateDao.cursors.putAll(cursorsBefore);
+                            throw e;
+                        }
+                    }
+                },
+                new ItemMapper());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void alreadyCancelled_doesNotTouchNetwork() throws Exception {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        try {
+            repository.getItems(token);
+            fail("esperava CancellationException");
+        } catch (CancellationException expected) {
+            // ok
+        }
+        assertEquals(0, server.getRequestCount());
+        assertTrue(itemDao.rows.isEmpty());
+    }
+
+    @Test
+    public void cancelDuringSlowResponse_abortsQuickly_andKeepsCache() throws Exception {
+        repository.getItems(); // cache inicial (v1)
+        String cursor = syncStateDao.cursors.get("items");
+
+        bodyDelayMillis = 10_000; // resposta que nunca chegaria a tempo
+        CancellationToken token = new CancellationToken();
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignored) {
+                // sai e cancela
+            }
+            token.cancel();
+        }).start();
+
+        long start = System.nanoTime();
+        try {
+            repository.refresh(token);
+            fail("esperava CancellationException");
+        } catch (CancellationException expected) {
+            // ok
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("cancelamento demorou " + elapsedMillis + " ms", elapsedMillis < 2_000);
+        assertSnapshot(repository.getItems(), "v1");
+        assertEquals(cursor, syncStateDao.cursors.get("items"));
+    }
+
+    @Test
+    public void cancelDuringWrite_rollsBackTransaction() throws Exception {
+        repository.getItems(); // cache inicial (v1)
+        String cursor = syncStateDao.cursors.get("items");
+
+        CancellationToken token = new CancellationToken();
+        cancelAfterFirstBatch = token;
+        try {
+            repository.refresh(token);
+            fail("esperava CancellationException");
+        } catch (CancellationException expected) {
+            // ok
+        } finally {
+            cancelAfterFirstBatch = null;
+        }
+
+        assertEquals(2, server.getRequestCount()); // o v2 chegou, mas não foi gravado
+        assertEquals(CATALOG_SIZE, itemDao.rows.size());
+        assertSnapshot(repository.getItems(), "v1");
+        assertEquals(cursor, syncStateDao.cursors.get("items"));
+    }
+
+    private static void assertSnapshot(List<Item> items, String expectedVersion) {
+        assertEquals(CATALOG_SIZE, items.size());
+        for (int i = 0, n = items.size(); i < n; i++) {
+            assertTrue(items.get(i).getTitle(), items.get(i).getTitle().startsWith(expectedVersion + "-"));
+        }
+    }
+
+    private static String snapshotJson(int version) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int id = 1; id <= CATALOG_SIZE; id++) {
+            if (id > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(id)
+                    .append(",\"title\":\"v").append(version).append('-').append(id)
+                    .append("\",\"body\":\"b\"}");
+        }
+        return json.append("],\"cursor\":\"c").append(version).append("\",\"full\":true}").toString();
+    }
+}
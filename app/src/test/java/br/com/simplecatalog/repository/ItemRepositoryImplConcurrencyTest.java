@@ -0,0 +1,185 @@
+package br.com.simplecatalog.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.domain.model.Item;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Stress do ItemRepositoryImpl: muitas threads lendo enquanto outras fazem refresh.
+ *
+ * O servidor sempre devolve um snapshot completo de CATALOG_SIZE itens com o título
+ * marcado pela versão ("v3-17"). Uma leitura consistente tem todos os itens da mesma versão;
+ * uma leitura no meio da troca (tabela vazia ou misturada) falha o teste.
+ */
+public class ItemRepositoryImplConcurrencyTest {
+
+    private static final int CATALOG_SIZE = 300;
+    private static final int READERS = 8;
+    private static final int WRITERS = 2;
+
+    private MockWebServer server;
+    private FakeItemDao itemDao;
+    private ItemRepositoryImpl repository;
+    private final AtomicInteger version = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setBody(snapshotJson(version.incrementAndGet()))
+                        .setBodyDelay(20, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+
+        ApiService apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+
+        itemDao = new FakeItemDao();
+        // como o Room: a transação segura a tabela, leitores esperam o commit
+        repository = new ItemRepositoryImpl(
+                apiService, ResilientCallExecutor.direct(), itemDao, new FakeItemDetailDao(), new FakeSyncStateDao(),
+                writes -> {
+                    synchronized (itemDao) {
+                        writes.run();
+                    }
+                },
+                new ItemMapper());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentColdReads_shareOneSync() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Item>>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return repository.getItems();
+            }));
+        }
+        start.countDown();
+
+        for (Future<List<Item>> result : results) {
+            assertConsistent(result.get(10, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void readersDuringRefresh_alwaysSeeCompleteSnapshot() throws Exception {
+        repository.getItems(); // cache inicial
+
+        ExecutorService pool = Executors.newFixedThreadPool(READERS + WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1500);
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger reads = new AtomicInteger();
+        List<Future<?>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < WRITERS; i++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    check(repository.refresh(), CATALOG_SIZE, failures);
+                }
+                return null;
+            }));
+        }
+        for (int i = 0; i < READERS; i++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    check(repository.getItems(), CATALOG_SIZE, failures);
+                    check(repository.getItemsPage(CATALOG_SIZE / 2, 50), 50, failures);
+                    reads.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue("nenhuma leitura concorrente aconteceu", reads.get() > 0);
+        assertTrue("refresh não rodou", version.get() > 1);
+        assertTrue("leituras inconsistentes: " + failures.peek(), failures.isEmpty());
+    }
+
+    private static void check(List<Item> items, int expectedSize, Queue<String> failures) {
+        if (items.size() != expectedSize) {
+            failures.add("tamanho " + items.size() + " (esperado " + expectedSize + ")");
+            return;
+        }
+        String prefix = versionOf(items.get(0));
+        for (int i = 0, n = items.size(); i < n; i++) {
+            if (!versionOf(items.get(i)).equals(prefix)) {
+                failures.add("versões misturadas: " + prefix + " e " + versionOf(items.get(i)));
+                return;
+            }
+        }
+    }
+
+    private static void assertConsistent(List<Item> items) {
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        check(items, CATALOG_SIZE, failures);
+        assertTrue(String.valueOf(failures.peek()), failures.isEmpty());
+    }
+
+    private static String versionOf(Item item) {
+        return item.getTitle().substring(0, item.getTitle().indexOf('-'));
+    }
+
+    private static String snapshotJson(int version) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int id = 1; id <= CATALOG_SIZE; id++) {
+            if (id > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(id)
+                    .append(",\"title\":\"v").append(version).append('-').append(id)
+                    .append("\",\"body\":\"b\"}");
+        }
+        return json.append("],\"cursor\":\"c").append(version).append("\",\"full\":true}").toString();
+    }
+}
@@ -0,0 +1,174 @@
+package br.com.simplecatalog.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.simplecatalog.data.local.entity.ItemDetailEntity;
+import br.com.simplecatalog.data.local.entity.ItemEntity;
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.domain.model.Item;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes do delta sync do ItemRepositoryImpl contra um servidor HTTP local (MockWebServer).
+ */
+public class ItemRepositoryImplDeltaSyncTest {
+
+    private MockWebServer server;
+    private FakeItemDao itemDao;
+    private FakeItemDetailDao itemDetailDao;
+    private FakeSyncStateDao syncStateDao;
+    private ItemRepositoryImpl repository;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        ApiService apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+
+        itemDao = new FakeItemDao();
+        itemDetailDao = new FakeItemDetailDao();
+        syncStateDao = new FakeSyncStateDao();
+        repository = new ItemRepositoryImpl(
+                apiService, ResilientCallExecutor.direct(), itemDao, itemDetailDao, syncStateDao, Runnable::run, new ItemMapper());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void getItems_emptyCache_doesFullDeltaSyncAndStoresCursor() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"items\":["
+                + "{\"id\":1,\"title\":\"A\",\"body\":\"a\"},"
+                + "{\"id\":2,\"title\":\"B\",\"body\":\"b\"}],"
+                + "\"cursor\":\"c1\"}"));
+
+        List<Item> items = repository.getItems();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/posts/changes", request.getPath());
+        assertEquals(2, items.size());
+        assertEquals("c1", syncStateDao.getCursor(ItemRepositoryImpl.SYNC_RESOURCE_ITEMS));
+    }
+
+    @Test
+    public void refresh_withCursor_appliesOnlyChangesAndTombstones() throws Exception {
+        itemDao.insertAll(List.of(
+                new ItemEntity(1, "A", "a", 0),
+                new ItemEntity(2, "B", "b", 0),
+                new ItemEntity(3, "C", "c", 0)));
+        syncStateDao.cursors.put(ItemRepositoryImpl.SYNC_RESOURCE_ITEMS, "c1");
+        server.enqueue(new MockResponse().setBody("{\"items\":["
+                + "{\"id\":2,\"title\":\"B2\",\"body\":\"b2\"},"
+                + "{\"id\":3,\"deleted\":true}],"
+                + "\"cursor\":\"c2\"}"));
+
+        List<Item> items = repository.refresh();
+
+        assertEquals("/posts/changes?since=c1", server.takeRequest().getPath());
+        assertEquals(2, items.size());
+        assertEquals("A", items.get(0).getTitle());
+        assertEquals("B2", items.get(1).getTitle());
+        assertEquals("c2", syncStateDao.getCursor(ItemRepositoryImpl.SYNC_RESOURCE_ITEMS));
+    }
+
+    @Test
+    public void refresh_delta_dropsCachedDetailsOfChangedItems_andNotifies() throws Exception {
+        itemDao.insertAll(List.of(
+                new ItemEntity(1, "A", "a", 0),
+                new ItemEntity(2, "B", "b", 0),
+                new ItemEntity(3, "C", "c", 0)));
+        for (long id = 1; id <= 3; id++) {
+            itemDetailDao.insert(new ItemDetailEntity(id, "corpo " + id, 0, 1));
+        }
+        syncStateDao.cursors.put(ItemRepositoryImpl.SYNC_RESOURCE_ITEMS, "c1");
+        List<Long> changed = new ArrayList<>();
+        repository.addListener(new ItemRepository.Listener() {
+            @Override
+            public void onItemsChanged(List<Long> itemIds) {
+                changed.addAll(itemIds);
+            }
+
+            @Override
+            public void onAllItemsChanged() {
+                changed.add(-1L);
+            }
+        });
+        server.enqueue(new MockResponse().setBody("{\"items\":["
+                + "{\"id\":2,\"title\":\"B2\",\"body\":\"b2\"},"
+                + "{\"id\":3,\"deleted\":true}],"
+                + "\"cursor\":\"c2\"}"));
+
+        repository.refresh();
+
+        assertNotNull(itemDetailDao.getById(1)); // não mudou: detalhe continua valendo
+        assertNull(itemDetailDao.getById(2));    // atualizado
+        assertNull(itemDetailDao.getById(3));    // apagado
+        assertEquals(2, changed.size());
+        assertTrue(changed.containsAll(List.of(2L, 3L)));
+    }
+
+    @Test
+    public void refresh_fullSnapshotFlag_replacesCache() throws Exception {
+        itemDao.insertAll(List.of(new ItemEntity(1, "A", "a", 0), new ItemEntity(2, "B", "b", 0)));
+        itemDetailDao.insert(new ItemDetailEntity(1, "corpo antigo", 0, 1));
+        syncStateDao.cursors.put(ItemRepositoryImpl.SYNC_RESOURCE_ITEMS, "expired");
+        server.enqueue(new MockResponse().setBody("{\"items\":["
+                + "{\"id\":5,\"title\":\"E\",\"body\":\"e\"}],"
+                + "\"cursor\":\"c9\",\"full\":true}"));
+
+        List<Item> items = repository.refresh();
+
+        assertEquals(1, items.size());
+        assertEquals(5, items.get(0).getId());
+        assertTrue(itemDetailDao.rows.isEmpty()); // snapshot completo: nenhum detalhe guardado vale
+    }
+
+    @Test
+    public void refresh_serverWithoutDelta_fallsBackToFullList() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setBody("["
+                + "{\"id\":1,\"title\":\"A\",\"body\":\"a\"}]"));
+
+        List<Item> items = repository.refresh();
+
+        assertEquals("/posts/changes", server.takeRequest().getPath());
+        assertEquals("/posts", server.takeRequest().getPath());
+        assertEquals(1, items.size());
+        assertNull(syncStateDao.getCursor(ItemRepositoryImpl.SYNC_RESOURCE_ITEMS));
+    }
+
+    @Test
+    public void refresh_serverError_keepsCacheAndCursor() throws Exception {
+        itemDao.insertAll(List.of(new ItemEntity(1, "A", "a", 0)));
+        syncStateDao.cursors.put(ItemRepositoryImpl.SYNC_RESOURCE_ITEMS, "c1");
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        List<Item> items = repository.refresh();
+
+        assertEquals(1, items.size());
+        assertEquals("c1", syncStateDao.getCursor(ItemRepositoryImpl.SYNC_RESOURCE_ITEMS));
+    }
+}
@@ -0,0 +1,266 @@
+package br.com.simplecatalog.repository;
+
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import br.com.simplecatalog.data.mapper.ItemMapper;
+import br.com.simplecatalog.data.remote.ApiService;
+import br.com.simplecatalog.data.remote.dto.MutationBatchDto;
+import br.com.simplecatalog.data.remote.dto.MutationDto;
+import br.com.simplecatalog.data.remote.resilience.ResilientCallExecutor;
+import br.com.simplecatalog.domain.model.ItemMutation;
+import br.com.simplecatalog.domain.model.ItemState;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Escrita otimista + outbox do ItemStateRepositoryImpl contra um servidor falso de lote.
+ */
+public class ItemStateRepositoryImplTest {
+
+    private static final long BATCH_WINDOW_MILLIS = 50;
+
+    private final Gson gson = new Gson();
+    private final Queue<RecordedRequest> requests = new ConcurrentLinkedQueue<>();
+    private volatile Function<MutationBatchDto, MockResponse> batchHandler = this::applyAll;
+    private final AtomicInteger failingWrites = new AtomicInteger(); // próximas transações que falham
+
+    private MockWebServer server;
+    private FakeItemStateDao stateDao;
+    private FakeOutboxDao outboxDao;
+    private ItemStateRepositoryImpl repository;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                requests.add(request);
+                if ("PATCH".equals(request.getMethod())) {
+                    return new MockResponse().setBody("{}");
+                }
+                MutationBatchDto batch = gson.fromJson(request.getBody().clone().readUtf8(), MutationBatchDto.class);
+                return batchHandler.apply(batch);
+            }
+        });
+        server.start();
+
+        ApiService apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+
+        stateDao = new FakeItemStateDao();
+        outboxDao = new FakeOutboxDao();
+        repository = new ItemStateRepositoryImpl(
+                apiService, ResilientCallExecutor.direct(), stateDao, outboxDao,
+                writes -> {
+                    if (failingWrites.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                        throw new IllegalStateException("disk I/O error"); // como uma SQLiteException do Room
+                    }
+                    synchronized (outboxDao) {
+                        writes.run();
+                    }
+                },
+                new ItemMapper(), BATCH_WINDOW_MILLIS, System::currentTimeMillis);
+        repository.getStates(); // carga inicial (banco vazio)
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        repository.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void mutate_isVisibleImmediately_andTapsAreBatched() throws Exception {
+        ItemState state = null;
+        for (int i = 1; i <= 10; i++) {
+            state = repository.mutate(ItemMutation.quantity(1, i));
+        }
+        repository.mutate(ItemMutation.favorite(1, true));
+        repository.mutate(ItemMutation.favorite(2, true));
+
+        // antes de qualquer I/O: o estado já é o final
+        assertEquals(10, state.getQuantity());
+        assertTrue(state.isPending());
+
+        awaitCondition(() -> outboxDao.rows.isEmpty() && !repository.getState(1).isPending());
+
+        assertEquals(1, requests.size()); // 12 edições, 1 requisição
+        List<MutationDto> sent = gson.fromJson(requests.peek().getBody().readUtf8(), MutationBatchDto.class)
+                .getMutations();
+        assertEquals(3, sent.size());      // quantidade do 1 (só o valor final), favorito do 1 e do 2
+
+        ItemState confirmed = repository.getState(1);
+        assertEquals(10, confirmed.getQuantity());
+        assertTrue(confirmed.isFavorite());
+        assertEquals(7, stateDao.getById(1).getVersion());
+    }
+
+    @Test
+    public void conflict_serverNewer_winsOverLocalEdit() throws Exception {
+        batchHandler = batch -> results(batch, m ->
+                "{\"mutationId\":" + m.getMutationId() + ",\"status\":\"conflict\",\"version\":9,"
+                        + "\"serverValue\":\"false\",\"serverUpdatedAt\":" + Long.MAX_VALUE + "}");
+
+        assertTrue(repository.mutate(ItemMutation.favorite(5, true)).isFavorite());
+
+        awaitCondition(() -> outboxDao.rows.isEmpty() && !repository.getState(5).isPending());
+        assertFalse(repository.getState(5).isFavorite());
+        assertFalse(stateDao.getById(5).isFavorite());
+    }
+
+    @Test
+    public void editDuringInFlightBatch_survivesConflict_andIsSentNext() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        batchHandler = batch -> {
+            batchHandler = this::applyAll; // só o primeiro lote fica preso e volta em conflito
+            inFlight.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return results(batch, m ->
+                    "{\"mutationId\":" + m.getMutationId() + ",\"status\":\"conflict\",\"version\":9,"
+                            + "\"serverValue\":\"1\",\"serverUpdatedAt\":" + Long.MAX_VALUE + "}");
+        };
+
+        repository.mutate(ItemMutation.quantity(8, 2));
+        assertTrue(inFlight.await(10, TimeUnit.SECONDS));
+
+        // lote com o 2 na rede: o usuário continua tocando no "+"
+        repository.mutate(ItemMutation.quantity(8, 3));
+        assertEquals(4, repository.mutate(ItemMutation.quantity(8, 4)).getQuantity());
+        release.countDown();
+
+        awaitCondition(() -> requests.size() == 2 && outboxDao.rows.isEmpty() && !repository.getState(8).isPending());
+
+        // o servidor ganhou do 2, mas não do 4 (que foi enviado depois e confirmado)
+        assertEquals(4, repository.getState(8).getQuantity());
+        assertEquals(4, stateDao.getById(8).getQuantity());
+        RecordedRequest second = requests.toArray(new RecordedRequest[0])[1];
+        List<MutationDto> resent = gson.fromJson(second.getBody().readUtf8(), MutationBatchDto.class).getMutations();
+        assertEquals(1, resent.size());
+        assertEquals("4", resent.get(0).getValue());
+    }
+
+    @Test
+    public void serverError_keepsOutbox_andRetriesLater() throws Exception {
+        batchHandler = batch -> {
+            batchHandler = this::applyAll; // só a primeira falha
+            return new MockResponse().setResponseCode(503);
+        };
+
+        repository.mutate(ItemMutation.note(3, "entregar depois das 18h"));
+
+        awaitCondition(() -> requests.size() >= 1);
+        assertEquals(1, outboxDao.rows.size()); // falhou: continua na fila
+
+        awaitCondition(() -> outboxDao.rows.isEmpty());
+        assertEquals(2, requests.size());
+        assertEquals("entregar depois das 18h", repository.getState(3).getNote());
+    }
+
+    @Test
+    public void malformedBatchResponse_countsAsFailure_andRetriesLater() throws Exception {
+        batchHandler = batch -> {
+            batchHandler = this::applyAll; // só a primeira resposta vem quebrada
+            // 200 com mutationId não numérico: o Gson lança JsonSyntaxException (RuntimeException)
+            return new MockResponse().setBody("{\"results\":[{\"mutationId\":\"abc\"}]}");
+        };
+
+        repository.mutate(ItemMutation.favorite(4, true));
+
+        awaitCondition(() -> outboxDao.rows.isEmpty() && !repository.getState(4).isPending());
+        assertEquals(2, requests.size()); // a outbox não parou na exceção
+        assertTrue(repository.getState(4).isFavorite());
+    }
+
+    @Test
+    public void persistFailure_isRetried_andTheEditIsSent() throws Exception {
+        failingWrites.set(1);
+
+        repository.mutate(ItemMutation.quantity(6, 3));
+
+        awaitCondition(() -> requests.size() == 1 && outboxDao.rows.isEmpty() && !repository.getState(6).isPending());
+        assertEquals(3, stateDao.getById(6).getQuantity());
+    }
+
+    @Test
+    public void persistFailingEveryTime_givesUp_andItemStopsPending() throws Exception {
+        failingWrites.set(ItemStateRepositoryImpl.PERSIST_ATTEMPTS);
+
+        repository.mutate(ItemMutation.quantity(6, 3));
+
+        awaitCondition(() -> !repository.getState(6).isPending());
+        assertEquals(3, repository.getState(6).getQuantity()); // continua em memória
+        assertTrue(outboxDao.rows.isEmpty());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void serverWithoutBatchEndpoint_fallsBackToOnePatchPerItem() throws Exception {
+        batchHandler = batch -> new MockResponse().setResponseCode(404);
+
+        repository.mutate(ItemMutation.favorite(1, true));
+        repository.mutate(ItemMutation.quantity(1, 2));
+        repository.mutate(ItemMutation.favorite(2, true));
+
+        // a outbox também começa vazia (gravação ainda na fila): espera os envios
+        awaitCondition(() -> requests.size() == 3 && outboxDao.rows.isEmpty());
+        RecordedRequest[] recorded = requests.toArray(new RecordedRequest[0]);
+        assertEquals(3, recorded.length); // POST recusado + PATCH do item 1 + PATCH do item 2
+        assertEquals("PATCH", recorded[1].getMethod());
+        assertEquals("/posts/1", recorded[1].getPath());
+        assertEquals("{\"favorite\":true,\"quantity\":2}", recorded[1].getBody().readUtf8());
+        assertEquals("/posts/2", recorded[2].getPath());
+    }
+
+    private MockResponse applyAll(MutationBatchDto batch) {
+        return results(batch, m -> "{\"mutationId\":" + m.getMutationId() + ",\"status\":\"applied\",\"version\":7}");
+    }
+
+    private static MockResponse results(MutationBatchDto batch, Function<MutationDto, String> result) {
+        StringBuilder json = new StringBuilder("{\"results\":[");
+        for (MutationDto mutation : batch.getMutations()) {
+            if (json.charAt(json.length() - 1) != '[') {
+                json.append(',');
+            }
+            json.append(result.apply(mutation));
+        }
+        return new MockResponse().setBody(json.append("]}").toString());
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue("condição não atingida a tempo", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.simplecatalog.repository.cache;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void increment_raisesEstimate_andSaturates() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        assertEquals(0, sketch.frequency(42));
+
+        for (int i = 1; i <= 20; i++) {
+            sketch.increment(42);
+            assertEquals(Math.min(i, FrequencySketch.MAX_FREQUENCY), sketch.frequency(42));
+        }
+    }
+
+    @Test
+    public void popularItems_standOutFromOneHitNoise() {
+        FrequencySketch sketch = new FrequencySketch(256);
+        Random random = new Random(7);
+
+        // 10 itens populares abertos várias vezes no meio de 2.000 itens abertos uma vez só
+        for (int round = 0; round < 8; round++) {
+            for (long hot = 1; hot <= 10; hot++) {
+                sketch.increment(hot);
+            }
+            for (int i = 0; i < 250; i++) {
+                sketch.increment(1_000 + random.nextInt(1_000_000));
+            }
+        }
+
+        for (long hot = 1; hot <= 10; hot++) {
+            long noise = 2_000_000 + hot;
+            assertTrue("item " + hot, sketch.frequency(hot) > sketch.frequency(noise));
+        }
+    }
+
+    @Test
+    public void aging_halvesCounters() {
+        FrequencySketch sketch = new FrequencySketch(16); // envelhece a cada 160 incrementos
+        for (int i = 0; i < 10; i++) {
+            assertFalse(sketch.increment(7));
+        }
+        assertEquals(10, sketch.frequency(7));
+
+        boolean aged = false;
+        for (long id = 100; !aged; id++) {
+            aged = sketch.increment(id);
+        }
+        assertEquals(5, sketch.frequency(7));
+    }
+}
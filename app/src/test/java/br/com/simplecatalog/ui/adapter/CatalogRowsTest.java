@@ -0,0 +1,90 @@
+package br.com.simplecatalog.ui.adapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.simplecatalog.domain.model.Item;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogRowsTest {
+
+    @Test
+    public void update_insertsHeaderWhenCategoryChanges() {
+        CatalogRows rows = new CatalogRows();
+        rows.update(items(1, 1, 1, 2, 2));
+
+        // [H1, 1, 2, 3, H2, 4, 5]
+        assertEquals(7, rows.size());
+        assertTrue(rows.get(0).isHeader());
+        assertEquals(1, rows.get(0).getCategoryId());
+        assertTrue(rows.get(4).isHeader());
+        assertEquals(2, rows.get(4).getCategoryId());
+        assertEquals(5, rows.positionOf(4));
+        assertEquals(-1, rows.positionOf(99));
+    }
+
+    @Test
+    public void update_withoutCategories_isPlainList() {
+        CatalogRows rows = new CatalogRows();
+        rows.update(items(0, 0, 0));
+
+        assertEquals(3, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertFalse(rows.get(i).isHeader());
+        }
+    }
+
+    @Test
+    public void update_appendedPage_keepsExistingRowsAndContinuesSection() {
+        CatalogRows rows = new CatalogRows();
+        List<Item> firstPage = items(1, 1);
+        assertEquals(CatalogRows.RESET, rows.update(firstPage));
+        CatalogRow firstItemRow = rows.get(1);
+
+        List<Item> merged = new ArrayList<>(firstPage);
+        merged.add(new Item(3, "t3", "s3", 1)); // mesma seção: sem cabeçalho repetido
+        merged.add(new Item(4, "t4", "s4", 2));
+
+        int firstNew = rows.update(merged);
+
+        assertEquals(3, firstNew);
+        assertSame(firstItemRow, rows.get(1)); // linhas antigas não foram recriadas
+        assertFalse(rows.get(3).isHeader());
+        assertTrue(rows.get(4).isHeader());
+        assertEquals(6, rows.size());
+    }
+
+    @Test
+    public void itemIndexAt_skipsHeaders() {
+        CatalogRows rows = new CatalogRows();
+        List<Item> firstPage = items(1, 1, 2, 2);
+        rows.update(firstPage);
+        List<Item> merged = new ArrayList<>(firstPage);
+        merged.add(new Item(5, "t5", "s5", 3)); // página anexada: cabeçalho novo no fim
+        rows.update(merged);
+
+        // [H1, 0, 1, H2, 2, 3, H3, 4]
+        assertEquals(-1, rows.itemIndexAt(0));  // cabeçalho antes de qualquer item
+        assertEquals(0, rows.itemIndexAt(1));
+        assertEquals(1, rows.itemIndexAt(2));
+        assertEquals(1, rows.itemIndexAt(3));   // cabeçalho: último item antes dele
+        assertEquals(3, rows.itemIndexAt(5));
+        assertEquals(4, rows.itemIndexAt(7));   // última linha = último item (5 itens, não 8 linhas)
+        assertEquals(-1, rows.itemIndexAt(-1)); // RecyclerView sem nada visível
+    }
+
+    // Itens com ids 1..n nas categorias informadas
+    private static List<Item> items(long... categories) {
+        List<Item> items = new ArrayList<>(categories.length);
+        for (int i = 0; i < categories.length; i++) {
+            items.add(new Item(i + 1, "t" + (i + 1), "s" + (i + 1), categories[i]));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,189 @@
+package br.com.simplecatalog.ui.viewmodel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.simplecatalog.domain.CancellationToken;
+import br.com.simplecatalog.domain.model.Catalog;
+import br.com.simplecatalog.domain.model.Item;
+import br.com.simplecatalog.domain.model.ItemDetail;
+import br.com.simplecatalog.domain.model.ItemMutation;
+import br.com.simplecatalog.domain.model.ItemState;
+import br.com.simplecatalog.repository.CatalogRepository;
+import br.com.simplecatalog.repository.ItemDetailRepository;
+import br.com.simplecatalog.repository.ItemRepository;
+import br.com.simplecatalog.repository.ItemStateRepository;
+
+/**
+ * CatalogRepository em memória para os testes do ItemsViewModel (os UseCases são os de verdade).
+ *
+ * - Cada catálogo tem {@code size} itens sintéticos (ids 1..size), servidos em páginas
+ *   pelo {@link Pages}, que registra cada chamada e pode segurar a próxima até o teste soltar
+ * - Detalhe e estado do usuário vazios
+ * - Conta retain/release por catálogo
+ */
+class FakeCatalogRepository implements CatalogRepository {
+
+    private final int size;
+    private final Map<String, Pages> pages = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> users = new ConcurrentHashMap<>();
+
+    FakeCatalogRepository(int size) {
+        this.size = size;
+    }
+
+    Pages pages(String catalogId) {
+        return pages.computeIfAbsent(catalogId, id -> new Pages(id, size));
+    }
+
+    int users(String catalogId) {
+        return users.computeIfAbsent(catalogId, id -> new AtomicInteger()).get();
+    }
+
+    @Override
+    public List<Catalog> getCatalogs() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ItemRepository itemRepository(String catalogId) {
+        return pages(catalogId);
+    }
+
+    @Override
+    public ItemDetailRepository itemDetailRepository(String catalogId) {
+        return new ItemDetailRepository() {
+            @Override
+            public ItemDetail getItemDetail(long id) {
+                return null;
+            }
+
+            @Override
+            public void prefetch(long id) {
+            }
+        };
+    }
+
+    @Override
+    public ItemStateRepository itemStateRepository(String catalogId) {
+        return new ItemStateRepository() {
+            @Override
+            public ItemState getState(long itemId) {
+                return null;
+            }
+
+            @Override
+            public Map<Long, ItemState> getStates() {
+                return Collections.emptyMap();
+            }
+
+            @Override
+            public ItemState mutate(ItemMutation mutation) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void addListener(Listener listener) {
+            }
+
+            @Override
+            public void removeListener(Listener listener) {
+            }
+        };
+    }
+
+    @Override
+    public void retain(String catalogId) {
+        users.computeIfAbsent(catalogId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @Override
+    public void release(String catalogId) {
+        users.get(catalogId).decrementAndGet();
+    }
+
+    /**
+     * Páginas de um catálogo. Título "catálogo-id#n", onde n é o número da chamada:
+     * dá para saber de qual carga veio cada item publicado.
+     */
+    static final class Pages implements ItemRepository {
+        private final String catalogId;
+        private final int size;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        final Queue<String> requests = new ConcurrentLinkedQueue<>(); // "afterId+limit"
+        final AtomicInteger cancelled = new AtomicInteger();
+
+        // Próxima chamada espera aqui (entered avisa que ela começou)
+        private volatile CountDownLatch gate;
+        private volatile boolean ignoreCancellation;
+        final CountDownLatch entered = new CountDownLatch(1);
+
+        Pages(String catalogId, int size) {
+            this.catalogId = catalogId;
+            this.size = size;
+        }
+
+        // Segura a próxima chamada até release.countDown(); ignoreCancellation = devolve mesmo se cancelada
+        void holdNext(CountDownLatch release, boolean ignoreCancellation) {
+            this.ignoreCancellation = ignoreCancellation;
+            this.gate = release;
+        }
+
+        @Override
+        public List<Item> getItemsPage(long afterId, int limit, CancellationToken token) {
+            int call = calls.incrementAndGet();
+            requests.add(afterId + "+" + limit);
+            CountDownLatch release = gate;
+            gate = null;
+            if (release != null) {
+                entered.countDown();
+                awaitRelease(release, token);
+            }
+
+            List<Item> page = new ArrayList<>();
+            for (long id = afterId + 1; id <= size && page.size() < limit; id++) {
+                page.add(new Item(id, catalogId + "-" + id + "#" + call, "", 0));
+            }
+            return Collections.unmodifiableList(page);
+        }
+
+        private void awaitRelease(CountDownLatch release, CancellationToken token) {
+            try {
+                while (!release.await(5, TimeUnit.MILLISECONDS)) {
+                    if (!ignoreCancellation && token.isCancelled()) {
+                        cancelled.incrementAndGet();
+                        token.throwIfCancelled();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public List<Item> getItems(CancellationToken token) {
+            throw new UnsupportedOperationException("a tela usa só a paginação");
+        }
+
+        @Override
+        public void addListener(Listener listener) {
+        }
+
+        @Override
+        public void removeListener(Listener listener) {
+        }
+    }
+}
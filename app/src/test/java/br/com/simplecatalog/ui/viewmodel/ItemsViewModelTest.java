@@ -0,0 +1,168 @@
+package br.com.simplecatalog.ui.viewmodel;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import br.com.simplecatalog.domain.model.Item;
+import br.com.simplecatalog.domain.usecase.SelectCatalogUseCase;
+
+import static br.com.simplecatalog.ui.viewmodel.ItemsViewModel.PAGE_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Paginação do ItemsViewModel com os UseCases de verdade sobre um CatalogRepository falso:
+ * distância de prefetch, descarte de cargas antigas, cancelamento de prefetch e troca de catálogo.
+ */
+public class ItemsViewModelTest {
+
+    private static final int CATALOG_SIZE = 300;
+
+    // LiveData sem Looper: setValue/postValue entregam na hora, na thread que chamou
+    @Rule
+    public final InstantTaskExecutorRule instantTaskExecutor = new InstantTaskExecutorRule();
+
+    private final List<List<Item>> published = new CopyOnWriteArrayList<>();
+    private FakeCatalogRepository repository;
+    private ItemsViewModel viewModel;
+
+    @Before
+    public void setUp() {
+        repository = new FakeCatalogRepository(CATALOG_SIZE);
+        SelectCatalogUseCase selectCatalog = new SelectCatalogUseCase(repository);
+        viewModel = new ItemsViewModel(selectCatalog, selectCatalog.execute("a"));
+        viewModel.getItems().observeForever(published::add);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        viewModel.onCleared();
+        awaitCondition(() -> repository.users("a") == 0 && repository.users("b") == 0);
+    }
+
+    @Test
+    public void prefetchDistance_growsWithScrollSpeed_upToCap() {
+        assertEquals(PAGE_SIZE, ItemsViewModel.prefetchDistance(0f));
+        assertEquals(PAGE_SIZE, ItemsViewModel.prefetchDistance(-500f)); // subindo: só o mínimo à frente
+        assertEquals(PAGE_SIZE + 100, ItemsViewModel.prefetchDistance(50f)); // 2 s de rolagem
+        assertEquals(PAGE_SIZE * 8, ItemsViewModel.prefetchDistance(10_000f)); // fling: teto
+    }
+
+    @Test
+    public void viewportNearEnd_prefetchesNextPage_withoutChangingPublishedLists() throws Exception {
+        loadFirstPage();
+        List<Item> firstPage = last();
+
+        viewModel.onViewportChanged(0, 20, 0f); // 21 + 30 > 30 carregados
+        awaitSize(2 * PAGE_SIZE);
+
+        List<Item> twoPages = last();
+        assertEquals(PAGE_SIZE, firstPage.size()); // a view publicada antes não cresceu
+        assertSame(firstPage.get(PAGE_SIZE - 1), twoPages.get(PAGE_SIZE - 1));
+        assertEquals(2 * PAGE_SIZE, twoPages.get(2 * PAGE_SIZE - 1).getId());
+        assertEquals(List.of("0+30", "30+30"), List.copyOf(repository.pages("a").requests));
+
+        // rolagem rápida: pede várias páginas de uma vez (arredondado e limitado ao teto)
+        viewModel.onViewportChanged(40, 59, 100f);
+        awaitSize(CATALOG_SIZE);
+        assertEquals("60+240", List.copyOf(repository.pages("a").requests).get(2));
+    }
+
+    @Test
+    public void reload_discardsPageOfPreviousLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        repository.pages("a").holdNext(release, true); // a 1ª carga devolve a página mesmo cancelada
+
+        viewModel.loadItems();
+        assertTrue(repository.pages("a").entered.await(5, TimeUnit.SECONDS));
+        viewModel.loadItems(); // pull-to-refresh com a primeira ainda na rede
+        release.countDown();
+
+        awaitCondition(() -> !published.isEmpty() && Boolean.FALSE.equals(viewModel.getLoading().getValue()));
+        for (List<Item> items : published) {
+            for (Item item : items) {
+                assertTrue("página da carga antiga publicada: " + item.getTitle(), item.getTitle().endsWith("#2"));
+            }
+        }
+        assertEquals(PAGE_SIZE, last().size());
+    }
+
+    @Test
+    public void prefetchNoLongerNeeded_isCancelledWhileRunning() throws Exception {
+        loadFirstPage();
+        viewModel.onViewportChanged(0, 20, 0f);
+        awaitSize(2 * PAGE_SIZE);
+
+        CountDownLatch neverReleased = new CountDownLatch(1);
+        FakeCatalogRepository.Pages pages = repository.pages("a");
+        pages.holdNext(neverReleased, false);
+        viewModel.onViewportChanged(40, 45, 0f); // pede a 3ª página
+        assertTrue(pages.entered.await(5, TimeUnit.SECONDS));
+
+        viewModel.onViewportChanged(0, 10, -20f); // voltou ao topo: 60 carregados bastam
+        awaitCondition(() -> pages.cancelled.get() == 1);
+        assertEquals(2 * PAGE_SIZE, last().size());
+
+        // descer de novo pede a mesma página outra vez (o estado não ficou preso no cancelado)
+        viewModel.onViewportChanged(40, 45, 0f);
+        awaitSize(3 * PAGE_SIZE);
+        assertEquals(List.of("0+30", "30+30", "60+30", "60+30"), List.copyOf(pages.requests));
+    }
+
+    @Test
+    public void selectCatalog_restoresSavedPages_withoutReloading() throws Exception {
+        loadFirstPage();
+        viewModel.onViewportChanged(0, 20, 0f);
+        awaitSize(2 * PAGE_SIZE);
+        List<Item> catalogA = last();
+
+        viewModel.selectCatalog("b");
+        awaitCondition(() -> !last().isEmpty() && last().get(0).getTitle().startsWith("b-"));
+        awaitCondition(() -> repository.users("a") == 0); // "a" solto depois das tarefas pendentes
+        assertEquals(1, repository.users("b"));
+
+        viewModel.selectCatalog("a");
+        assertSame(catalogA, last()); // na hora, sem esperar nenhuma carga
+        assertEquals(2, repository.pages("a").requests.size());
+        assertFalse(viewModel.getLoading().getValue());
+
+        // a paginação continua de onde parou
+        viewModel.onViewportChanged(40, 55, 0f);
+        awaitSize(3 * PAGE_SIZE);
+        assertEquals("60+30", List.copyOf(repository.pages("a").requests).get(2));
+        awaitCondition(() -> repository.users("b") == 0);
+    }
+
+    private void loadFirstPage() throws InterruptedException {
+        viewModel.loadItems();
+        awaitSize(PAGE_SIZE);
+    }
+
+    private List<Item> last() {
+        return published.isEmpty() ? List.of() : published.get(published.size() - 1);
+    }
+
+    private void awaitSize(int size) throws InterruptedException {
+        awaitCondition(() -> last().size() == size);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue("condição não atingida a tempo", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.simplecatalog.ui.viewmodel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.simplecatalog.domain.model.Item;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PagedItemListTest {
+
+    @Test
+    public void append_readsAcrossPages_andKeepsOlderViewsUnchanged() {
+        PagedItemList empty = PagedItemList.empty();
+        PagedItemList one = empty.append(page(1, 3));
+        PagedItemList two = one.append(page(4, 2));
+        PagedItemList three = two.append(page(6, 20)); // passa da capacidade inicial do diretório várias vezes
+
+        assertEquals(0, empty.size());
+        assertEquals(3, one.size());
+        assertEquals(5, two.size());
+        assertEquals(25, three.size());
+        for (int i = 0; i < three.size(); i++) {
+            assertEquals(i + 1, three.get(i).getId());
+        }
+        assertSame(one.get(2), three.get(2)); // nada copiado: o mesmo Item da página
+        assertSame(one, one.append(new ArrayList<>()));
+    }
+
+    @Test
+    public void manySmallPages_growDirectory() {
+        PagedItemList list = PagedItemList.empty();
+        for (int i = 0; i < 100; i++) {
+            list = list.append(page(i + 1, 1));
+        }
+        assertEquals(100, list.size());
+        assertEquals(100, list.get(99).getId());
+        assertEquals(37, list.get(36).getId());
+    }
+
+    @Test
+    public void appendToOlderView_doesNotLeakIntoNewerOne() {
+        PagedItemList base = PagedItemList.empty().append(page(1, 2));
+        PagedItemList first = base.append(page(3, 2));
+        PagedItemList branch = base.append(page(100, 1)); // ex.: páginas restauradas de outra carga
+
+        assertEquals(4, first.size());
+        assertEquals(4, first.get(3).getId());
+        assertEquals(3, branch.size());
+        assertEquals(100, branch.get(2).getId());
+    }
+
+    @Test
+    public void get_outOfRange_throws() {
+        PagedItemList list = PagedItemList.empty().append(page(1, 2));
+        try {
+            list.get(2);
+            throw new AssertionError("esperava IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+            assertTrue(expected.getMessage().contains("size 2"));
+        }
+    }
+
+    private static List<Item> page(long firstId, int count) {
+        List<Item> page = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            page.add(new Item(firstId + i, "Item " + (firstId + i), "", 0));
+        }
+        return page;
+    }
+}